@@ -0,0 +1,78 @@
+package planup.backend.config;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Caps how many threads may be inside a blocking resource (Mongo pool, SMTP, push gateway) at once.
+// With virtual threads there is no thread-pool limit anymore, so this is what keeps thousands of
+// parked requests from piling into the driver's wait queue.
+public class Bulkhead {
+    private final String name;
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+    // Nested calls (repository -> template) must not take a second permit or they can deadlock at saturation
+    private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+
+    public Bulkhead(String name, int maxConcurrent, long acquireTimeoutMs) {
+        this.name = name;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    public <T> T call(Supplier<T> action) {
+        enter();
+        try {
+            return action.get();
+        } finally {
+            exit();
+        }
+    }
+
+    public void run(Runnable action) {
+        enter();
+        try {
+            action.run();
+        } finally {
+            exit();
+        }
+    }
+
+    // enter/exit must always be paired; prefer call/run unless the guarded code throws checked exceptions
+    public void enter() {
+        int[] d = depth.get();
+        if (d[0] == 0) {
+            acquire();
+        }
+        d[0]++;
+    }
+
+    public void exit() {
+        int[] d = depth.get();
+        if (--d[0] == 0) {
+            depth.remove();
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                depth.remove();
+                throw new BulkheadFullException(name);
+            }
+        } catch (InterruptedException e) {
+            depth.remove();
+            Thread.currentThread().interrupt();
+            throw new BulkheadFullException(name);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
@@ -0,0 +1,7 @@
+package planup.backend.config;
+
+public class BulkheadFullException extends RuntimeException {
+    public BulkheadFullException(String bulkhead) {
+        super("Too many concurrent calls to " + bulkhead + ", try again shortly");
+    }
+}
@@ -0,0 +1,117 @@
+package planup.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// planup.execution.mode=platform (default) keeps Tomcat's bounded worker pool.
+// planup.execution.mode=virtual runs every request, and whatever blocking Mongo/SMTP/HTTP call it makes,
+// on its own virtual thread; the bulkheads below then become the only concurrency limit.
+@Configuration
+public class ExecutionConfig {
+    public static final String VIRTUAL = "virtual";
+
+    @Value("${planup.execution.mode:platform}")
+    private String mode;
+    @Value("${planup.execution.platform-threads:32}")
+    private int platformThreads;
+    @Value("${planup.mongo.pool.max-size:100}")
+    private int mongoPoolMaxSize;
+    @Value("${planup.mongo.pool.min-size:0}")
+    private int mongoPoolMinSize;
+    @Value("${planup.bulkhead.acquire-timeout-ms:2000}")
+    private long acquireTimeoutMs;
+    @Value("${planup.mail.max-concurrent:10}")
+    private int mailMaxConcurrent;
+    @Value("${planup.push.max-concurrent:20}")
+    private int pushMaxConcurrent;
+    @Value("${planup.push.timeout-ms:5000}")
+    private long pushTimeoutMs;
+    @Value("${planup.thumbnails.threads:2}")
+    private int thumbnailThreads;
+    @Value("${planup.thumbnails.queue-size:500}")
+    private int thumbnailQueueSize;
+
+    public boolean isVirtual() {
+        return VIRTUAL.equalsIgnoreCase(mode);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "planup.execution.mode", havingValue = VIRTUAL)
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler() {
+        return handler -> handler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    // Shared executor for blocking work done off the request thread
+    @Bean(name = "blockingExecutor", destroyMethod = "shutdown")
+    public ExecutorService blockingExecutor() {
+        if (isVirtual()) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("blocking-", 0).factory());
+        }
+        return new ThreadPoolExecutor(platformThreads, platformThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(10_000), namedThreads("blocking-"), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // Image decoding is CPU and memory heavy, so it gets a small platform pool of its own in both modes.
+    // A full queue rejects the task instead of running it on the caller, which would be the upload request.
+    @Bean(name = "thumbnailExecutor", destroyMethod = "shutdown")
+    public ExecutorService thumbnailExecutor() {
+        return new ThreadPoolExecutor(thumbnailThreads, thumbnailThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(thumbnailQueueSize), namedThreads("thumbnail-"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Pool size and bulkhead permits are the same number: a caller that gets a permit always gets a connection
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoPoolCustomizer() {
+        return builder -> builder.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(mongoPoolMaxSize)
+                .minSize(mongoPoolMinSize)
+                .maxWaitTime(acquireTimeoutMs, TimeUnit.MILLISECONDS));
+    }
+
+    @Bean
+    public Bulkhead mongoBulkhead() {
+        return new Bulkhead("mongo", mongoPoolMaxSize, acquireTimeoutMs);
+    }
+
+    @Bean
+    public Bulkhead mailBulkhead() {
+        return new Bulkhead("mail", mailMaxConcurrent, acquireTimeoutMs);
+    }
+
+    @Bean
+    public Bulkhead pushBulkhead() {
+        return new Bulkhead("push", pushMaxConcurrent, acquireTimeoutMs);
+    }
+
+    @Bean
+    public RestTemplate pushRestTemplate(RestTemplateBuilder builder) {
+        return builder
+                .connectTimeout(Duration.ofMillis(pushTimeoutMs))
+                .readTimeout(Duration.ofMillis(pushTimeoutMs))
+                .build();
+    }
+
+    public static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package planup.backend.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Every Spring Data repository call and every MongoTemplate operation goes through the mongo bulkhead; a
+// repository call takes one permit for the template calls it makes underneath (Bulkhead is re-entrant).
+// Not covered: accessors that do no I/O (get*), and work done on objects a call hands back, i.e. executing
+// bulkOps/indexOps and iterating a stream() after it was opened.
+@Aspect
+@Component
+@Order(MongoBulkheadAspect.ORDER)
+public class MongoBulkheadAspect {
+    // Outermost of the repository aspects: anything ordered after it (RepositoryMetricsAspect) runs once a
+    // permit is held, so its timings measure Mongo and exclude the wait for a permit
+    public static final int ORDER = 0;
+
+    private final Bulkhead mongoBulkhead;
+
+    public MongoBulkheadAspect(@Qualifier("mongoBulkhead") Bulkhead mongoBulkhead) {
+        this.mongoBulkhead = mongoBulkhead;
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)"
+            + " || (execution(public * org.springframework.data.mongodb.core.MongoTemplate.*(..))"
+            + " && !execution(* org.springframework.data.mongodb.core.MongoTemplate.get*(..))"
+            + " && !execution(* org.springframework.data.mongodb.core.MongoTemplate.*Ops(..)))")
+    public Object guard(ProceedingJoinPoint pjp) throws Throwable {
+        mongoBulkhead.enter();
+        try {
+            return pjp.proceed();
+        } finally {
+            mongoBulkhead.exit();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package planup.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import planup.backend.dto.ActivityPage;
+import planup.backend.service.ActivityService;
+
+@RestController
+@RequestMapping("/activity")
+@RequiredArgsConstructor
+public class ActivityController {
+    private final ActivityService activityService;
+
+    // Newest first; pass the returned nextCursor as ?cursor= for older activity. ?before= (epoch millis)
+    // starts the first page at a point in time instead of now.
+    @GetMapping
+    public ActivityPage getActivity(@RequestParam String projectId,
+                                    @RequestParam(required = false) String cursor,
+                                    @RequestParam(required = false) Long before,
+                                    @RequestParam(defaultValue = "50") int limit) {
+        return activityService.getActivity(projectId, cursor, before, limit);
+    }
+}
@@ -0,0 +1,105 @@
+package planup.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import planup.backend.dto.CalendarItem;
+import planup.backend.model.CalendarEvent;
+import planup.backend.service.CalendarService;
+import planup.backend.service.IcsWriter;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/calendar")
+@RequiredArgsConstructor
+public class CalendarController {
+    private static final MediaType TEXT_CALENDAR = new MediaType("text", "calendar", StandardCharsets.UTF_8);
+
+    private final CalendarService calendarService;
+
+    // Events, issue due dates and sprints overlapping [from, to] (epoch millis)
+    @GetMapping
+    public List<CalendarItem> getItems(@RequestParam List<String> projectIds, @RequestParam long from, @RequestParam long to) {
+        return calendarService.getItems(projectIds, new Date(from), new Date(to));
+    }
+
+    // Subscribable feed; clients polling with If-None-Match get a 304 until one of the projects changes
+    @GetMapping("/feed.ics")
+    public ResponseEntity<StreamingResponseBody> getFeed(@RequestParam List<String> projectIds,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = calendarService.feedETag(projectIds);
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        Date from = calendarService.feedFrom();
+        Date to = calendarService.feedTo();
+        StreamingResponseBody body = output -> {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            IcsWriter ics = new IcsWriter(writer);
+            ics.begin("PlanUp");
+            try {
+                calendarService.forEachItem(projectIds, from, to, item -> {
+                    try {
+                        ics.write(item);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            ics.end();
+        };
+        return ResponseEntity.ok()
+                .contentType(TEXT_CALENDAR)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(body);
+    }
+
+    @GetMapping("/events")
+    public List<CalendarEvent> getEvents(@RequestParam String projectId) {
+        return calendarService.getEventsByProject(projectId);
+    }
+
+    @GetMapping("/events/{id}")
+    public ResponseEntity<CalendarEvent> getEventById(@PathVariable String id) {
+        return calendarService.getEventById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/events")
+    public CalendarEvent createEvent(@RequestBody CalendarEvent event) {
+        return calendarService.createEvent(event);
+    }
+
+    @PutMapping("/events/{id}")
+    public ResponseEntity<CalendarEvent> updateEvent(@PathVariable String id, @RequestBody CalendarEvent event) {
+        return calendarService.getEventById(id)
+                .map(existing -> ResponseEntity.ok(calendarService.updateEvent(existing, event)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/events/{id}")
+    public ResponseEntity<Void> deleteEvent(@PathVariable String id) {
+        return calendarService.getEventById(id)
+                .map(event -> {
+                    calendarService.deleteEvent(event);
+                    return ResponseEntity.noContent().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
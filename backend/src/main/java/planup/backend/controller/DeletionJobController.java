@@ -0,0 +1,29 @@
+package planup.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import planup.backend.model.DeletionJob;
+import planup.backend.service.DeletionJobService;
+
+import java.util.List;
+
+// Progress of the background cleanup behind issue, sprint and project deletes
+@RestController
+@RequestMapping("/deletion-jobs")
+@RequiredArgsConstructor
+public class DeletionJobController {
+    private final DeletionJobService deletionJobService;
+
+    @GetMapping
+    public List<DeletionJob> getJobsForRoot(@RequestParam String rootId) {
+        return deletionJobService.getJobsForRoot(rootId);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<DeletionJob> getJob(@PathVariable String id) {
+        return deletionJobService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
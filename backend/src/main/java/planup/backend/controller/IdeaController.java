@@ -0,0 +1,88 @@
+package planup.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import planup.backend.dto.DuplicateCandidate;
+import planup.backend.dto.PromotionResponse;
+import planup.backend.model.Idea;
+import planup.backend.service.IdeaService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/ideas")
+@RequiredArgsConstructor
+public class IdeaController {
+    private final IdeaService ideaService;
+
+    @GetMapping
+    public List<Idea> getIdeas(@RequestParam(required = false) String organizationId,
+                               @RequestParam(required = false) String projectId) {
+        return projectId != null
+                ? ideaService.getIdeasByProject(projectId)
+                : ideaService.getIdeasByOrganization(organizationId);
+    }
+
+    @GetMapping("/top")
+    public List<Idea> getTopIdeas(@RequestParam String organizationId, @RequestParam(defaultValue = "20") int limit) {
+        return ideaService.getTopIdeas(organizationId, limit);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Idea> getIdeaById(@PathVariable String id) {
+        return ideaService.getIdeaById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Idea createIdea(@RequestBody Idea idea) {
+        return ideaService.createIdea(idea);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Idea> updateIdea(@PathVariable String id, @RequestBody Idea idea) {
+        return ideaService.getIdeaById(id)
+                .map(existing -> ResponseEntity.ok(ideaService.updateIdea(existing, idea)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteIdea(@PathVariable String id) {
+        return ideaService.getIdeaById(id)
+                .map(existing -> {
+                    ideaService.deleteIdea(existing);
+                    return ResponseEntity.noContent().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<DuplicateCandidate>> getSimilarIdeas(@PathVariable String id,
+                                                                    @RequestParam(defaultValue = "5") int limit) {
+        return ideaService.getIdeaById(id)
+                .map(idea -> ResponseEntity.ok(ideaService.getSimilarIdeas(idea, limit)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{ideaId}/promote")
+    public ResponseEntity<PromotionResponse> promote(@PathVariable String ideaId, @RequestParam String projectId,
+                                                     @RequestParam(required = false) String userId,
+                                                     @RequestParam(defaultValue = "false") boolean linkDuplicates,
+                                                     @RequestParam(defaultValue = "5") int limit) {
+        return ideaService.getIdeaById(ideaId)
+                .map(idea -> ResponseEntity.ok(ideaService.promote(idea, projectId, userId, linkDuplicates, limit)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{ideaId}/upvote")
+    public Idea upvote(@PathVariable String ideaId, @RequestParam String userId) {
+        return ideaService.upvote(ideaId, userId);
+    }
+
+    @DeleteMapping("/{ideaId}/upvote")
+    public Idea removeUpvote(@PathVariable String ideaId, @RequestParam String userId) {
+        return ideaService.removeUpvote(ideaId, userId);
+    }
+}
@@ -4,38 +4,75 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import planup.backend.model.*;
+import planup.backend.service.AttachmentService;
+import planup.backend.service.CommentService;
+import planup.backend.service.DuplicateService;
 import planup.backend.service.IssueService;
+import planup.backend.service.ThumbnailService;
+import planup.backend.service.UserProfileService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import jakarta.validation.Valid;
+import planup.backend.dto.BulkStatusUpdateRequest;
+import planup.backend.dto.BulkStatusUpdateResponse;
+import planup.backend.dto.CommentPage;
+import planup.backend.dto.DuplicateCandidate;
+import planup.backend.dto.DuplicateCheckRequest;
 import planup.backend.dto.IssueRequest;
 import planup.backend.dto.IssueResponse;
+import planup.backend.dto.UserProfile;
 import planup.backend.mapper.IssueMapper;
+import planup.backend.storage.AttachmentStore;
+import planup.backend.storage.ByteRange;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/issues")
 @RequiredArgsConstructor
 public class IssueController {
+    private static final Set<String> INLINE_TYPES = Set.of("image/png", "image/jpeg", "image/gif", "image/webp", "image/bmp");
+
     private final IssueService issueService;
+    private final CommentService commentService;
+    private final AttachmentService attachmentService;
+    private final ThumbnailService thumbnailService;
+    private final UserProfileService userProfileService;
+    private final DuplicateService duplicateService;
     @Autowired
     private MongoTemplate mongoTemplate;
 
     @GetMapping
-    public List<IssueResponse> getAllIssues() {
-        return issueService.getAllIssues()
-                .stream()
-                .map(IssueMapper::toResponse)
-                .collect(Collectors.toList());
+    public List<IssueResponse> getAllIssues(@RequestParam(required = false) String expand) {
+        return toResponses(issueService.getAllIssues(), expand);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<IssueResponse> getIssueById(@PathVariable String id) {
-        return issueService.getIssueById(id)
+    public ResponseEntity<IssueResponse> getIssueById(@PathVariable String id,
+                                                      @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return issueService.getIssueById(id, includeArchived)
                 .map(IssueMapper::toResponse)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -50,59 +87,41 @@ public class IssueController {
     }
 
     @GetMapping("/project/{projectId}")
-    public List<IssueResponse> getIssuesByProject(@PathVariable String projectId) {
-        return issueService.getIssuesByProject(projectId)
-                .stream()
-                .map(IssueMapper::toResponse)
-                .collect(Collectors.toList());
+    public List<IssueResponse> getIssuesByProject(@PathVariable String projectId, @RequestParam(required = false) String expand,
+                                                  @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return toResponses(issueService.getIssuesByProject(projectId, includeArchived), expand);
     }
 
     @GetMapping("/assignee/{assigneeId}")
-    public List<IssueResponse> getIssuesByAssignee(@PathVariable String assigneeId) {
-        return issueService.getIssuesByAssignee(assigneeId)
-                .stream()
-                .map(IssueMapper::toResponse)
-                .collect(Collectors.toList());
+    public List<IssueResponse> getIssuesByAssignee(@PathVariable String assigneeId, @RequestParam(required = false) String expand) {
+        return toResponses(issueService.getIssuesByAssignee(assigneeId), expand);
     }
 
     @GetMapping("/status/{status}")
-    public List<IssueResponse> getIssuesByStatus(@PathVariable String status) {
-        return issueService.getIssuesByStatus(status)
-                .stream()
-                .map(IssueMapper::toResponse)
-                .collect(Collectors.toList());
+    public List<IssueResponse> getIssuesByStatus(@PathVariable String status, @RequestParam(required = false) String expand) {
+        return toResponses(issueService.getIssuesByStatus(status), expand);
     }
 
     @GetMapping("/priority/{priority}")
-    public List<IssueResponse> getIssuesByPriority(@PathVariable String priority) {
-        return issueService.getIssuesByPriority(priority)
-                .stream()
-                .map(IssueMapper::toResponse)
-                .collect(Collectors.toList());
+    public List<IssueResponse> getIssuesByPriority(@PathVariable String priority, @RequestParam(required = false) String expand) {
+        return toResponses(issueService.getIssuesByPriority(priority), expand);
     }
 
     @GetMapping("/type/{type}")
-    public List<IssueResponse> getIssuesByType(@PathVariable String type) {
-        return issueService.getIssuesByType(type)
-                .stream()
-                .map(IssueMapper::toResponse)
-                .collect(Collectors.toList());
+    public List<IssueResponse> getIssuesByType(@PathVariable String type, @RequestParam(required = false) String expand) {
+        return toResponses(issueService.getIssuesByType(type), expand);
     }
 
     @GetMapping("/sprint/{sprintId}")
-    public List<IssueResponse> getIssuesBySprint(@PathVariable String sprintId) {
-        return issueService.getIssuesBySprint(sprintId)
-                .stream()
-                .map(IssueMapper::toResponse)
-                .collect(Collectors.toList());
+    public List<IssueResponse> getIssuesBySprint(@PathVariable String sprintId, @RequestParam(required = false) String expand,
+                                                 @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return toResponses(issueService.getIssuesBySprint(sprintId, includeArchived), expand);
     }
 
     @GetMapping("/epic/{epicId}")
-    public List<IssueResponse> getIssuesByEpic(@PathVariable String epicId) {
-        return issueService.getIssuesByEpic(epicId)
-                .stream()
-                .map(IssueMapper::toResponse)
-                .collect(Collectors.toList());
+    public List<IssueResponse> getIssuesByEpic(@PathVariable String epicId, @RequestParam(required = false) String expand,
+                                               @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return toResponses(issueService.getIssuesByEpic(epicId, includeArchived), expand);
     }
 
     @PostMapping
@@ -115,47 +134,75 @@ public class IssueController {
     public ResponseEntity<IssueResponse> updateIssue(@PathVariable String id, @Valid @RequestBody IssueRequest request) {
         return issueService.getIssueById(id)
                 .map(existing -> {
-                    Issue updated = issueService.updateIssue(id, IssueMapper.toEntity(request));
+                    Issue updated = issueService.updateIssue(existing, IssueMapper.toEntity(request));
                     return ResponseEntity.ok(IssueMapper.toResponse(updated));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Moves many issues at once (board multi-select); each is checked against its workflow
+    @PutMapping("/bulk/status")
+    public BulkStatusUpdateResponse updateStatuses(@Valid @RequestBody BulkStatusUpdateRequest request) {
+        return issueService.updateStatuses(request.getIssueIds(), request.getStatus());
+    }
+
+    // Likely duplicates of an issue about to be created
+    @PostMapping("/duplicates")
+    public List<DuplicateCandidate> checkDuplicates(@Valid @RequestBody DuplicateCheckRequest request,
+                                                    @RequestParam(defaultValue = "5") int limit) {
+        return duplicateService.findIssueDuplicates(request.getProjectId(), request.getTitle(), request.getDescription(),
+                null, limit);
+    }
+
+    @GetMapping("/{id}/duplicates")
+    public ResponseEntity<List<DuplicateCandidate>> getDuplicates(@PathVariable String id,
+                                                                  @RequestParam(defaultValue = "5") int limit) {
+        return issueService.getIssueById(id)
+                .map(issue -> ResponseEntity.ok(duplicateService.findIssueDuplicates(issue.getProjectId(),
+                        issue.getTitle(), issue.getDescription(), issue.getId(), limit)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteIssue(@PathVariable String id) {
-        if (issueService.getIssueById(id).isPresent()) {
-            issueService.deleteIssue(id);
-            return ResponseEntity.ok().build();
-        }
-        return ResponseEntity.notFound().build();
+        return issueService.getIssueById(id)
+                .map(issue -> {
+                    issueService.deleteIssue(issue);
+                    return ResponseEntity.ok().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
     }
 
     // Comment endpoints
+    // Newest first; follow nextCursor for older comments
     @GetMapping("/{issueId}/comments")
-    public List<Comment> getCommentsByIssue(@PathVariable String issueId) {
-        return issueService.getCommentsByIssue(issueId);
+    public CommentPage getCommentsByIssue(@PathVariable String issueId,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(defaultValue = "20") int limit) {
+        return commentService.getComments(issueId, cursor, limit);
     }
 
     @PostMapping("/{issueId}/comments")
     public Comment addComment(@PathVariable String issueId, @RequestBody Comment comment) {
-        return issueService.addComment(issueId, comment);
+        return commentService.addComment(issueId, comment);
     }
 
     @PutMapping("/comments/{commentId}")
     public ResponseEntity<Comment> updateComment(@PathVariable String commentId, @RequestBody Comment comment) {
-        return ResponseEntity.ok(issueService.updateComment(commentId, comment));
+        return ResponseEntity.ok(commentService.updateComment(commentId, comment));
     }
 
     @DeleteMapping("/comments/{commentId}")
     public ResponseEntity<Void> deleteComment(@PathVariable String commentId) {
-        issueService.deleteComment(commentId);
+        commentService.deleteComment(commentId);
         return ResponseEntity.ok().build();
     }
 
     // Time log endpoints
     @GetMapping("/{issueId}/timelogs")
-    public List<TimeLog> getTimeLogsByIssue(@PathVariable String issueId) {
-        return issueService.getTimeLogsByIssue(issueId);
+    public List<TimeLog> getTimeLogsByIssue(@PathVariable String issueId,
+                                            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return issueService.getTimeLogsByIssue(issueId, includeArchived);
     }
 
     @PostMapping("/{issueId}/timelogs")
@@ -185,12 +232,142 @@ public class IssueController {
         return issueService.addAttachment(issueId, attachment);
     }
 
+    // Raw file bytes in the body with the file's Content-Type; streamed to the attachment store as they arrive
+    @PostMapping("/{issueId}/attachments/content")
+    public Attachment uploadAttachment(@PathVariable String issueId,
+                                       @RequestParam String name,
+                                       @RequestParam(required = false) String uploadedById,
+                                       @RequestParam(required = false) String description,
+                                       @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                       InputStream body) throws IOException {
+        return attachmentService.upload(issueId, name, contentType, uploadedById, description, body);
+    }
+
+    @GetMapping("/attachments/{attachmentId}/content")
+    public void downloadAttachment(@PathVariable String attachmentId, HttpServletRequest request,
+                                   HttpServletResponse response) throws IOException {
+        Attachment attachment = attachmentService.getAttachment(attachmentId).orElse(null);
+        Optional<AttachmentStore.Blob> content = attachment == null ? Optional.empty() : attachmentService.openContent(attachment);
+        if (content.isEmpty()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        AttachmentStore.Blob blob = content.get();
+        // content-addressed, so the hash is a strong validator that never changes for this attachment
+        String etag = "\"" + blob.hash() + "\"";
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long size = blob.size();
+        ByteRange range = new ByteRange(0, size - 1);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (size > 0 && (ifRange == null || ifRange.equals(etag))) {
+            try {
+                Optional<ByteRange> requested = ByteRange.parse(request.getHeader(HttpHeaders.RANGE), size);
+                if (requested.isPresent()) {
+                    range = requested.get();
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, range.contentRange(size));
+                }
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+        }
+        // the file type is whatever the uploader claimed, so only raster images are shown inline; anything else
+        // (HTML, SVG, ...) is downloaded, so it can't run as script on this origin
+        String fileType = attachment.getFileType() != null ? attachment.getFileType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        boolean inline = INLINE_TYPES.contains(fileType.toLowerCase(Locale.ROOT));
+        response.setContentType(fileType);
+        String name = attachment.getName() != null ? attachment.getName().replaceAll("[\"\\r\\n]", "") : attachmentId;
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, (inline ? "inline" : "attachment") + "; filename=\"" + name + "\"");
+        response.setContentLengthLong(size == 0 ? 0 : range.length());
+        if (size == 0) {
+            return;
+        }
+        writeRange(blob, range, request, response);
+    }
+
+    // 202 with Retry-After while the thumbnail is still being generated
+    @GetMapping("/attachments/{attachmentId}/thumbnail")
+    public void downloadThumbnail(@PathVariable String attachmentId, HttpServletRequest request,
+                                  HttpServletResponse response) throws IOException {
+        Attachment attachment = attachmentService.getAttachment(attachmentId).orElse(null);
+        if (attachment == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        Optional<AttachmentStore.Blob> thumbnail = attachmentService.openThumbnail(attachment);
+        if (thumbnail.isEmpty()) {
+            response.setStatus(HttpStatus.ACCEPTED.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "2");
+            return;
+        }
+        AttachmentStore.Blob blob = thumbnail.get();
+        String etag = "\"" + blob.hash() + "-" + thumbnailService.getVariant() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setContentType(ThumbnailService.CONTENT_TYPE);
+        response.setContentLengthLong(blob.size());
+        writeRange(blob, new ByteRange(0, blob.size() - 1), request, response);
+    }
+
     @DeleteMapping("/attachments/{attachmentId}")
-    public ResponseEntity<Void> deleteAttachment(@PathVariable String attachmentId) {
-        issueService.deleteAttachment(attachmentId);
+    public ResponseEntity<Void> deleteAttachment(@PathVariable String attachmentId) throws IOException {
+        attachmentService.deleteAttachment(attachmentId);
         return ResponseEntity.ok().build();
     }
 
+    // Tomcat's sendfile hands the file region to the kernel without copying it through the JVM; otherwise
+    // FileChannel.transferTo moves it into the response channel
+    private void writeRange(AttachmentStore.Blob blob, ByteRange range, HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        Optional<Path> file = blob.file();
+        if (file.isPresent() && Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            request.setAttribute("org.apache.tomcat.sendfile.filename", file.get().toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", range.start());
+            request.setAttribute("org.apache.tomcat.sendfile.end", range.end() + 1);
+            return;
+        }
+        WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+        long position = range.start();
+        long remaining = range.length();
+        try (SeekableByteChannel channel = blob.channel()) {
+            if (channel instanceof FileChannel fileChannel) {
+                while (remaining > 0) {
+                    long sent = fileChannel.transferTo(position, remaining, out);
+                    if (sent <= 0) break;
+                    position += sent;
+                    remaining -= sent;
+                }
+                return;
+            }
+            channel.position(position);
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            while (remaining > 0) {
+                buffer.limit((int) Math.min(buffer.capacity(), remaining));
+                int read = channel.read(buffer);
+                if (read < 0) break;
+                buffer.flip();
+                while (buffer.hasRemaining()) out.write(buffer);
+                buffer.clear();
+                remaining -= read;
+            }
+        }
+    }
+
     // Search endpoints
     @GetMapping("/search")
     public List<Issue> searchIssues(
@@ -200,7 +377,8 @@ public class IssueController {
         @RequestParam(required = false) String sprintId,
         @RequestParam(required = false) String text
     ) {
-        Query query = new Query();
+        // issues claimed for archiving drop out, as from the other hot lists
+        Query query = new Query(Criteria.where("isActive").is(true));
         if (status != null) query.addCriteria(Criteria.where("status").is(status));
         if (assignee != null) query.addCriteria(Criteria.where("assignee").is(assignee));
         if (projectId != null) query.addCriteria(Criteria.where("projectId").is(projectId));
@@ -216,4 +394,31 @@ public class IssueController {
     public List<Issue> getIssuesByLabels(@RequestParam List<String> labels) {
         return issueService.getIssuesByLabels(labels);
     }
-} 
\ No newline at end of file
+
+    // expand=assignee,reporter embeds compact profiles, loaded for the whole page in one lookup
+    private List<IssueResponse> toResponses(List<Issue> issues, String expand) {
+        List<IssueResponse> responses = issues.stream()
+                .map(IssueMapper::toResponse)
+                .collect(Collectors.toList());
+        if (expand == null || expand.isBlank()) {
+            return responses;
+        }
+        List<String> fields = List.of(expand.split(","));
+        boolean assignee = fields.contains("assignee");
+        boolean reporter = fields.contains("reporter");
+        if (!assignee && !reporter) {
+            return responses;
+        }
+        Set<String> userIds = new HashSet<>();
+        for (IssueResponse response : responses) {
+            if (assignee && response.getAssigneeId() != null) userIds.add(response.getAssigneeId());
+            if (reporter && response.getReporterId() != null) userIds.add(response.getReporterId());
+        }
+        Map<String, UserProfile> profiles = userProfileService.getProfiles(userIds);
+        for (IssueResponse response : responses) {
+            if (assignee && response.getAssigneeId() != null) response.setAssignee(profiles.get(response.getAssigneeId()));
+            if (reporter && response.getReporterId() != null) response.setReporter(profiles.get(response.getReporterId()));
+        }
+        return responses;
+    }
+}
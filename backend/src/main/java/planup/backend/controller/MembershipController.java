@@ -0,0 +1,42 @@
+package planup.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import planup.backend.model.Membership;
+import planup.backend.service.MembershipService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/memberships")
+@RequiredArgsConstructor
+public class MembershipController {
+    private final MembershipService membershipService;
+
+    @GetMapping("/user/{userId}")
+    public List<Membership> getMemberships(@PathVariable String userId) {
+        return membershipService.getMemberships(userId);
+    }
+
+    @GetMapping("/{scopeType}/{scopeId}")
+    public List<Membership> getMembers(@PathVariable String scopeType, @PathVariable String scopeId,
+                                       @RequestParam(required = false) String after,
+                                       @RequestParam(defaultValue = "100") int limit) {
+        return membershipService.getMembers(scopeType, scopeId, after, limit);
+    }
+
+    @PutMapping("/{scopeType}/{scopeId}/{userId}")
+    public Membership join(@PathVariable String scopeType, @PathVariable String scopeId, @PathVariable String userId,
+                           @RequestParam(required = false) String role) {
+        return membershipService.join(scopeType, scopeId, userId, role);
+    }
+
+    @DeleteMapping("/{scopeType}/{scopeId}/{userId}")
+    public ResponseEntity<Void> leave(@PathVariable String scopeType, @PathVariable String scopeId, @PathVariable String userId) {
+        if (membershipService.leave(scopeType, scopeId, userId)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+}
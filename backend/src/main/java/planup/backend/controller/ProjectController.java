@@ -8,9 +8,11 @@ import planup.backend.dto.ProjectRequest;
 import planup.backend.dto.ProjectResponse;
 import planup.backend.mapper.ProjectMapper;
 import planup.backend.model.Project;
+import planup.backend.service.DeadlineService;
 import planup.backend.service.ProjectService;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -18,6 +20,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ProjectController {
     private final ProjectService service;
+    private final DeadlineService deadlineService;
 
     @GetMapping
     public List<ProjectResponse> list() {
@@ -55,5 +58,11 @@ public class ProjectController {
         return ResponseEntity.notFound().build();
     }
 
+    // Open issues whose deadline has passed, maintained by DeadlineService
+    @GetMapping("/{id}/overdue")
+    public Map<String, Long> overdue(@PathVariable String id) {
+        return Map.of("overdue", deadlineService.getOverdueCount(id));
+    }
+
     // TODO components, roles sub routes
 }
@@ -0,0 +1,75 @@
+package planup.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import planup.backend.dto.RetrospectiveSummary;
+import planup.backend.model.Retrospective;
+import planup.backend.service.RetrospectiveService;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/retrospectives")
+@RequiredArgsConstructor
+public class RetrospectiveController {
+    private final RetrospectiveService retrospectiveService;
+
+    // The sprint's feedback grouped by type
+    @GetMapping
+    public RetrospectiveSummary getSprintRetrospective(@RequestParam String sprintId) {
+        return retrospectiveService.getSprintSummary(sprintId);
+    }
+
+    @GetMapping("/action-items")
+    public List<Retrospective> getOpenActionItems(@RequestParam String projectId,
+                                                  @RequestParam(defaultValue = "50") int limit) {
+        return retrospectiveService.getOpenActionItems(projectId, limit);
+    }
+
+    @GetMapping("/action-items/count")
+    public Map<String, Long> getOpenActionItemCount(@RequestParam String projectId) {
+        return Map.of("openActionItems", retrospectiveService.getOpenActionItemCount(projectId));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Retrospective> getRetrospective(@PathVariable String id) {
+        return retrospectiveService.getById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Retrospective createRetrospective(@RequestBody Retrospective retrospective) {
+        return retrospectiveService.create(retrospective);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Retrospective> updateRetrospective(@PathVariable String id, @RequestBody Retrospective retrospective) {
+        return retrospectiveService.update(id, retrospective)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{id}/resolve")
+    public ResponseEntity<Retrospective> resolve(@PathVariable String id) {
+        return retrospectiveService.setResolved(id, true)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{id}/reopen")
+    public ResponseEntity<Retrospective> reopen(@PathVariable String id) {
+        return retrospectiveService.setResolved(id, false)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRetrospective(@PathVariable String id) {
+        return retrospectiveService.delete(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
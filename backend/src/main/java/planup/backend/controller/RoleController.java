@@ -0,0 +1,56 @@
+package planup.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import planup.backend.model.Role;
+import planup.backend.service.RoleService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/roles")
+@RequiredArgsConstructor
+public class RoleController {
+    private final RoleService roleService;
+
+    @GetMapping
+    public List<Role> getRoles(@RequestParam(required = false) String projectId,
+                               @RequestParam(required = false) String organizationId) {
+        if (projectId != null) {
+            return roleService.getRolesByProject(projectId);
+        }
+        return organizationId != null
+                ? roleService.getRolesByOrganization(organizationId)
+                : roleService.getAllRoles();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Role> getRoleById(@PathVariable String id) {
+        return roleService.getRoleById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Role createRole(@RequestBody Role role) {
+        return roleService.createRole(role);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Role> updateRole(@PathVariable String id, @RequestBody Role role) {
+        if (roleService.getRoleById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(roleService.updateRole(id, role));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRole(@PathVariable String id) {
+        if (roleService.getRoleById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        roleService.deleteRole(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,30 @@
+package planup.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import planup.backend.dto.TypeaheadHit;
+import planup.backend.service.TypeaheadService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/search")
+@RequiredArgsConstructor
+public class SearchController {
+    private final TypeaheadService typeaheadService;
+
+    @GetMapping("/users")
+    public List<TypeaheadHit> searchUsers(@RequestParam String organizationId, @RequestParam String q,
+                                          @RequestParam(defaultValue = "10") int limit) {
+        return typeaheadService.searchUsers(organizationId, q, limit);
+    }
+
+    @GetMapping("/projects")
+    public List<TypeaheadHit> searchProjects(@RequestParam String organizationId, @RequestParam String q,
+                                             @RequestParam(defaultValue = "10") int limit) {
+        return typeaheadService.searchProjects(organizationId, q, limit);
+    }
+}
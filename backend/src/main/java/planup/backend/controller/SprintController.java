@@ -3,7 +3,10 @@ package planup.backend.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import planup.backend.dto.SprintPlan;
+import planup.backend.dto.SprintPlanRequest;
 import planup.backend.model.Sprint;
+import planup.backend.service.SprintPlanningService;
 import planup.backend.service.SprintService;
 import jakarta.validation.Valid;
 import org.springframework.validation.annotation.Validated;
@@ -17,6 +20,7 @@ import java.util.List;
 @Validated
 public class SprintController {
     private final SprintService sprintService;
+    private final SprintPlanningService planningService;
 
     @GetMapping
     public List<Sprint> getAllSprints() {
@@ -34,6 +38,7 @@ public class SprintController {
     public Sprint createSprint(@Valid @RequestBody SprintDTO sprintDTO) {
         Sprint sprint = Sprint.builder()
                 .name(sprintDTO.getName())
+                .projectId(sprintDTO.getProjectId())
                 .startDate(sprintDTO.getStartDate())
                 .endDate(sprintDTO.getEndDate())
                 .status(sprintDTO.getStatus())
@@ -54,6 +59,7 @@ public class SprintController {
         Sprint sprint = Sprint.builder()
                 .id(id)
                 .name(sprintDTO.getName())
+                .projectId(sprintDTO.getProjectId())
                 .startDate(sprintDTO.getStartDate())
                 .endDate(sprintDTO.getEndDate())
                 .status(sprintDTO.getStatus())
@@ -68,10 +74,21 @@ public class SprintController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteSprint(@PathVariable String id) {
-        if (!sprintService.getSprintById(id).isPresent()) {
-            return ResponseEntity.notFound().build();
-        }
-        sprintService.deleteSprint(id);
-        return ResponseEntity.noContent().build();
+        return sprintService.getSprintById(id)
+                .map(sprint -> {
+                    sprintService.deleteSprint(sprint);
+                    return ResponseEntity.noContent().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Proposes a scope for the sprint from its project's backlog; nothing is saved
+    @PostMapping("/{id}/plan")
+    public ResponseEntity<SprintPlan> planSprint(@PathVariable String id,
+                                                 @Valid @RequestBody(required = false) SprintPlanRequest request) {
+        return sprintService.getSprintById(id)
+                .map(sprint -> ResponseEntity.ok(planningService.plan(sprint,
+                        request != null ? request : new SprintPlanRequest())))
+                .orElse(ResponseEntity.notFound().build());
     }
-} 
\ No newline at end of file
+}
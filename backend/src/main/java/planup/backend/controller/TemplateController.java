@@ -0,0 +1,66 @@
+package planup.backend.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import planup.backend.dto.IssueResponse;
+import planup.backend.dto.TemplateInstantiateRequest;
+import planup.backend.mapper.IssueMapper;
+import planup.backend.model.Template;
+import planup.backend.service.TemplateService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/templates")
+@RequiredArgsConstructor
+public class TemplateController {
+    private final TemplateService templateService;
+
+    @GetMapping
+    public List<Template> getTemplates(@RequestParam(required = false) String projectId,
+                                       @RequestParam(required = false) String organizationId) {
+        return templateService.getTemplates(projectId, organizationId);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Template> getTemplateById(@PathVariable String id) {
+        return templateService.getTemplateById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Template createTemplate(@RequestBody Template template) {
+        return templateService.createTemplate(template);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Template> updateTemplate(@PathVariable String id, @RequestBody Template template) {
+        return templateService.getTemplateById(id)
+                .map(existing -> ResponseEntity.ok(templateService.updateTemplate(existing, template)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteTemplate(@PathVariable String id) {
+        return templateService.getTemplateById(id)
+                .map(existing -> {
+                    templateService.deleteTemplate(existing);
+                    return ResponseEntity.noContent().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Creates the issues with one insertMany; keys come from one block per request
+    @PostMapping("/{id}/instantiate")
+    public ResponseEntity<List<IssueResponse>> instantiate(@PathVariable String id,
+                                                           @Valid @RequestBody TemplateInstantiateRequest request) {
+        return templateService.getTemplateById(id)
+                .map(template -> ResponseEntity.status(HttpStatus.CREATED).body(
+                        templateService.instantiate(template, request).stream().map(IssueMapper::toResponse).toList()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -1,8 +1,11 @@
 package planup.backend.controller;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import planup.backend.dto.UserBatchRequest;
+import planup.backend.dto.UserProfile;
 import planup.backend.model.User;
 import planup.backend.service.UserService;
 
@@ -50,6 +53,16 @@ public class UserController {
         return userService.getUsersByProject(projectId);
     }
 
+    @PostMapping("/batch")
+    public List<UserProfile> getUsersByIds(@Valid @RequestBody UserBatchRequest request) {
+        return userService.getProfiles(request.getIds());
+    }
+
+    @GetMapping("/{id}/permissions")
+    public List<String> getPermissions(@PathVariable String id, @RequestParam String projectId) {
+        return userService.getPermissions(id, projectId);
+    }
+
     @PostMapping
     public User createUser(@RequestBody User user) {
         return userService.createUser(user);
@@ -0,0 +1,52 @@
+package planup.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import planup.backend.model.Workflow;
+import planup.backend.service.WorkflowService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/workflows")
+@RequiredArgsConstructor
+public class WorkflowController {
+    private final WorkflowService workflowService;
+
+    @GetMapping
+    public List<Workflow> getWorkflows(@RequestParam(required = false) String projectId) {
+        return projectId != null
+                ? workflowService.getWorkflowsByProject(projectId)
+                : workflowService.getAllWorkflows();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Workflow> getWorkflowById(@PathVariable String id) {
+        return workflowService.getWorkflowById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Workflow createWorkflow(@RequestBody Workflow workflow) {
+        return workflowService.createWorkflow(workflow);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Workflow> updateWorkflow(@PathVariable String id, @RequestBody Workflow workflow) {
+        if (workflowService.getWorkflowById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(workflowService.updateWorkflow(id, workflow));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteWorkflow(@PathVariable String id) {
+        if (workflowService.getWorkflowById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        workflowService.deleteWorkflow(id);
+        return ResponseEntity.noContent().build();
+    }
+}
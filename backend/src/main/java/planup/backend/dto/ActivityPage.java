@@ -0,0 +1,16 @@
+package planup.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import planup.backend.model.Activity;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityPage {
+    private List<Activity> activities; // newest first
+    private String nextCursor; // pass back as ?cursor= for older activity; null when nothing older is left
+}
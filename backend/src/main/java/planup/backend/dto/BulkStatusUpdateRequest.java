@@ -0,0 +1,17 @@
+package planup.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkStatusUpdateRequest {
+    @NotEmpty
+    @Size(max = 500)
+    private List<String> issueIds;
+    @NotBlank
+    private String status;
+}
@@ -0,0 +1,15 @@
+package planup.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateResponse {
+    private long updated;
+    private Map<String, String> rejected; // issue id -> reason
+}
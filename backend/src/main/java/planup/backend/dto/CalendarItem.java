@@ -0,0 +1,25 @@
+package planup.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+// One entry on the calendar: a CalendarEvent, an issue due date or a sprint
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarItem {
+    public static final String EVENT = "event";
+    public static final String ISSUE_DUE = "issue_due";
+    public static final String SPRINT = "sprint";
+
+    private String type;
+    private String id; // id of the event, issue or sprint
+    private String projectId;
+    private String title;
+    private String description;
+    private Date start;
+    private Date end; // equals start for issue due dates
+}
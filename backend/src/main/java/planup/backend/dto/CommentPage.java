@@ -0,0 +1,16 @@
+package planup.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import planup.backend.model.Comment;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentPage {
+    private List<Comment> comments; // newest first
+    private String nextCursor; // pass back as ?cursor= for older comments; null on the last page
+}
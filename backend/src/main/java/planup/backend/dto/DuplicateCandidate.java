@@ -0,0 +1,15 @@
+package planup.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateCandidate {
+    private String id; // issue or idea id
+    private String key; // issue key, null for ideas
+    private String title;
+    private double similarity; // estimated Jaccard similarity of title + description, 0..1
+}
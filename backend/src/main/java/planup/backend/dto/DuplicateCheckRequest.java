@@ -0,0 +1,13 @@
+package planup.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class DuplicateCheckRequest {
+    @NotBlank
+    private String projectId;
+    @NotBlank
+    private String title;
+    private String description;
+}
@@ -10,6 +10,7 @@ public class IssueRequest {
     private String description;
     private String priority; // Low|Medium|High
     private String type;     // Bug|Story|Task|Epic
+    private String status;   // must be reachable in the issue's workflow; omitted keeps the current status
     private String projectId;
     private String assigneeId;
     private Instant dueDate;
@@ -1,5 +1,6 @@
 package planup.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import java.time.Instant;
 import java.util.List;
@@ -16,6 +17,13 @@ public class IssueResponse {
     private String priority;
     private String type;
     private String assigneeId;
+    private String reporterId;
     private String projectId;
     private List<String> labels;
+    private int commentCount;
+    // filled only when requested with ?expand=assignee,reporter
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private UserProfile assignee;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private UserProfile reporter;
 }
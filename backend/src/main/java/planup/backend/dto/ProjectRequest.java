@@ -9,6 +9,7 @@ public class ProjectRequest {
     private String name;
     @NotBlank
     private String key;
+    private String organizationId;
     private String description;
     private String leadId;
     private String templateId;
@@ -7,6 +7,7 @@ public class ProjectResponse {
     private String id;
     private String name;
     private String key;
+    private String organizationId;
     private String description;
     private String leadId;
     private String templateId;
@@ -0,0 +1,16 @@
+package planup.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromotionResponse {
+    private IssueResponse issue;
+    private List<DuplicateCandidate> duplicates; // likely duplicates of the new issue in its project
+    private int linked; // "duplicates" links created for candidates above the auto-link threshold
+}
@@ -0,0 +1,18 @@
+package planup.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import planup.backend.model.Retrospective;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetrospectiveGroup {
+    private String type;
+    private int count;
+    private int open; // not yet resolved
+    private List<Retrospective> items; // oldest first
+}
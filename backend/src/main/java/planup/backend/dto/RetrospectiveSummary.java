@@ -0,0 +1,16 @@
+package planup.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetrospectiveSummary {
+    private String sprintId;
+    private int total;
+    private List<RetrospectiveGroup> groups;
+}
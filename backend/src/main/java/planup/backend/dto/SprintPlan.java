@@ -0,0 +1,24 @@
+package planup.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SprintPlan {
+    private String sprintId;
+    private List<String> issueIds; // proposed scope, most valuable first
+    private int capacity;
+    private int plannedPoints;
+    private double value;
+    private Map<String, Integer> memberLoad; // user id -> planned points
+    private int candidates;
+    private Map<String, String> excluded; // issue id -> why it can't be planned
+    private boolean optimal; // false when the search stopped at its time budget
+    private long searchMs;
+}
@@ -0,0 +1,17 @@
+package planup.backend.dto;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+import java.util.Map;
+
+// Every field is optional; the sprint's own capacity and team apply when left out
+@Data
+public class SprintPlanRequest {
+    @Min(0)
+    private Integer capacity; // story points for the whole team
+    private Map<String, Integer> memberCapacity; // user id -> story points
+    private Map<String, Double> priorityWeights; // priority -> value of one issue
+    @Min(1)
+    private Long timeBudgetMs;
+}
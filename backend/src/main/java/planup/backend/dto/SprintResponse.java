@@ -9,6 +9,7 @@ public class SprintResponse {
     private String id;
     private String name;
     private String goal;
+    private String projectId;
     private Instant startDate;
     private Instant endDate;
     private String status;
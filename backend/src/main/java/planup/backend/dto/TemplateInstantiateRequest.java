@@ -0,0 +1,23 @@
+package planup.backend.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+// One issue per entry of `items` (each entry's variables override the shared ones), else `count` issues
+@Data
+public class TemplateInstantiateRequest {
+    private String projectId; // defaults to the template's project
+    private String sprintId;
+    private String reporterId;
+    @Min(1)
+    @Max(500)
+    private Integer count;
+    private Map<String, String> variables;
+    @Size(max = 500)
+    private List<Map<String, String>> items;
+}
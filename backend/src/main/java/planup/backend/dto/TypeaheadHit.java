@@ -0,0 +1,14 @@
+package planup.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypeaheadHit {
+    private String id;
+    private String label; // user full name or project name
+    private String detail; // user email or project key
+}
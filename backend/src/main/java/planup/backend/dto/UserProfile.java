@@ -0,0 +1,16 @@
+package planup.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Compact user view for embedding in lists (assignee, reporter) and for batch lookups
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProfile {
+    private String id;
+    private String fullName;
+    private String email;
+    private String avatar;
+}
@@ -15,6 +15,7 @@ public class IssueMapper {
         issue.setDescription(req.getDescription());
         issue.setPriority(req.getPriority());
         issue.setType(req.getType());
+        issue.setStatus(req.getStatus());
         issue.setProjectId(req.getProjectId());
         issue.setAssigneeId(req.getAssigneeId());
         issue.setDueDate(req.getDueDate() != null ? Date.from(req.getDueDate()) : null);
@@ -37,8 +38,10 @@ public class IssueMapper {
         res.setPriority(issue.getPriority());
         res.setType(issue.getType());
         res.setAssigneeId(issue.getAssigneeId());
+        res.setReporterId(issue.getReporterId());
         res.setProjectId(issue.getProjectId());
         res.setLabels(issue.getLabels());
+        res.setCommentCount(issue.getCommentCount());
         return res;
     }
 }
@@ -9,6 +9,7 @@ public class ProjectMapper {
         Project p = new Project();
         p.setName(req.getName());
         p.setKey(req.getKey());
+        p.setOrganizationId(req.getOrganizationId());
         p.setDescription(req.getDescription());
         p.setLead(req.getLeadId());
         p.setTemplate(req.getTemplateId());
@@ -20,6 +21,7 @@ public class ProjectMapper {
         res.setId(p.getId());
         res.setName(p.getName());
         res.setKey(p.getKey());
+        res.setOrganizationId(p.getOrganizationId());
         res.setDescription(p.getDescription());
         res.setLeadId(p.getLead());
         res.setTemplateId(p.getTemplate());
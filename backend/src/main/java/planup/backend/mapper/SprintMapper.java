@@ -11,6 +11,7 @@ public class SprintMapper {
         Sprint s=new Sprint();
         s.setName(req.getName());
         s.setGoal(req.getGoal());
+        s.setProjectId(req.getProjectId());
         s.setStartDate(req.getStartDate()!=null? Date.from(req.getStartDate()):null);
         s.setEndDate(req.getEndDate()!=null? Date.from(req.getEndDate()):null);
         s.setCapacity(req.getCapacity()!=null? req.getCapacity().intValue():0);
@@ -23,6 +24,7 @@ public class SprintMapper {
         res.setId(s.getId());
         res.setName(s.getName());
         res.setGoal(s.getGoal());
+        res.setProjectId(s.getProjectId());
         res.setStartDate(s.getStartDate()!=null? s.getStartDate().toInstant():null);
         res.setEndDate(s.getEndDate()!=null? s.getEndDate().toInstant():null);
         res.setStatus(s.getStatus());
@@ -0,0 +1,54 @@
+package planup.backend.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import java.time.Duration;
+
+// http.server.requests is recorded per route by Spring Boot; this adds p50/p95/p99 and Prometheus
+// histogram buckets to it and to the repository meters, and exposes /actuator/prometheus.
+@Configuration
+@PropertySource("classpath:planup-defaults.properties")
+public class MetricsConfig {
+
+    @Bean
+    public MeterFilter latencyHistograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                String name = id.getName();
+                if (name.equals("http.server.requests") || name.equals("planup.repository.calls")) {
+                    return DistributionStatisticConfig.builder()
+                            .percentiles(0.5, 0.95, 0.99)
+                            .percentilesHistogram(true)
+                            .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+                            .maximumExpectedValue((double) Duration.ofSeconds(30).toNanos())
+                            .build()
+                            .merge(config);
+                }
+                if (name.equals("planup.repository.documents") || name.equals("planup.repository.bytes")) {
+                    return DistributionStatisticConfig.builder()
+                            .percentiles(0.5, 0.95, 0.99)
+                            .build()
+                            .merge(config);
+                }
+                return config;
+            }
+        };
+    }
+
+    @Bean
+    public MongoCommandCapture mongoCommandCapture(QueryProfiler profiler) {
+        return new MongoCommandCapture(profiler);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandCaptureCustomizer(MongoCommandCapture capture) {
+        return builder -> builder.addCommandListener(capture);
+    }
+}
@@ -0,0 +1,79 @@
+package planup.backend.metrics;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+
+import java.util.Set;
+
+// The sync driver fires listener events on the calling thread, so while a repository method is
+// running we can attribute the commands it sends and the bytes it gets back to that method.
+public class MongoCommandCapture implements CommandListener {
+    private static final ThreadLocal<Capture> CURRENT = new ThreadLocal<>();
+    private static final Set<String> QUERY_COMMANDS = Set.of("find", "aggregate", "count", "distinct",
+            "update", "delete", "insert", "findAndModify");
+    private static final BsonDocumentCodec CODEC = new BsonDocumentCodec();
+
+    private final QueryProfiler profiler;
+
+    public MongoCommandCapture(QueryProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    public static Capture begin() {
+        Capture previous = CURRENT.get();
+        CURRENT.set(new Capture());
+        return previous;
+    }
+
+    public static Capture end(Capture previous) {
+        Capture current = CURRENT.get();
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+        return current;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        Capture capture = CURRENT.get();
+        if (capture != null && capture.shape == null && QUERY_COMMANDS.contains(event.getCommandName())) {
+            // the command document is only valid during this callback
+            capture.shape = QueryShapes.shape(event.getCommandName(), event.getCommand());
+        }
+        profiler.maybeSample(event.getDatabaseName(), event.getCommandName(), event.getCommand());
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        Capture capture = CURRENT.get();
+        if (capture != null) {
+            capture.bytes += sizeOf(event.getResponse());
+        }
+    }
+
+    private static long sizeOf(BsonDocument response) {
+        if (response instanceof RawBsonDocument raw) {
+            return raw.getByteBuffer().remaining();
+        }
+        return new RawBsonDocument(response, CODEC).getByteBuffer().remaining();
+    }
+
+    public static final class Capture {
+        private String shape;
+        private long bytes;
+
+        public String getShape() {
+            return shape;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+    }
+}
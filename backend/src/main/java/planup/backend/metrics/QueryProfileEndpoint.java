@@ -0,0 +1,34 @@
+package planup.backend.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// GET /actuator/queryprofile lists sampled query shapes worst scan ratio first, plus the recent samples;
+// DELETE clears them.
+@Component
+@Endpoint(id = "queryprofile")
+@RequiredArgsConstructor
+public class QueryProfileEndpoint {
+    private final QueryProfiler profiler;
+
+    @ReadOperation
+    public Map<String, Object> profile() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", profiler.isEnabled());
+        body.put("sampleRate", profiler.getSampleRate());
+        body.put("shapes", profiler.shapes());
+        body.put("recent", profiler.recentSamples());
+        return body;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+    }
+}
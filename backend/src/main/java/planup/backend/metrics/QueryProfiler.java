@@ -0,0 +1,269 @@
+package planup.backend.metrics;
+
+import com.mongodb.client.MongoClient;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import planup.backend.config.ExecutionConfig;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Samples a fraction of read commands (repository-derived or MongoTemplate), re-runs each sample as
+// explain(executionStats) on a single background thread and aggregates the plans by query shape.
+// Shapes whose docsExamined/nReturned ratio is high or that use COLLSCAN are the ones missing an index.
+@Slf4j
+@Component
+public class QueryProfiler {
+    private static final Set<String> EXPLAINABLE = Set.of("find", "aggregate", "count", "distinct");
+    private static final BsonDocumentCodec CODEC = new BsonDocumentCodec();
+
+    private final ObjectProvider<MongoClient> mongoClient;
+    private final boolean enabled;
+    private final double sampleRate;
+    private final int maxShapes;
+    private final AtomicReferenceArray<Sample> recent;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor explainer;
+
+    public QueryProfiler(ObjectProvider<MongoClient> mongoClient,
+                         @Value("${planup.profiler.enabled:false}") boolean enabled,
+                         @Value("${planup.profiler.sample-rate:0.01}") double sampleRate,
+                         @Value("${planup.profiler.recent-samples:256}") int recentSamples,
+                         @Value("${planup.profiler.max-shapes:500}") int maxShapes) {
+        this.mongoClient = mongoClient;
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.maxShapes = maxShapes;
+        this.recent = new AtomicReferenceArray<>(recentSamples);
+        // one explain at a time, and drop samples rather than queue behind a slow one
+        this.explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(64),
+                ExecutionConfig.namedThreads("query-profiler-"), new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    // Called from the command listener on the caller's thread; must stay cheap when not sampling
+    void maybeSample(String database, String commandName, BsonDocument command) {
+        if (!enabled || !EXPLAINABLE.contains(commandName) || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        String shape = QueryShapes.shape(commandName, command);
+        RawBsonDocument copy = new RawBsonDocument(command, CODEC);
+        explainer.execute(() -> explain(database, commandName, shape, copy));
+    }
+
+    private void explain(String database, String commandName, String shape, RawBsonDocument raw) {
+        try {
+            BsonDocument command = raw.decode(CODEC);
+            // session, cluster time and $db/$readPreference belong to the original request, not the explain
+            command.keySet().removeIf(k -> k.startsWith("$") || k.equals("lsid") || k.equals("txnNumber"));
+            BsonDocument explain = new BsonDocument("explain", command)
+                    .append("verbosity", new BsonString("executionStats"));
+            BsonDocument result = mongoClient.getObject().getDatabase(database).runCommand(explain, BsonDocument.class);
+            record(Sample.from(shape, commandName, result));
+        } catch (Exception e) {
+            log.debug("Could not explain {}: {}", shape, e.getMessage());
+        }
+    }
+
+    private void record(Sample sample) {
+        recent.set((int) (sequence.getAndIncrement() % recent.length()), sample);
+        ShapeStats stats = shapes.get(sample.shape());
+        if (stats == null) {
+            if (shapes.size() >= maxShapes) {
+                evictOldest();
+            }
+            stats = shapes.computeIfAbsent(sample.shape(), ShapeStats::new);
+        }
+        stats.add(sample);
+    }
+
+    private void evictOldest() {
+        shapes.values().stream()
+                .min(Comparator.comparingLong(s -> s.lastSeen))
+                .ifPresent(s -> shapes.remove(s.shape));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    // Worst first: shapes that examine the most documents per document returned
+    public List<ShapeStats> shapes() {
+        List<ShapeStats> list = new ArrayList<>(shapes.values());
+        list.sort(Comparator.comparingDouble(ShapeStats::getScanRatio).reversed());
+        return list;
+    }
+
+    public List<Sample> recentSamples() {
+        List<Sample> list = new ArrayList<>(recent.length());
+        long end = sequence.get();
+        for (long i = Math.max(0, end - recent.length()); i < end; i++) {
+            Sample s = recent.get((int) (i % recent.length()));
+            if (s != null) list.add(s);
+        }
+        return list;
+    }
+
+    public void reset() {
+        shapes.clear();
+        for (int i = 0; i < recent.length(); i++) recent.set(i, null);
+        sequence.set(0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainer.shutdownNow();
+    }
+
+    public record Sample(String shape, String command, Date at, long docsExamined, long keysExamined,
+                         long nReturned, long executionTimeMillis, boolean collscan, String winningPlan) {
+
+        static Sample from(String shape, String command, BsonDocument explain) {
+            BsonDocument planner = find(explain, "queryPlanner");
+            BsonDocument stats = find(explain, "executionStats");
+            BsonDocument winning = planner == null ? null : planner.getDocument("winningPlan", null);
+            // newer servers wrap the classic plan in queryPlan
+            if (winning != null && winning.containsKey("queryPlan")) {
+                winning = winning.getDocument("queryPlan");
+            }
+            StringBuilder plan = new StringBuilder();
+            boolean collscan = describe(winning, plan);
+            return new Sample(shape, command, new Date(),
+                    number(stats, "totalDocsExamined"), number(stats, "totalKeysExamined"),
+                    number(stats, "nReturned"), number(stats, "executionTimeMillis"),
+                    collscan, plan.toString());
+        }
+
+        // Renders the stage chain, e.g. "LIMIT <- FETCH <- IXSCAN{projectId: 1}", and reports whether it contains a COLLSCAN
+        private static boolean describe(BsonDocument stage, StringBuilder out) {
+            if (stage == null) return false;
+            String name = stage.getString("stage", new BsonString("?")).getValue();
+            out.append(name);
+            if (stage.containsKey("keyPattern")) out.append(stage.getDocument("keyPattern").toJson());
+            boolean collscan = name.equals("COLLSCAN");
+            if (stage.containsKey("inputStage")) {
+                out.append(" <- ");
+                collscan |= describe(stage.getDocument("inputStage"), out);
+            } else if (stage.containsKey("inputStages")) {
+                out.append(" <- [");
+                boolean first = true;
+                for (BsonValue child : stage.getArray("inputStages")) {
+                    if (!first) out.append(", ");
+                    first = false;
+                    collscan |= describe(child.asDocument(), out);
+                }
+                out.append(']');
+            }
+            return collscan;
+        }
+
+        // aggregate explains nest the planner output under stages[0].$cursor
+        private static BsonDocument find(BsonDocument doc, String key) {
+            if (doc.containsKey(key) && doc.get(key).isDocument()) return doc.getDocument(key);
+            for (BsonValue v : doc.values()) {
+                BsonDocument found = null;
+                if (v.isDocument()) {
+                    found = find(v.asDocument(), key);
+                } else if (v.isArray()) {
+                    for (BsonValue e : v.asArray()) {
+                        if (e.isDocument() && (found = find(e.asDocument(), key)) != null) break;
+                    }
+                }
+                if (found != null) return found;
+            }
+            return null;
+        }
+
+        private static long number(BsonDocument doc, String key) {
+            if (doc == null || !doc.containsKey(key) || !doc.get(key).isNumber()) return 0;
+            return doc.getNumber(key).longValue();
+        }
+    }
+
+    public static final class ShapeStats {
+        private final String shape;
+        private long samples;
+        private long docsExamined;
+        private long keysExamined;
+        private long nReturned;
+        private long collscans;
+        private long maxExecutionTimeMillis;
+        private String lastWinningPlan;
+        private volatile long lastSeen;
+
+        ShapeStats(String shape) {
+            this.shape = shape;
+        }
+
+        synchronized void add(Sample s) {
+            samples++;
+            docsExamined += s.docsExamined();
+            keysExamined += s.keysExamined();
+            nReturned += s.nReturned();
+            if (s.collscan()) collscans++;
+            maxExecutionTimeMillis = Math.max(maxExecutionTimeMillis, s.executionTimeMillis());
+            lastWinningPlan = s.winningPlan();
+            lastSeen = s.at().getTime();
+        }
+
+        public String getShape() {
+            return shape;
+        }
+
+        public synchronized long getSamples() {
+            return samples;
+        }
+
+        public synchronized long getDocsExamined() {
+            return docsExamined;
+        }
+
+        public synchronized long getKeysExamined() {
+            return keysExamined;
+        }
+
+        public synchronized long getReturned() {
+            return nReturned;
+        }
+
+        public synchronized long getCollscans() {
+            return collscans;
+        }
+
+        public synchronized long getMaxExecutionTimeMillis() {
+            return maxExecutionTimeMillis;
+        }
+
+        public synchronized String getLastWinningPlan() {
+            return lastWinningPlan;
+        }
+
+        // documents examined per document returned; an empty result that scanned anything counts as that many
+        public synchronized double getScanRatio() {
+            return nReturned == 0 ? docsExamined : (double) docsExamined / nReturned;
+        }
+    }
+}
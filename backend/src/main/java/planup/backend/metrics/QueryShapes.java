@@ -0,0 +1,57 @@
+package planup.backend.metrics;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Turns a Mongo command into its shape: field names and operators are kept, literal values become "?",
+// so "find issues {projectId: 'a'}" and "find issues {projectId: 'b'}" aggregate together.
+public final class QueryShapes {
+    private static final BsonString PLACEHOLDER = new BsonString("?");
+    // parts of a command that define its shape; everything else (lsid, $db, batchSize...) is noise
+    private static final Set<String> SHAPE_KEYS = Set.of("filter", "sort", "projection", "pipeline", "q", "query", "updates", "deletes");
+
+    private QueryShapes() {
+    }
+
+    public static String shape(String commandName, BsonDocument command) {
+        BsonValue collection = command.get(commandName);
+        BsonDocument shape = new BsonDocument();
+        for (Map.Entry<String, BsonValue> e : command.entrySet()) {
+            if (SHAPE_KEYS.contains(e.getKey())) {
+                boolean keepLiterals = e.getKey().equals("sort") || e.getKey().equals("projection");
+                shape.put(e.getKey(), keepLiterals ? e.getValue() : normalize(e.getValue()));
+            }
+        }
+        String target = collection != null && collection.isString() ? collection.asString().getValue() : "";
+        return commandName + " " + target + " " + shape.toJson();
+    }
+
+    static BsonValue normalize(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument out = new BsonDocument();
+            for (Map.Entry<String, BsonValue> e : value.asDocument().entrySet()) {
+                // $sort / $project stages and sort specs are part of the shape as-is
+                boolean keep = e.getKey().equals("$sort") || e.getKey().equals("$project") || e.getKey().equals("sort");
+                out.put(e.getKey(), keep ? e.getValue() : normalize(e.getValue()));
+            }
+            return out;
+        }
+        if (value.isArray()) {
+            BsonArray array = value.asArray();
+            // $or/$and/pipelines hold sub-documents that matter; $in lists are just values
+            if (!array.isEmpty() && array.get(0).isDocument()) {
+                BsonArray out = new BsonArray();
+                for (BsonValue v : array) out.add(normalize(v));
+                return out;
+            }
+            return new BsonArray(List.of(PLACEHOLDER));
+        }
+        return PLACEHOLDER;
+    }
+}
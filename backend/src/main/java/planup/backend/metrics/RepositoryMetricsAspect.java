@@ -0,0 +1,131 @@
+package planup.backend.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import planup.backend.config.MongoBulkheadAspect;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Times every repository method by name (planup.repository.calls{repository,method,outcome}) and records
+// how many documents and bytes it returned. Calls slower than planup.metrics.slow-query-ms are counted
+// and logged with their normalized query shape. Ordered after MongoBulkheadAspect, so it runs inside the mongo
+// bulkhead and permit waits are excluded; they surface as BulkheadFullException (503) instead.
+@Slf4j
+@Aspect
+@Component
+@Order(MongoBulkheadAspect.ORDER + 1)
+public class RepositoryMetricsAspect {
+    private static final String REPOSITORY_PACKAGE = "planup.backend.repository";
+
+    private final MeterRegistry registry;
+    private final long slowQueryNanos;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsAspect(MeterRegistry registry, @Value("${planup.metrics.slow-query-ms:200}") long slowQueryMs) {
+        this.registry = registry;
+        this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMs);
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object time(ProceedingJoinPoint pjp) throws Throwable {
+        MongoCommandCapture.Capture previous = MongoCommandCapture.begin();
+        long start = System.nanoTime();
+        boolean success = false;
+        Object result = null;
+        try {
+            result = pjp.proceed();
+            success = true;
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            MongoCommandCapture.Capture capture = MongoCommandCapture.end(previous);
+            String repository = repositoryName(pjp.getThis().getClass());
+            String method = pjp.getSignature().getName();
+            Meters m = meters.computeIfAbsent(repository + '.' + method, k -> new Meters(repository, method));
+            (success ? m.success : m.error).record(nanos, TimeUnit.NANOSECONDS);
+            if (success) {
+                m.documents.record(documentCount(result));
+            }
+            m.bytes.record(capture.getBytes());
+            if (nanos >= slowQueryNanos) {
+                m.slow.increment();
+                log.warn("Slow query {}.{} took {} ms, shape: {}", repository, method,
+                        TimeUnit.NANOSECONDS.toMillis(nanos), capture.getShape());
+            }
+        }
+    }
+
+    private String repositoryName(Class<?> proxyClass) {
+        return repositoryNames.computeIfAbsent(proxyClass, c -> {
+            for (Class<?> i : c.getInterfaces()) {
+                if (i.getPackageName().equals(REPOSITORY_PACKAGE)) {
+                    return i.getSimpleName();
+                }
+            }
+            return c.getSimpleName();
+        });
+    }
+
+    private static long documentCount(Object result) {
+        if (result == null) return 0;
+        if (result instanceof Collection<?> c) return c.size();
+        if (result instanceof Slice<?> s) return s.getNumberOfElements();
+        if (result instanceof Optional<?> o) return o.isPresent() ? 1 : 0;
+        if (result instanceof Iterable<?> it) {
+            long n = 0;
+            for (Object ignored : it) n++;
+            return n;
+        }
+        if (result instanceof Number || result instanceof Boolean) return 0;
+        return 1;
+    }
+
+    private final class Meters {
+        final Timer success;
+        final Timer error;
+        final DistributionSummary documents;
+        final DistributionSummary bytes;
+        final Counter slow;
+
+        Meters(String repository, String method) {
+            success = timer(repository, method, "success");
+            error = timer(repository, method, "error");
+            documents = DistributionSummary.builder("planup.repository.documents")
+                    .description("Documents returned per repository call")
+                    .baseUnit("documents")
+                    .tags("repository", repository, "method", method)
+                    .register(registry);
+            bytes = DistributionSummary.builder("planup.repository.bytes")
+                    .description("Reply bytes received from Mongo per repository call")
+                    .baseUnit("bytes")
+                    .tags("repository", repository, "method", method)
+                    .register(registry);
+            slow = Counter.builder("planup.repository.slow")
+                    .description("Repository calls slower than planup.metrics.slow-query-ms")
+                    .tags("repository", repository, "method", method)
+                    .register(registry);
+        }
+
+        private Timer timer(String repository, String method, String outcome) {
+            return Timer.builder("planup.repository.calls")
+                    .description("Repository method latency")
+                    .tags("repository", repository, "method", method, "outcome", outcome)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package planup.backend.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+// Moves comments that older versions embedded in issues into the comments collection and backfills
+// Issue.commentCount. Runs in the background after startup while the app keeps serving traffic, and is
+// idempotent: issues that still carry a "comments" array or have no commentCount are picked up in _id order,
+// their comments upserted with $setOnInsert (a copy already in the collection wins), then the array is unset.
+// Safe to run on several instances at once. A marker in the migrations collection is checked first, so once
+// a run has finished later startups skip the scan of issues.
+@Slf4j
+@Component
+public class CommentMigration {
+    private static final String ISSUES = "issues";
+    private static final String COMMENTS = "comments";
+    private static final String MARKER = "comments";
+    private static final String MIGRATIONS = "migrations";
+
+    private final MongoTemplate mongoTemplate;
+    private final ExecutorService executor;
+
+    @Value("${planup.migrations.comments.enabled:true}")
+    private boolean enabled;
+    @Value("${planup.migrations.batch-size:200}")
+    private int batchSize;
+    @Value("${planup.migrations.pause-ms:100}")
+    private long pauseMs;
+
+    public CommentMigration(MongoTemplate mongoTemplate, @Qualifier("blockingExecutor") ExecutorService executor) {
+        this.mongoTemplate = mongoTemplate;
+        this.executor = executor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            executor.execute(this::runSafely);
+        }
+    }
+
+    private void runSafely() {
+        try {
+            if (mongoTemplate.exists(Query.query(Criteria.where("_id").is(MARKER)), MIGRATIONS)) {
+                return;
+            }
+            long migrated = run();
+            mongoTemplate.save(new Document("_id", MARKER).append("finishedAt", new Date()), MIGRATIONS);
+            log.info("Comment migration finished, {} issues migrated", migrated);
+        } catch (Exception e) {
+            log.error("Comment migration stopped, it will resume on next startup", e);
+        }
+    }
+
+    public long run() throws InterruptedException {
+        long migrated = 0;
+        Object lastId = null;
+        while (true) {
+            Criteria pending = new Criteria().orOperator(
+                    Criteria.where(COMMENTS).exists(true),
+                    Criteria.where("commentCount").exists(false));
+            Query query = new Query(lastId == null ? pending : new Criteria().andOperator(Criteria.where("_id").gt(lastId), pending))
+                    .with(Sort.by("_id"))
+                    .limit(batchSize);
+            query.fields().include(COMMENTS).include("commentCount");
+            List<Document> issues = mongoTemplate.find(query, Document.class, ISSUES);
+            if (issues.isEmpty()) {
+                return migrated;
+            }
+            for (Document issue : issues) {
+                migrate(issue);
+                lastId = issue.get("_id");
+            }
+            migrated += issues.size();
+            log.debug("Comment migration: {} issues so far", migrated);
+            Thread.sleep(pauseMs);
+        }
+    }
+
+    private void migrate(Document issue) {
+        Object issueId = issue.get("_id");
+        String issueKey = issueId.toString();
+        List<Document> embedded = issue.getList(COMMENTS, Document.class, List.of());
+        if (!embedded.isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COMMENTS);
+            for (Document comment : embedded) {
+                Object id = comment.containsKey("_id") ? comment.get("_id")
+                        : comment.containsKey("id") ? comment.get("id") : new ObjectId();
+                Update insert = new Update().setOnInsert("issueId", issueKey);
+                comment.forEach((field, value) -> {
+                    if (!field.equals("_id") && !field.equals("id") && !field.equals("issueId")) {
+                        insert.setOnInsert(field, value);
+                    }
+                });
+                bulk.upsert(Query.query(Criteria.where("_id").is(id)), insert);
+            }
+            bulk.execute();
+        }
+        // compare-and-set so a concurrent addComment's $inc is never overwritten; on a miss re-read and retry
+        Object seen = issue.get("commentCount");
+        while (true) {
+            long count = mongoTemplate.count(Query.query(Criteria.where("issueId").is(issueKey)), COMMENTS);
+            Criteria unchanged = seen == null
+                    ? Criteria.where("commentCount").exists(false)
+                    : Criteria.where("commentCount").is(seen);
+            Update update = new Update().set("commentCount", (int) count).unset(COMMENTS);
+            if (mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(issueId).andOperator(unchanged)),
+                    update, ISSUES).getMatchedCount() > 0) {
+                return;
+            }
+            Query reread = Query.query(Criteria.where("_id").is(issueId));
+            reread.fields().include("commentCount");
+            Document current = mongoTemplate.findOne(reread, Document.class, ISSUES);
+            if (current == null) {
+                return;
+            }
+            seen = current.get("commentCount");
+        }
+    }
+}
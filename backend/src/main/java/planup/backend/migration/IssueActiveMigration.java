@@ -0,0 +1,80 @@
+package planup.backend.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+// Issues created through the API used to be saved with isActive=false, which now keeps them out of the
+// partial indexes on active issues. Sets isActive on every issue the archiver hasn't claimed, a batch of ids
+// at a time; a marker in the migrations collection makes it one-off.
+@Slf4j
+@Component
+public class IssueActiveMigration {
+    private static final String MARKER = "issues-active";
+    private static final String MIGRATIONS = "migrations";
+
+    private final MongoTemplate mongoTemplate;
+    private final ExecutorService executor;
+
+    @Value("${planup.migrations.issues-active.enabled:true}")
+    private boolean enabled;
+    @Value("${planup.migrations.batch-size:200}")
+    private int batchSize;
+    @Value("${planup.migrations.pause-ms:100}")
+    private long pauseMs;
+
+    public IssueActiveMigration(MongoTemplate mongoTemplate, @Qualifier("blockingExecutor") ExecutorService executor) {
+        this.mongoTemplate = mongoTemplate;
+        this.executor = executor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            executor.execute(this::runSafely);
+        }
+    }
+
+    private void runSafely() {
+        try {
+            if (mongoTemplate.exists(Query.query(Criteria.where("_id").is(MARKER)), MIGRATIONS)) {
+                return;
+            }
+            long issues = run();
+            mongoTemplate.save(new Document("_id", MARKER).append("finishedAt", new Date()), MIGRATIONS);
+            log.info("Issue active flag migration finished, {} issues updated", issues);
+        } catch (Exception e) {
+            log.error("Issue active flag migration stopped, it will resume on next startup", e);
+        }
+    }
+
+    public long run() throws InterruptedException {
+        long updated = 0;
+        Criteria inactive = Criteria.where("isActive").ne(true).and("archivingAt").exists(false);
+        while (true) {
+            Query batch = Query.query(inactive).limit(batchSize);
+            batch.fields().include("_id");
+            List<Object> ids = mongoTemplate.find(batch, Document.class, "issues").stream()
+                    .map(doc -> doc.get("_id"))
+                    .toList();
+            if (ids.isEmpty()) {
+                return updated;
+            }
+            updated += mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids).and("archivingAt").exists(false)),
+                    new Update().set("isActive", true), "issues").getModifiedCount();
+            Thread.sleep(pauseMs);
+        }
+    }
+}
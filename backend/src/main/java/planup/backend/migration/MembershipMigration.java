@@ -0,0 +1,121 @@
+package planup.backend.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import planup.backend.model.Membership;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+// Backfills the memberships collection from the arrays membership used to live in: User.organizationIds,
+// User.projectIds and Organization.memberIds. Edges are upserted with $setOnInsert, so edges written by
+// the running app win and a rerun is harmless; a marker in the migrations collection skips later startups.
+@Slf4j
+@Component
+public class MembershipMigration {
+    private static final String MARKER = "memberships";
+    private static final String MIGRATIONS = "migrations";
+
+    private final MongoTemplate mongoTemplate;
+    private final ExecutorService executor;
+
+    @Value("${planup.migrations.memberships.enabled:true}")
+    private boolean enabled;
+    @Value("${planup.migrations.batch-size:200}")
+    private int batchSize;
+    @Value("${planup.migrations.pause-ms:100}")
+    private long pauseMs;
+
+    public MembershipMigration(MongoTemplate mongoTemplate, @Qualifier("blockingExecutor") ExecutorService executor) {
+        this.mongoTemplate = mongoTemplate;
+        this.executor = executor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            executor.execute(this::runSafely);
+        }
+    }
+
+    private void runSafely() {
+        try {
+            if (mongoTemplate.exists(Query.query(Criteria.where("_id").is(MARKER)), MIGRATIONS)) {
+                return;
+            }
+            long edges = run();
+            mongoTemplate.save(new Document("_id", MARKER).append("finishedAt", new Date()), MIGRATIONS);
+            log.info("Membership migration finished, {} edges upserted", edges);
+        } catch (Exception e) {
+            log.error("Membership migration stopped, it will resume on next startup", e);
+        }
+    }
+
+    public long run() throws InterruptedException {
+        return scan("users", (doc, bulk) -> {
+            String userId = doc.get("_id").toString();
+            return upsertAll(bulk, userId, Membership.ORGANIZATION, doc.getList("organizationIds", String.class, List.of()))
+                    + upsertAll(bulk, userId, Membership.PROJECT, doc.getList("projectIds", String.class, List.of()));
+        }, "organizationIds", "projectIds")
+                + scan("organizations", (doc, bulk) -> {
+            String organizationId = doc.get("_id").toString();
+            int count = 0;
+            for (String userId : doc.getList("memberIds", String.class, List.of())) {
+                count += upsertAll(bulk, userId, Membership.ORGANIZATION, List.of(organizationId));
+            }
+            return count;
+        }, "memberIds");
+    }
+
+    private long scan(String collection, EdgeSource source, String... fields) throws InterruptedException {
+        long upserted = 0;
+        Object lastId = null;
+        while (true) {
+            Query query = new Query(lastId == null ? new Criteria() : Criteria.where("_id").gt(lastId))
+                    .with(Sort.by("_id"))
+                    .limit(batchSize);
+            for (String field : fields) {
+                query.fields().include(field);
+            }
+            List<Document> documents = mongoTemplate.find(query, Document.class, collection);
+            if (documents.isEmpty()) {
+                return upserted;
+            }
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Membership.class);
+            int operations = 0;
+            for (Document document : documents) {
+                operations += source.addEdges(document, bulk);
+                lastId = document.get("_id");
+            }
+            if (operations > 0) {
+                bulk.execute();
+                upserted += operations;
+            }
+            Thread.sleep(pauseMs);
+        }
+    }
+
+    private static int upsertAll(BulkOperations bulk, String userId, String scopeType, List<String> scopeIds) {
+        for (String scopeId : scopeIds) {
+            bulk.upsert(Query.query(Criteria.where("scopeType").is(scopeType).and("scopeId").is(scopeId).and("userId").is(userId)),
+                    new Update().setOnInsert("createdAt", new Date()));
+        }
+        return scopeIds.size();
+    }
+
+    private interface EdgeSource {
+        int addEdges(Document document, BulkOperations bulk);
+    }
+}
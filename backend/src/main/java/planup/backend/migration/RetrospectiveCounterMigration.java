@@ -0,0 +1,81 @@
+package planup.backend.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import planup.backend.model.Retrospective;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+// Seeds project_counters.openActionItems from the action items that existed before the counter did: one
+// aggregation over the open_actions partial index, then a $set per project. Action items opened or closed
+// while the aggregation runs can be off by those few; a marker in the migrations collection makes it one-off.
+@Slf4j
+@Component
+public class RetrospectiveCounterMigration {
+    private static final String MARKER = "retrospective-counters";
+    private static final String MIGRATIONS = "migrations";
+    private static final String COUNTERS = "project_counters";
+
+    private final MongoTemplate mongoTemplate;
+    private final ExecutorService executor;
+
+    @Value("${planup.migrations.retrospective-counters.enabled:true}")
+    private boolean enabled;
+    @Value("${planup.migrations.batch-size:200}")
+    private int batchSize;
+
+    public RetrospectiveCounterMigration(MongoTemplate mongoTemplate, @Qualifier("blockingExecutor") ExecutorService executor) {
+        this.mongoTemplate = mongoTemplate;
+        this.executor = executor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            executor.execute(this::runSafely);
+        }
+    }
+
+    private void runSafely() {
+        try {
+            if (mongoTemplate.exists(Query.query(Criteria.where("_id").is(MARKER)), MIGRATIONS)) {
+                return;
+            }
+            int projects = run();
+            mongoTemplate.save(new Document("_id", MARKER).append("finishedAt", new Date()), MIGRATIONS);
+            log.info("Retrospective counter migration finished, {} projects counted", projects);
+        } catch (Exception e) {
+            log.error("Retrospective counter migration stopped, it will rerun on next startup", e);
+        }
+    }
+
+    public int run() {
+        Aggregation openByProject = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("type").is(Retrospective.ACTION_ITEM).and("resolved").is(false)
+                        .and("projectId").ne(null)),
+                Aggregation.group("projectId").count().as("open"));
+        List<Document> counts = mongoTemplate.aggregate(openByProject, Retrospective.class, Document.class).getMappedResults();
+        for (int from = 0; from < counts.size(); from += batchSize) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COUNTERS);
+            for (Document count : counts.subList(from, Math.min(from + batchSize, counts.size()))) {
+                bulk.upsert(Query.query(Criteria.where("_id").is(count.get("_id"))),
+                        new Update().set("openActionItems", ((Number) count.get("open")).longValue()));
+            }
+            bulk.execute();
+        }
+        return counts.size();
+    }
+}
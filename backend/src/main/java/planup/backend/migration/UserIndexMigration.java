@@ -0,0 +1,88 @@
+package planup.backend.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+// Creates the sparse unique indexes on users.clerkId and users.email. These used to be declared on User and
+// built by auto-index-creation, which fails startup on a database that already holds duplicates. Instead,
+// each index is built only after a check for duplicate values comes back empty; otherwise the conflicting
+// values and user ids are logged, the index is skipped and the check reruns on the next startup, after the
+// duplicates were merged or removed by hand. Once an index exists the check is skipped.
+@Slf4j
+@Component
+public class UserIndexMigration {
+    private static final String USERS = "users";
+    private static final String[] UNIQUE_FIELDS = {"clerkId", "email"};
+    private static final int MAX_REPORTED = 20;
+
+    private final MongoTemplate mongoTemplate;
+    private final ExecutorService executor;
+
+    @Value("${planup.migrations.user-indexes.enabled:true}")
+    private boolean enabled;
+
+    public UserIndexMigration(MongoTemplate mongoTemplate, @Qualifier("blockingExecutor") ExecutorService executor) {
+        this.mongoTemplate = mongoTemplate;
+        this.executor = executor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            executor.execute(this::runSafely);
+        }
+    }
+
+    private void runSafely() {
+        for (String field : UNIQUE_FIELDS) {
+            try {
+                run(field);
+            } catch (Exception e) {
+                log.error("Unique index on users.{} not created, it will be retried on next startup", field, e);
+            }
+        }
+    }
+
+    public boolean run(String field) {
+        // also matches the indexes auto-index-creation built under the field's name where that succeeded
+        List<IndexInfo> existing = mongoTemplate.indexOps(USERS).getIndexInfo();
+        if (existing.stream().anyMatch(index -> index.isUnique() && index.getIndexFields().size() == 1
+                && field.equals(index.getIndexFields().get(0).getKey()))) {
+            return true;
+        }
+        List<Document> duplicates = duplicates(field);
+        if (!duplicates.isEmpty()) {
+            log.error("Unique index on users.{} not created: {} or more values are shared by several users. "
+                            + "Merge or remove the duplicates; the index is created on the next startup without them. {}",
+                    field, duplicates.size(), duplicates);
+            return false;
+        }
+        mongoTemplate.indexOps(USERS).createIndex(new Index().on(field, Sort.Direction.ASC).named(field + "_unique").unique().sparse());
+        log.info("Unique index on users.{} created", field);
+        return true;
+    }
+
+    // Each entry is {_id: <value>, count: n, userIds: [...]}
+    private List<Document> duplicates(String field) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where(field).exists(true).ne(null)),
+                Aggregation.group(field).count().as("count").push("_id").as("userIds"),
+                Aggregation.match(Criteria.where("count").gt(1)),
+                Aggregation.limit(MAX_REPORTED));
+        return mongoTemplate.aggregate(aggregation, USERS, Document.class).getMappedResults();
+    }
+}
@@ -0,0 +1,29 @@
+package planup.backend.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.List;
+
+// One project-hour of activity. Events are appended in arrival order; a busy hour spills into further
+// buckets once `count` reaches the per-bucket cap, and each bucket is dropped by the TTL index at expiresAt.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "activity_buckets")
+@CompoundIndex(name = "project_hour", def = "{'projectId': 1, 'hourStart': -1}")
+public class ActivityBucket {
+    @Id
+    private String id;
+    private String projectId;
+    private Date hourStart;
+    private int count;
+    private List<Activity> events;
+    @Indexed(expireAfter = "0s")
+    private Date expiresAt;
+}
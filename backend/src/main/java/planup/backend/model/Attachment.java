@@ -2,6 +2,7 @@ package planup.backend.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
@@ -14,12 +15,17 @@ import java.util.Date;
 public class Attachment {
     @Id
     private String id;
+    @Indexed
     private String issueId;
     private String name;
     private String size; // e.g., "2.3 MB"
+    private long sizeBytes;
+    @Indexed
+    private String contentHash; // SHA-256 of the stored bytes, shared by identical uploads
     private String uploadedById; // User ID
     private Date uploadedAt;
     private String fileUrl; // URL to the file
+    private String thumbnailUrl; // set for image types; the thumbnail itself is generated in the background
     private String fileType; // MIME type
     private String description;
 } 
\ No newline at end of file
@@ -2,6 +2,7 @@ package planup.backend.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.util.Date;
 
@@ -10,6 +11,8 @@ import java.util.Date;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection="calendar_events")
+// overlap queries bound `end` by the index range and filter `start` on index keys
+@CompoundIndex(name = "project_end_start", def = "{'projectId': 1, 'end': 1, 'start': 1}")
 public class CalendarEvent {
     @Id
     private String id;
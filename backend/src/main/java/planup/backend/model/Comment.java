@@ -2,6 +2,7 @@ package planup.backend.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
@@ -11,6 +12,7 @@ import java.util.Date;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "comments")
+@CompoundIndex(name = "issue_timestamp", def = "{'issueId': 1, 'timestamp': -1, '_id': -1}")
 public class Comment {
     @Id
     private String id;
@@ -0,0 +1,35 @@
+package planup.backend.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "deletion_jobs")
+@CompoundIndex(name = "pending", def = "{'createdAt': 1}", partialFilter = "{'status': 'pending'}")
+public class DeletionJob {
+    public static final String ISSUE = "issue";
+    public static final String SPRINT = "sprint";
+    public static final String PROJECT = "project";
+    public static final String PENDING = "pending";
+    public static final String DONE = "done";
+
+    @Id
+    private String id;
+    private String rootType; // issue, sprint, project
+    @Indexed
+    private String rootId; // already deleted when the job is created
+    private String status; // pending, done
+    private int step; // index of the cleanup step in progress
+    private long processed; // dependent documents deleted or detached so far
+    private Date createdAt;
+    private Date updatedAt;
+    private Date finishedAt;
+}
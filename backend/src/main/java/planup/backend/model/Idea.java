@@ -2,6 +2,7 @@ package planup.backend.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
@@ -12,18 +13,20 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "ideas")
+@CompoundIndex(name = "organization_upvotes", def = "{'organizationId': 1, 'upvotes': -1}")
 public class Idea {
     @Id
     private String id;
     private String title;
     private String description;
     private String status; // New, Discussing, Approved, Rejected, Implemented
-    private int upvotes;
+    private int upvotes; // maintained with $inc from idea_votes, never set by clients
     private String authorId; // User ID
     private Date createdAt;
     private Date updatedAt;
     private List<Comment> comments;
     private List<String> promotedByIds; // User IDs who promoted this idea
+    private String promotedIssueId; // Issue created from this idea
     private String organizationId;
     private String projectId;
     private boolean isActive;
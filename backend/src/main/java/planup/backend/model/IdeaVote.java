@@ -0,0 +1,23 @@
+package planup.backend.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+// One user's upvote of an idea; the unique index makes voting idempotent
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "idea_votes")
+@CompoundIndex(name = "idea_user", def = "{'ideaId': 1, 'userId': 1}", unique = true)
+public class IdeaVote {
+    @Id
+    private String id;
+    private String ideaId;
+    private String userId;
+    private Date createdAt;
+}
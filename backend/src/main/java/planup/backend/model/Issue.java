@@ -2,6 +2,8 @@ package planup.backend.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
@@ -12,6 +14,15 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "issues")
+@CompoundIndexes({
+        @CompoundIndex(name = "project_due", def = "{'projectId': 1, 'dueDate': 1}", sparse = true),
+        // partial on active issues: issues being archived drop out of these as soon as they are claimed
+        @CompoundIndex(name = "due_active", def = "{'dueDate': 1}", partialFilter = "{'isActive': true}"),
+        @CompoundIndex(name = "updated_active", def = "{'updated': 1}", partialFilter = "{'isActive': true}"),
+        @CompoundIndex(name = "sprint_active", def = "{'sprintId': 1}", partialFilter = "{'isActive': true}"),
+        @CompoundIndex(name = "epic_active", def = "{'epicId': 1}", partialFilter = "{'isActive': true}"),
+        @CompoundIndex(name = "archiving", def = "{'archivingAt': 1}", partialFilter = "{'archivingAt': {'$exists': true}}")
+})
 public class Issue {
     @Id
     private String id;
@@ -27,6 +38,7 @@ public class Issue {
     private Date created;
     private Date updated;
     private Date dueDate;
+    private Date deadlineNotifiedFor; // the dueDate whose deadline has fired; set means overdue, see DeadlineService
     private int estimatedHours;
     private int loggedHours;
     private int storyPoints;
@@ -34,7 +46,7 @@ public class Issue {
     private List<String> components;
     private String epicId;
     private String sprintId;
-    private List<Comment> comments;
+    private int commentCount; // comments live in their own collection; see CommentService
     private List<Attachment> attachments;
     private List<TimeLog> timeLogs;
     private List<String> decisionLog;
@@ -43,5 +55,6 @@ public class Issue {
     private String workflowId;
     private String templateId;
     private String color;
-    private boolean isActive;
+    private boolean isActive; // false once ArchivalService claims the issue
+    private Date archivingAt; // set while the issue is being moved to the archive
 } 
\ No newline at end of file
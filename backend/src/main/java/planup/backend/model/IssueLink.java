@@ -2,6 +2,7 @@ package planup.backend.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
@@ -14,7 +15,9 @@ import java.util.Date;
 public class IssueLink {
     @Id
     private String id;
+    @Indexed
     private String sourceIssueId; // Source issue ID
+    @Indexed
     private String targetIssueId; // Target issue ID
     private String linkType; // blocks, is-blocked-by, duplicates, is-duplicated-by, relates-to, parent-of, child-of
     private String createdById; // User ID who created the link
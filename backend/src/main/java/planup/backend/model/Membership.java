@@ -0,0 +1,33 @@
+package planup.backend.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+// One user's membership of an organization or project. Source of truth for "my orgs", "org members" and
+// "project members"; User.organizationIds/projectIds are kept in step as a denormalized copy.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "memberships")
+@CompoundIndexes({
+        @CompoundIndex(name = "scope_user", def = "{'scopeType': 1, 'scopeId': 1, 'userId': 1}", unique = true),
+        @CompoundIndex(name = "user_scope", def = "{'userId': 1, 'scopeType': 1, 'scopeId': 1, 'role': 1}")
+})
+public class Membership {
+    public static final String ORGANIZATION = "organization";
+    public static final String PROJECT = "project";
+
+    @Id
+    private String id;
+    private String userId;
+    private String scopeType; // organization, project
+    private String scopeId;
+    private String role; // admin, developer, reporter, viewer or a custom Role name; null uses User.role
+    private Date createdAt;
+}
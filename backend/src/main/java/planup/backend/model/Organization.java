@@ -19,7 +19,7 @@ public class Organization {
     private String description;
     private String logo;
     private String color;
-    private List<String> memberIds; // User IDs who are members
+    private List<String> memberIds; // Legacy, no longer maintained: members are in the memberships collection
     private List<Invite> invites;
     private String ownerId; // User ID of the owner
     private Date createdAt;
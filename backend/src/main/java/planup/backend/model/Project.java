@@ -15,6 +15,7 @@ public class Project {
 
     private String name;
     private String key;
+    private String organizationId;
     private String description;
     private String color;
     private String lead;
@@ -29,6 +30,8 @@ public class Project {
     public void setName(String name) { this.name = name; }
     public String getKey() { return key; }
     public void setKey(String key) { this.key = key; }
+    public String getOrganizationId() { return organizationId; }
+    public void setOrganizationId(String organizationId) { this.organizationId = organizationId; }
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
     public String getColor() { return color; }
@@ -2,6 +2,8 @@ package planup.backend.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
@@ -12,7 +14,15 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "retrospectives")
+@CompoundIndexes({
+        @CompoundIndex(name = "sprint_type", def = "{'sprintId': 1, 'type': 1, 'createdAt': 1}"),
+        // only open action items are indexed, so the per-project list stays as small as the backlog of actions
+        @CompoundIndex(name = "open_actions", def = "{'projectId': 1, 'createdAt': -1}",
+                partialFilter = "{'type': 'Action Item', 'resolved': false}")
+})
 public class Retrospective {
+    public static final String ACTION_ITEM = "Action Item";
+
     @Id
     private String id;
     private String type; // Went Well, To Improve, Action Item
@@ -20,8 +30,9 @@ public class Retrospective {
     private String authorId; // User ID
     private Date createdAt;
     private boolean resolved;
+    private Date resolvedAt;
     private String organizationId;
     private String projectId;
     private String sprintId;
     private boolean isActive;
-} 
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package planup.backend.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
@@ -12,10 +13,12 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "sprints")
+@CompoundIndex(name = "project_end_start", def = "{'projectId': 1, 'endDate': 1, 'startDate': 1}")
 public class Sprint {
     @Id
     private String id;
     private String name;
+    private String projectId;
     private Date startDate;
     private Date endDate;
     private String status; // active, completed, planned
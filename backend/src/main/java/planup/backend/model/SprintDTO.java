@@ -11,6 +11,7 @@ import java.util.List;
 public class SprintDTO {
     @NotBlank
     private String name;
+    private String projectId;
     @NotNull
     private Date startDate;
     @NotNull
@@ -2,6 +2,7 @@ package planup.backend.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
@@ -17,6 +18,7 @@ public class SubTask {
     private String title;
     private String status; // To Do, In Progress, Done
     private boolean completed;
+    @Indexed
     private String parentIssueId; // Parent issue ID
     private String assigneeId; // User ID
     private Date createdAt;
@@ -2,6 +2,7 @@ package planup.backend.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
@@ -14,6 +15,7 @@ import java.util.Date;
 public class TimeLog {
     @Id
     private String id;
+    @Indexed
     private String issueId;
     private String authorId; // User ID
     private double hours;
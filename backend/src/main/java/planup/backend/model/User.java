@@ -15,8 +15,8 @@ import java.util.List;
 public class User {
     @Id
     private String id;
-    private String clerkId; // Clerk user ID
-    private String email;
+    private String clerkId; // Clerk user ID, unique once UserIndexMigration found no duplicates
+    private String email; // unique once UserIndexMigration found no duplicates
     private String firstName;
     private String lastName;
     private String fullName;
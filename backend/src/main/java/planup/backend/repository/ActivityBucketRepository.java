@@ -0,0 +1,19 @@
+package planup.backend.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import planup.backend.model.ActivityBucket;
+
+import java.util.Date;
+import java.util.List;
+
+public interface ActivityBucketRepository extends MongoRepository<ActivityBucket, String> {
+    List<ActivityBucket> findByProjectIdAndHourStartLessThanEqualOrderByHourStartDescIdDesc(String projectId, Date hourStart, Limit limit);
+
+    // The buckets after (hourStart, id) in the same order; keyed on the last bucket read rather than skipped,
+    // so a bucket opened between two reads can't shift the pages
+    @Query(value = "{ 'projectId': ?0, '$or': [ { 'hourStart': { '$lt': ?1 } }, { 'hourStart': ?1, '_id': { '$lt': ?2 } } ] }",
+            sort = "{ 'hourStart': -1, '_id': -1 }")
+    List<ActivityBucket> findPageAfter(String projectId, Date hourStart, String id, Limit limit);
+}
@@ -9,4 +9,5 @@ public interface AttachmentRepository extends MongoRepository<Attachment, String
     List<Attachment> findByIssueId(String issueId);
     List<Attachment> findByUploadedById(String uploadedById);
     List<Attachment> findByFileType(String fileType);
+    long countByContentHash(String contentHash);
 } 
\ No newline at end of file
@@ -0,0 +1,10 @@
+package planup.backend.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import planup.backend.model.CalendarEvent;
+
+import java.util.List;
+
+public interface CalendarEventRepository extends MongoRepository<CalendarEvent, String> {
+    List<CalendarEvent> findByProjectId(String projectId);
+}
@@ -0,0 +1,10 @@
+package planup.backend.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import planup.backend.model.DeletionJob;
+
+import java.util.List;
+
+public interface DeletionJobRepository extends MongoRepository<DeletionJob, String> {
+    List<DeletionJob> findByRootIdOrderByCreatedAtDesc(String rootId);
+}
@@ -0,0 +1,10 @@
+package planup.backend.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import planup.backend.model.IdeaVote;
+
+public interface IdeaVoteRepository extends MongoRepository<IdeaVote, String> {
+    boolean existsByIdeaIdAndUserId(String ideaId, String userId);
+    long deleteByIdeaIdAndUserId(String ideaId, String userId);
+    long deleteByIdeaId(String ideaId);
+}
@@ -1,8 +1,12 @@
 package planup.backend.repository;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import planup.backend.model.Issue;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,8 +19,27 @@ public interface IssueRepository extends MongoRepository<Issue, String> {
     List<Issue> findByType(String type);
     List<Issue> findBySprintId(String sprintId);
     List<Issue> findByEpicId(String epicId);
+    // served by the partial {sprintId} / {epicId} indexes, which only cover active issues
+    List<Issue> findBySprintIdAndIsActiveTrue(String sprintId);
+    List<Issue> findByEpicIdAndIsActiveTrue(String epicId);
     List<Issue> findByIsActiveTrue();
+    // hot list finders; issues claimed for archiving (isActive=false) drop out before they are moved
+    List<Issue> findByProjectIdAndIsActiveTrue(String projectId);
+    List<Issue> findByAssigneeIdAndIsActiveTrue(String assigneeId);
+    List<Issue> findByStatusAndIsActiveTrue(String status);
+    List<Issue> findByPriorityAndIsActiveTrue(String priority);
+    List<Issue> findByTypeAndIsActiveTrue(String type);
     Optional<Issue> findByKey(String key);
     List<Issue> findByLabelsContaining(String label);
     List<Issue> findByComponentsContaining(String component);
+
+    // Just what status validation and activity events need
+    @Query(value = "{ '_id': { '$in': ?0 } }", fields = "{ 'key': 1, 'title': 1, 'status': 1, 'workflowId': 1, 'projectId': 1, 'isActive': 1 }")
+    List<Issue> findStatusByIdIn(Collection<String> ids);
+
+    // Conditional on the status that was validated, so a concurrent move can't be overwritten with an invalid one,
+    // and on isActive, so issues claimed for archiving stay as they were copied
+    @Query("{ '_id': { '$in': ?0 }, 'status': ?1, 'isActive': true }")
+    @Update("{ '$set': { 'status': ?2, 'updated': ?3 } }")
+    long updateStatusByIdInAndStatus(Collection<String> ids, String fromStatus, String toStatus, Date updated);
 } 
\ No newline at end of file
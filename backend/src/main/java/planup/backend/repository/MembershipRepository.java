@@ -0,0 +1,17 @@
+package planup.backend.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import planup.backend.model.Membership;
+
+import java.util.List;
+
+public interface MembershipRepository extends MongoRepository<Membership, String> {
+    // covered by user_scope
+    @Query(value = "{ 'userId': ?0 }", fields = "{ '_id': 0, 'scopeType': 1, 'scopeId': 1, 'role': 1 }")
+    List<Membership> findScopesByUserId(String userId);
+
+    long deleteByScopeTypeAndScopeIdAndUserId(String scopeType, String scopeId, String userId);
+
+    long deleteByUserId(String userId);
+}
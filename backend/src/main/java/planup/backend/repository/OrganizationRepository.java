@@ -6,7 +6,6 @@ import planup.backend.model.Organization;
 import java.util.List;
 
 public interface OrganizationRepository extends MongoRepository<Organization, String> {
-    List<Organization> findByMemberIdsContaining(String userId);
     List<Organization> findByOwnerId(String ownerId);
     List<Organization> findByIsActiveTrue();
 } 
\ No newline at end of file
@@ -7,7 +7,6 @@ import java.util.List;
 
 public interface ProjectRepository extends MongoRepository<Project, String> {
     List<Project> findByOrganizationId(String organizationId);
-    List<Project> findByMemberIdsContaining(String userId);
     List<Project> findByLeadId(String leadId);
     List<Project> findByIsActiveTrue();
     List<Project> findByKey(String key);
@@ -10,7 +10,5 @@ import java.util.Optional;
 public interface UserRepository extends MongoRepository<User, String> {
     Optional<User> findByClerkId(String clerkId);
     Optional<User> findByEmail(String email);
-    List<User> findByOrganizationIdsContaining(String organizationId);
-    List<User> findByProjectIdsContaining(String projectId);
     List<User> findByIsActiveTrue();
 } 
\ No newline at end of file
@@ -0,0 +1,215 @@
+package planup.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import planup.backend.config.ExecutionConfig;
+import planup.backend.dto.ActivityPage;
+import planup.backend.model.Activity;
+import planup.backend.model.ActivityBucket;
+import planup.backend.repository.ActivityBucketRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Project activity timeline. Services publish Activity objects as application events; they are queued
+// without blocking the caller and a single flusher thread appends them to hourly per-project bucket
+// documents, one $push/$each upsert per bucket touched. Reading a page backwards in time then only
+// touches the bucket(s) of the hours it covers.
+@Slf4j
+@Service
+public class ActivityService {
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final int DRAIN_BATCH = 1000;
+    private static final int BUCKETS_PER_READ = 4;
+    private static final int MAX_FLUSH_ATTEMPTS = 5;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final MongoTemplate mongoTemplate;
+    private final ActivityBucketRepository bucketRepository;
+    private final BlockingQueue<Activity> queue;
+    private final ScheduledExecutorService flusher;
+    private final AtomicLong dropped = new AtomicLong();
+    // a batch whose write failed, written again before anything newer is drained; owned by the flusher thread
+    private List<Activity> failed = List.of();
+    private int failedAttempts;
+
+    @Value("${planup.activity.retention-days:90}")
+    private int retentionDays;
+    @Value("${planup.activity.bucket-max-events:500}")
+    private int bucketMaxEvents;
+
+    public ActivityService(MongoTemplate mongoTemplate, ActivityBucketRepository bucketRepository,
+                           @Value("${planup.activity.queue-size:10000}") int queueSize,
+                           @Value("${planup.activity.flush-ms:250}") long flushMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.bucketRepository = bucketRepository;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(ExecutionConfig.namedThreads("activity-"));
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushMs, flushMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Runs on the publishing (request) thread, so it only enqueues; a full queue drops the event
+    @EventListener
+    public void onActivity(Activity activity) {
+        if (activity.getProjectId() == null) {
+            return;
+        }
+        if (activity.getTimestamp() == null) {
+            activity.setTimestamp(new Date());
+        }
+        if (activity.getId() == null) {
+            activity.setId(new ObjectId().toHexString());
+        }
+        activity.setActive(true);
+        if (!queue.offer(activity) && dropped.incrementAndGet() % 1000 == 1) {
+            log.warn("Activity queue full, {} events dropped so far", dropped.get());
+        }
+    }
+
+    // `cursor` continues from a previous page; without one, `before` (epoch millis, exclusive) or now is the start
+    public ActivityPage getActivity(String projectId, String cursor, Long before, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        KeysetCursor after = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor)
+                : before != null ? new KeysetCursor(new Date(before), "") : null;
+        long start = after != null ? after.timestamp().getTime() : Long.MAX_VALUE;
+        Date fromHour = new Date(hourStart(Math.min(start, System.currentTimeMillis() + HOUR)));
+        List<Activity> collected = new ArrayList<>();
+        Date currentHour = null;
+        ActivityBucket last = null;
+        while (true) {
+            List<ActivityBucket> buckets = last == null
+                    ? bucketRepository.findByProjectIdAndHourStartLessThanEqualOrderByHourStartDescIdDesc(
+                            projectId, fromHour, Limit.of(BUCKETS_PER_READ))
+                    : bucketRepository.findPageAfter(projectId, last.getHourStart(), last.getId(), Limit.of(BUCKETS_PER_READ));
+            for (ActivityBucket bucket : buckets) {
+                // every event of an older hour is older than everything collected so far
+                if (!bucket.getHourStart().equals(currentHour) && collected.size() >= size) {
+                    return page(collected, size, true);
+                }
+                currentHour = bucket.getHourStart();
+                for (Activity event : bucket.getEvents()) {
+                    if (after == null || after.precedes(event.getTimestamp(), event.getId())) {
+                        collected.add(event);
+                    }
+                }
+            }
+            if (buckets.size() < BUCKETS_PER_READ) {
+                return page(collected, size, false);
+            }
+            last = buckets.get(buckets.size() - 1);
+        }
+    }
+
+    static final Comparator<Activity> NEWEST_FIRST =
+            Comparator.comparing(Activity::getTimestamp).thenComparing(Activity::getId).reversed();
+
+    private static ActivityPage page(List<Activity> collected, int size, boolean more) {
+        collected.sort(NEWEST_FIRST);
+        boolean hasNext = more || collected.size() > size;
+        List<Activity> activities = collected.size() > size ? new ArrayList<>(collected.subList(0, size)) : collected;
+        String next = null;
+        if (hasNext && !activities.isEmpty()) {
+            Activity last = activities.get(activities.size() - 1);
+            next = new KeysetCursor(last.getTimestamp(), last.getId()).encode();
+        }
+        return new ActivityPage(activities, next);
+    }
+
+    private void flushSafely() {
+        try {
+            while (flush() == DRAIN_BATCH) {
+                // keep draining while the queue is backed up
+            }
+        } catch (Exception e) {
+            log.warn("Activity flush failed: {}", e.getMessage());
+        }
+    }
+
+    int flush() {
+        List<Activity> batch;
+        if (!failed.isEmpty()) {
+            batch = failed;
+            failed = List.of();
+        } else {
+            batch = new ArrayList<>(DRAIN_BATCH);
+            queue.drainTo(batch, DRAIN_BATCH);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Map<String, List<Activity>> byBucket = new LinkedHashMap<>();
+        for (Activity activity : batch) {
+            byBucket.computeIfAbsent(activity.getProjectId() + "|" + hourStart(activity.getTimestamp().getTime()),
+                    k -> new ArrayList<>()).add(activity);
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ActivityBucket.class);
+        for (List<Activity> events : byBucket.values()) {
+            Activity first = events.get(0);
+            Date hour = new Date(hourStart(first.getTimestamp().getTime()));
+            for (int from = 0; from < events.size(); from += bucketMaxEvents) {
+                List<Activity> chunk = events.subList(from, Math.min(from + bucketMaxEvents, events.size()));
+                // only a bucket with room for the whole chunk matches, so none grows past the cap; otherwise
+                // the upsert opens another bucket for the same hour
+                Query bucket = Query.query(Criteria.where("projectId").is(first.getProjectId())
+                        .and("hourStart").is(hour)
+                        .and("count").lte(bucketMaxEvents - chunk.size()));
+                Update append = new Update()
+                        .push("events").each(chunk.toArray())
+                        .inc("count", chunk.size())
+                        .setOnInsert("expiresAt", new Date(hour.getTime() + TimeUnit.DAYS.toMillis(retentionDays)));
+                bulk.upsert(bucket, append);
+            }
+        }
+        try {
+            bulk.execute();
+            failedAttempts = 0;
+        } catch (RuntimeException e) {
+            // kept for the next flush; an unordered bulk write may have appended part of it already, so a batch
+            // that keeps failing is given up rather than duplicated again and again
+            if (++failedAttempts < MAX_FLUSH_ATTEMPTS) {
+                failed = batch;
+            } else {
+                failedAttempts = 0;
+                dropped.addAndGet(batch.size());
+                log.warn("Dropping {} activity events after {} failed writes", batch.size(), MAX_FLUSH_ATTEMPTS);
+            }
+            throw e;
+        }
+        return batch.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushSafely();
+    }
+
+    private static long hourStart(long millis) {
+        return millis - Math.floorMod(millis, HOUR);
+    }
+}
@@ -0,0 +1,211 @@
+package planup.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import planup.backend.config.ExecutionConfig;
+import planup.backend.model.Epic;
+import planup.backend.model.Issue;
+import planup.backend.model.Sprint;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Moves resolved issues out of the hot collections once their sprint completed, or their epic was resolved,
+// more than after-days ago, together with their comments, time logs and sub-tasks (see IssueArchive). One
+// instance at a time, the holder of the "archival" lease, works in throttled batches: claim the batch
+// (isActive=false plus an archivingAt stamp, which takes it off every partial index), copy issues and children
+// into the archive with idempotent upserts, then delete them from the hot side. A run that stops midway is
+// finished from the archivingAt stamps by the next one.
+@Slf4j
+@Service
+public class ArchivalService {
+    private static final String[][] CHILDREN = {
+            {"comments", IssueArchive.COMMENTS, "issueId"},
+            {"timelogs", IssueArchive.TIME_LOGS, "issueId"},
+            {"subtasks", IssueArchive.SUB_TASKS, "parentIssueId"},
+    };
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher events;
+    private final Lease lease;
+    private final ScheduledExecutorService scheduler;
+    private final long afterMs;
+    private final int batchSize;
+    private final long pauseMs;
+    private final Set<String> resolvedStatuses;
+    private final IssueArchive archive;
+    private boolean indexed;
+
+    public ArchivalService(MongoTemplate mongoTemplate, IssueArchive archive, ApplicationEventPublisher events,
+                           @Value("${planup.archive.enabled:true}") boolean enabled,
+                           @Value("${planup.archive.after-days:90}") int afterDays,
+                           @Value("${planup.archive.batch-size:200}") int batchSize,
+                           @Value("${planup.archive.pause-ms:100}") long pauseMs,
+                           @Value("${planup.archive.interval-ms:3600000}") long intervalMs,
+                           @Value("${planup.archive.lease-ms:60000}") long leaseMs,
+                           @Value("${planup.issues.resolved-statuses:Done,Closed,Resolved}") Set<String> resolvedStatuses) {
+        this.mongoTemplate = mongoTemplate;
+        this.archive = archive;
+        this.events = events;
+        this.lease = new Lease(mongoTemplate, "archival", leaseMs);
+        this.afterMs = TimeUnit.DAYS.toMillis(afterDays);
+        this.batchSize = batchSize;
+        this.pauseMs = pauseMs;
+        this.resolvedStatuses = resolvedStatuses;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(ExecutionConfig.namedThreads("archival-"));
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::runSafely, Math.min(intervalMs, 60_000), intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lease.release();
+    }
+
+    private void runSafely() {
+        try {
+            if (!lease.tryAcquire()) {
+                return;
+            }
+            if (!indexed) {
+                archive.createIndexes();
+                indexed = true;
+            }
+            long moved = run();
+            if (moved > 0) {
+                log.info("Archived {} issues", moved);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Archival run stopped, it resumes on the next run: {}", e.getMessage());
+        }
+    }
+
+    public long run() throws InterruptedException {
+        long moved = moveClaimed();
+        Date cutoff = new Date(System.currentTimeMillis() - afterMs);
+        List<String> sprints = ids(Query.query(Criteria.where("status").is("completed").and("endDate").lt(cutoff)), Sprint.class);
+        List<String> epics = ids(Query.query(Criteria.where("status").in(resolvedStatuses).and("updated").lt(cutoff)), Epic.class);
+        // chunked so the $in lists stay bounded however many sprints and epics have closed
+        for (int from = 0; from < sprints.size(); from += batchSize) {
+            moved += archive("sprintId", sprints.subList(from, Math.min(from + batchSize, sprints.size())));
+        }
+        for (int from = 0; from < epics.size(); from += batchSize) {
+            moved += archive("epicId", epics.subList(from, Math.min(from + batchSize, epics.size())));
+        }
+        return moved;
+    }
+
+    private List<String> ids(Query query, Class<?> type) {
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(type)).stream()
+                .map(doc -> doc.get("_id").toString())
+                .toList();
+    }
+
+    private long archive(String field, List<String> parentIds) throws InterruptedException {
+        long moved = 0;
+        while (lease.tryAcquire()) {
+            Query candidates = Query.query(Criteria.where(field).in(parentIds).and("isActive").is(true)
+                    .and("status").in(resolvedStatuses)).limit(batchSize);
+            candidates.fields().include("_id");
+            List<Object> ids = mongoTemplate.find(candidates, Document.class, "issues").stream()
+                    .map(doc -> doc.get("_id"))
+                    .toList();
+            if (ids.isEmpty()) {
+                return moved;
+            }
+            // re-checks the status, so an issue reopened since the read above stays put
+            mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids).and("isActive").is(true)
+                            .and("status").in(resolvedStatuses)),
+                    new Update().set("isActive", false).set("archivingAt", new Date()), "issues");
+            moved += moveClaimed();
+        }
+        return moved;
+    }
+
+    // Copies and deletes every claimed issue; all steps are idempotent, so a batch can be redone after a crash
+    private long moveClaimed() throws InterruptedException {
+        long moved = 0;
+        while (lease.tryAcquire()) {
+            List<Document> issues = mongoTemplate.find(
+                    Query.query(Criteria.where("archivingAt").exists(true)).limit(batchSize), Document.class, "issues");
+            if (issues.isEmpty()) {
+                return moved;
+            }
+            List<Object> ids = issues.stream().map(doc -> doc.get("_id")).toList();
+            List<String> issueIds = ids.stream().map(Object::toString).toList();
+            // children are removed by the _ids that were copied, never by issueId, so a comment or time log
+            // written to a claimed issue after the copy is not lost; the issue stays until a round finds none
+            boolean drained = true;
+            for (String[] child : CHILDREN) {
+                List<Object> copied = copy(child[0], child[1], child[2], issueIds);
+                if (!copied.isEmpty()) {
+                    mongoTemplate.remove(Query.query(Criteria.where("_id").in(copied)), child[0]);
+                }
+            }
+            for (String[] child : CHILDREN) {
+                drained &= !mongoTemplate.exists(Query.query(Criteria.where(child[2]).in(issueIds)), child[0]);
+            }
+            if (!drained) {
+                Thread.sleep(pauseMs);
+                continue;
+            }
+            Date archivedAt = new Date();
+            for (Document issue : issues) {
+                issue.remove("archivingAt");
+                issue.put("archivedAt", archivedAt);
+            }
+            replaceAll(IssueArchive.ISSUES, issues);
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), "issues");
+            // to listeners an archived issue is a deleted one (overdue counters, similarity indexes, ...)
+            for (Document issue : issues) {
+                events.publishEvent(new IssueChangedEvent(mongoTemplate.getConverter().read(Issue.class, issue), true));
+            }
+            moved += issues.size();
+            Thread.sleep(pauseMs);
+        }
+        return moved;
+    }
+
+    // Returns the _ids that reached the archive
+    private List<Object> copy(String from, String to, String field, List<String> issueIds) {
+        List<Document> documents = mongoTemplate.find(Query.query(Criteria.where(field).in(issueIds)), Document.class, from);
+        if (documents.isEmpty()) {
+            return List.of();
+        }
+        replaceAll(to, documents);
+        return documents.stream().map(doc -> doc.get("_id")).toList();
+    }
+
+    private void replaceAll(String collection, List<Document> documents) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+        for (Document document : documents) {
+            bulk.replaceOne(Query.query(Criteria.where("_id").is(document.get("_id"))), document,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        bulk.execute();
+    }
+}
@@ -0,0 +1,149 @@
+package planup.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import planup.backend.model.Attachment;
+import planup.backend.repository.AttachmentRepository;
+import planup.backend.repository.IssueRepository;
+import planup.backend.storage.AttachmentStore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+@RequiredArgsConstructor
+public class AttachmentService {
+    private static final String[] UNITS = {"B", "KB", "MB", "GB", "TB"};
+    private static final int LOCK_STRIPES = 64;
+
+    private final AttachmentRepository attachmentRepository;
+    private final IssueRepository issueRepository;
+    private final AttachmentStore attachmentStore;
+    private final ThumbnailService thumbnailService;
+    // Blobs are shared by hash: committing one and recording its attachment, and checking for the last
+    // reference and deleting the blob, each happen under the hash's lock, so a delete never removes content
+    // an upload of the same bytes has just committed. The store is local to this instance, and so is the lock.
+    private final ReentrantLock[] locks = newLocks();
+
+    @Value("${planup.attachments.max-bytes:104857600}")
+    private long maxBytes;
+
+    public Attachment upload(String issueId, String name, String contentType, String uploadedById,
+                             String description, InputStream content) throws IOException {
+        if (!issueRepository.existsById(issueId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Issue not found");
+        }
+        try (AttachmentStore.StagedBlob blob = attachmentStore.stage(content, maxBytes)) {
+            // id is assigned up front so fileUrl can point at the content endpoint in a single write
+            String id = new ObjectId().toHexString();
+            String fileType = contentType != null ? contentType : "application/octet-stream";
+            boolean thumbnail = thumbnailService.supports(fileType);
+            Attachment attachment = Attachment.builder()
+                    .id(id)
+                    .issueId(issueId)
+                    .name(name)
+                    .fileType(fileType)
+                    .uploadedById(uploadedById)
+                    .description(description)
+                    .uploadedAt(new Date())
+                    .contentHash(blob.hash())
+                    .sizeBytes(blob.size())
+                    .size(humanReadable(blob.size()))
+                    .fileUrl("/issues/attachments/" + id + "/content")
+                    .thumbnailUrl(thumbnail ? "/issues/attachments/" + id + "/thumbnail" : null)
+                    .build();
+            Attachment saved;
+            ReentrantLock lock = lock(blob.hash());
+            lock.lock();
+            try {
+                attachmentStore.commit(blob);
+                saved = attachmentRepository.save(attachment);
+            } finally {
+                lock.unlock();
+            }
+            if (thumbnail) {
+                thumbnailService.schedule(blob.hash(), fileType);
+            }
+            return saved;
+        }
+    }
+
+    public Optional<Attachment> getAttachment(String attachmentId) {
+        return attachmentRepository.findById(attachmentId);
+    }
+
+    public Optional<AttachmentStore.Blob> openContent(Attachment attachment) throws IOException {
+        if (attachment.getContentHash() == null) {
+            return Optional.empty();
+        }
+        return attachmentStore.open(attachment.getContentHash());
+    }
+
+    // Empty while the thumbnail is still being generated
+    public Optional<AttachmentStore.Blob> openThumbnail(Attachment attachment) throws IOException {
+        String hash = attachment.getContentHash();
+        if (hash == null || !thumbnailService.supports(attachment.getFileType()) || thumbnailService.hasFailed(hash)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No thumbnail for this attachment");
+        }
+        return thumbnailService.open(hash, attachment.getFileType());
+    }
+
+    // The blob is shared by every attachment with the same content, so it goes only with the last reference
+    public void deleteAttachment(String attachmentId) throws IOException {
+        Optional<Attachment> existing = attachmentRepository.findById(attachmentId);
+        attachmentRepository.deleteById(attachmentId);
+        String hash = existing.map(Attachment::getContentHash).orElse(null);
+        if (hash != null) {
+            deleteIfUnreferenced(hash);
+        }
+    }
+
+    // For attachments removed in bulk: each blob goes once nothing references its hash any more
+    public void deleteUnreferencedContent(Collection<String> hashes) throws IOException {
+        for (String hash : hashes) {
+            deleteIfUnreferenced(hash);
+        }
+    }
+
+    private void deleteIfUnreferenced(String hash) throws IOException {
+        ReentrantLock lock = lock(hash);
+        lock.lock();
+        try {
+            if (attachmentRepository.countByContentHash(hash) == 0) {
+                attachmentStore.delete(hash);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lock(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static ReentrantLock[] newLocks() {
+        ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    static String humanReadable(long bytes) {
+        double value = bytes;
+        int unit = 0;
+        while (value >= 1024 && unit < UNITS.length - 1) {
+            value /= 1024;
+            unit++;
+        }
+        return unit == 0 ? bytes + " B" : String.format("%.1f %s", value, UNITS[unit]);
+    }
+}
@@ -0,0 +1,166 @@
+package planup.backend.service;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import planup.backend.dto.CalendarItem;
+import planup.backend.model.Activity;
+import planup.backend.model.CalendarEvent;
+import planup.backend.model.Issue;
+import planup.backend.model.Sprint;
+import planup.backend.repository.CalendarEventRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Calendar entries from three collections, CalendarEvent, Issue.dueDate and Sprint start/end, answered as
+// "everything overlapping [from, to] in these projects". Each source is an index range scan: events and
+// sprints on {projectId, end, start} with `end >= from` as the range and `start <= to` checked on index
+// keys, issue due dates on {projectId, dueDate}. Every write that can change a project's calendar bumps a
+// counter in calendar_versions, so a feed's ETag is one small indexed read.
+@Service
+public class CalendarService {
+    private static final String VERSIONS = "calendar_versions";
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private final CalendarEventRepository calendarEventRepository;
+    private final MongoTemplate mongoTemplate;
+    private final int feedPastDays;
+    private final int feedFutureDays;
+
+    public CalendarService(CalendarEventRepository calendarEventRepository, MongoTemplate mongoTemplate,
+                           @Value("${planup.calendar.feed-past-days:30}") int feedPastDays,
+                           @Value("${planup.calendar.feed-future-days:365}") int feedFutureDays) {
+        this.calendarEventRepository = calendarEventRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.feedPastDays = feedPastDays;
+        this.feedFutureDays = feedFutureDays;
+    }
+
+    public List<CalendarEvent> getEventsByProject(String projectId) {
+        return calendarEventRepository.findByProjectId(projectId);
+    }
+
+    public Optional<CalendarEvent> getEventById(String id) {
+        return calendarEventRepository.findById(id);
+    }
+
+    public CalendarEvent createEvent(CalendarEvent event) {
+        event.setId(null);
+        CalendarEvent saved = calendarEventRepository.save(normalized(event));
+        bump(saved.getProjectId());
+        return saved;
+    }
+
+    public CalendarEvent updateEvent(CalendarEvent existing, CalendarEvent event) {
+        event.setId(existing.getId());
+        CalendarEvent saved = calendarEventRepository.save(normalized(event));
+        bump(existing.getProjectId());
+        bump(saved.getProjectId());
+        return saved;
+    }
+
+    public void deleteEvent(CalendarEvent event) {
+        calendarEventRepository.deleteById(event.getId());
+        bump(event.getProjectId());
+    }
+
+    // Everything overlapping [from, to] in the given projects, by start time
+    public List<CalendarItem> getItems(Collection<String> projectIds, Date from, Date to) {
+        List<CalendarItem> items = new ArrayList<>();
+        forEachItem(projectIds, from, to, items::add);
+        items.sort(Comparator.comparing(CalendarItem::getStart));
+        return items;
+    }
+
+    // Streams items source by source without collecting them, for the ICS feed
+    public void forEachItem(Collection<String> projectIds, Date from, Date to, Consumer<CalendarItem> consumer) {
+        List<String> projects = List.copyOf(projectIds);
+        Query events = Query.query(Criteria.where("projectId").in(projects).and("end").gte(from).and("start").lte(to));
+        try (Stream<CalendarEvent> stream = mongoTemplate.stream(events, CalendarEvent.class)) {
+            stream.forEach(e -> consumer.accept(new CalendarItem(CalendarItem.EVENT, e.getId(), e.getProjectId(),
+                    e.getTitle(), e.getDescription(), e.getStart(), e.getEnd())));
+        }
+        Query due = Query.query(Criteria.where("projectId").in(projects).and("dueDate").gte(from).lte(to));
+        due.fields().include("key").include("title").include("projectId").include("dueDate");
+        try (Stream<Issue> stream = mongoTemplate.stream(due, Issue.class)) {
+            stream.forEach(i -> consumer.accept(new CalendarItem(CalendarItem.ISSUE_DUE, i.getId(), i.getProjectId(),
+                    i.getKey() != null ? i.getKey() + " " + i.getTitle() : i.getTitle(), null, i.getDueDate(), i.getDueDate())));
+        }
+        Query sprints = Query.query(Criteria.where("projectId").in(projects).and("endDate").gte(from).and("startDate").lte(to));
+        sprints.fields().include("name").include("goal").include("projectId").include("startDate").include("endDate");
+        try (Stream<Sprint> stream = mongoTemplate.stream(sprints, Sprint.class)) {
+            stream.forEach(s -> consumer.accept(new CalendarItem(CalendarItem.SPRINT, s.getId(), s.getProjectId(),
+                    s.getName(), s.getGoal(), s.getStartDate(), s.getEndDate())));
+        }
+    }
+
+    // The feed window, whole days so it only moves once a day
+    public Date feedFrom() {
+        return new Date((System.currentTimeMillis() / DAY - feedPastDays) * DAY);
+    }
+
+    public Date feedTo() {
+        return new Date((System.currentTimeMillis() / DAY + feedFutureDays + 1) * DAY);
+    }
+
+    // Changes whenever any of the projects' calendars or the feed window changes
+    public String feedETag(Collection<String> projectIds) {
+        TreeMap<String, Long> versions = new TreeMap<>();
+        projectIds.forEach(id -> versions.put(id, 0L));
+        Query query = Query.query(Criteria.where("_id").in(versions.keySet()));
+        for (Document version : mongoTemplate.find(query, Document.class, VERSIONS)) {
+            versions.put(version.getString("_id"), version.get("version", Number.class).longValue());
+        }
+        StringBuilder key = new StringBuilder().append(feedFrom().getTime()).append('|').append(feedTo().getTime());
+        versions.forEach((id, version) -> key.append('|').append(id).append('=').append(version));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 12) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @EventListener
+    public void onIssueChanged(IssueChangedEvent event) {
+        bump(event.issue().getProjectId());
+    }
+
+    @EventListener
+    public void onActivity(Activity activity) {
+        if (activity.getType() != null && activity.getType().startsWith("sprint_")) {
+            bump(activity.getProjectId());
+        }
+    }
+
+    private void bump(String projectId) {
+        if (projectId != null) {
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(projectId)), new Update().inc("version", 1L), VERSIONS);
+        }
+    }
+
+    // An event without an end is a point in time
+    private static CalendarEvent normalized(CalendarEvent event) {
+        if (event.getEnd() == null || (event.getStart() != null && event.getEnd().before(event.getStart()))) {
+            event.setEnd(event.getStart());
+        }
+        return event;
+    }
+}
@@ -0,0 +1,101 @@
+package planup.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import planup.backend.dto.CommentPage;
+import planup.backend.model.Comment;
+import planup.backend.model.Issue;
+import planup.backend.repository.CommentRepository;
+
+import java.util.Date;
+import java.util.List;
+
+// The comments collection is the only store of issue comments; Issue keeps just commentCount, maintained
+// with $inc next to every insert/delete. Threads are read newest first in keyset pages over the
+// {issueId, timestamp, _id} index, so a page costs the same no matter how deep into the thread it is.
+@Service
+@RequiredArgsConstructor
+public class CommentService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final CommentRepository commentRepository;
+    private final MongoTemplate mongoTemplate;
+    private final MentionService mentionService;
+
+    public Comment addComment(String issueId, Comment comment) {
+        comment.setId(null);
+        comment.setIssueId(issueId);
+        comment.setTimestamp(new Date());
+        comment.setEdited(false);
+        Comment saved = commentRepository.save(comment);
+        adjustCommentCount(issueId, 1);
+        mentionService.onCommentAdded(saved);
+        return saved;
+    }
+
+    public CommentPage getComments(String issueId, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Criteria criteria = Criteria.where("issueId").is(issueId);
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            criteria = criteria.orOperator(
+                    Criteria.where("timestamp").lt(after.timestamp()),
+                    Criteria.where("timestamp").is(after.timestamp()).and("id").lt(after.id()));
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "timestamp", "id"))
+                .limit(size + 1);
+        List<Comment> comments = mongoTemplate.find(query, Comment.class);
+        String next = null;
+        if (comments.size() > size) {
+            comments = comments.subList(0, size);
+            Comment last = comments.get(size - 1);
+            next = new KeysetCursor(last.getTimestamp(), last.getId()).encode();
+        }
+        return new CommentPage(comments, next);
+    }
+
+    // Only the editable fields are written, so issueId/timestamp (and with them the thread position) can't be lost
+    public Comment updateComment(String commentId, Comment comment) {
+        Date editedAt = new Date();
+        Update update = new Update()
+                .set("content", comment.getContent())
+                .set("edited", true)
+                .set("editedAt", editedAt)
+                .set("editedBy", comment.getEditedBy());
+        // the previous version comes back so mentions added by the edit can be told apart
+        Comment previous = mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(commentId)), update,
+                FindAndModifyOptions.options().returnNew(false), Comment.class);
+        if (previous == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Comment not found");
+        }
+        String previousContent = previous.getContent();
+        previous.setContent(comment.getContent());
+        previous.setEdited(true);
+        previous.setEditedAt(editedAt);
+        previous.setEditedBy(comment.getEditedBy());
+        mentionService.onCommentEdited(previous, previousContent);
+        return previous;
+    }
+
+    public void deleteComment(String commentId) {
+        Comment removed = mongoTemplate.findAndRemove(Query.query(Criteria.where("id").is(commentId)), Comment.class);
+        if (removed != null && removed.getIssueId() != null) {
+            adjustCommentCount(removed.getIssueId(), -1);
+        }
+    }
+
+    private void adjustCommentCount(String issueId, int delta) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(issueId)),
+                new Update().inc("commentCount", delta), Issue.class);
+    }
+}
@@ -0,0 +1,83 @@
+package planup.backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// A template's fields parsed once into literal and {{variable}} parts, so rendering an issue is a walk over
+// pre-split strings with no scanning. Parts alternate literal, variable, literal...; a field without
+// placeholders is a single literal. An unclosed "{{" is kept as literal text.
+public final class CompiledTemplate {
+    private final Map<String, String[]> fields;
+    private final Set<String> variables;
+
+    private CompiledTemplate(Map<String, String[]> fields, Set<String> variables) {
+        this.fields = fields;
+        this.variables = variables;
+    }
+
+    public static CompiledTemplate compile(Map<String, String> source) {
+        Map<String, String[]> fields = new HashMap<>();
+        Set<String> variables = new LinkedHashSet<>();
+        if (source != null) {
+            source.forEach((field, text) -> fields.put(field, parse(text == null ? "" : text, variables)));
+        }
+        return new CompiledTemplate(Map.copyOf(fields), Set.copyOf(variables));
+    }
+
+    // Every placeholder name used by any field
+    public Set<String> variables() {
+        return variables;
+    }
+
+    public Set<String> fields() {
+        return fields.keySet();
+    }
+
+    public String render(String field, Function<String, String> lookup) {
+        String[] parts = fields.get(field);
+        if (parts == null) {
+            return null;
+        }
+        if (parts.length == 1) {
+            return parts[0];
+        }
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i % 2 == 0) {
+                out.append(parts[i]);
+            } else {
+                String value = lookup.apply(parts[i]);
+                out.append(value == null ? "" : value);
+            }
+        }
+        return out.toString();
+    }
+
+    private static String[] parse(String text, Set<String> variables) {
+        List<String> parts = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            int open = text.indexOf("{{", i);
+            int close = open < 0 ? -1 : text.indexOf("}}", open + 2);
+            if (close < 0) {
+                literal.append(text, i, text.length());
+                break;
+            }
+            literal.append(text, i, open);
+            String name = text.substring(open + 2, close).trim();
+            parts.add(literal.toString());
+            parts.add(name);
+            variables.add(name);
+            literal.setLength(0);
+            i = close + 2;
+        }
+        parts.add(literal.toString());
+        return parts.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,259 @@
+package planup.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.bson.Document;
+import planup.backend.config.ExecutionConfig;
+import planup.backend.model.Issue;
+import planup.backend.model.Notification;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Fires each issue's deadline once: a "deadline" notification to the assignee (else the reporter) and +1 on
+// the project's overdue counter. One instance at a time, the holder of the "deadlines" lease, keeps every
+// open issue due within the horizon in a TimingWheel, loaded by a range scan on the dueDate index and kept
+// current by polling the `updated` index for issues changed on any instance. Firing is a conditional
+// update that stamps Issue.deadlineNotifiedFor with the dueDate it fired for, so a stale wheel entry (the
+// due date moved), a lease handover or a duplicate entry can't fire twice. Moving the due date or resolving
+// the issue clears the stamp with the same kind of conditional update and takes the issue off the counter.
+@Slf4j
+@Service
+public class DeadlineService {
+    private static final String COUNTERS = "project_counters";
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    // changes committed just before a poll may carry a slightly older `updated`
+    private static final long POLL_SKEW_MS = 5000;
+
+    private final MongoTemplate mongoTemplate;
+    private final Lease lease;
+    private final ScheduledExecutorService scanner;
+    private final long tickMs;
+    private final long pollMs;
+    private final long horizonMs;
+    private final long catchUpMs;
+    private final Set<String> resolvedStatuses;
+
+    // owned by the scanner thread
+    private TimingWheel wheel;
+    private long loadedUntil;
+    private long polledUntil;
+    private long nextPoll;
+
+    public DeadlineService(MongoTemplate mongoTemplate,
+                           @Value("${planup.deadlines.tick-ms:1000}") long tickMs,
+                           @Value("${planup.deadlines.poll-ms:10000}") long pollMs,
+                           @Value("${planup.deadlines.lease-ms:30000}") long leaseMs,
+                           @Value("${planup.deadlines.horizon-days:30}") int horizonDays,
+                           @Value("${planup.deadlines.catch-up-hours:24}") int catchUpHours,
+                           @Value("${planup.issues.resolved-statuses:Done,Closed,Resolved}") Set<String> resolvedStatuses) {
+        this.mongoTemplate = mongoTemplate;
+        this.lease = new Lease(mongoTemplate, "deadlines", leaseMs);
+        this.tickMs = tickMs;
+        this.pollMs = pollMs;
+        this.horizonMs = TimeUnit.DAYS.toMillis(horizonDays);
+        this.catchUpMs = TimeUnit.HOURS.toMillis(catchUpHours);
+        this.resolvedStatuses = resolvedStatuses;
+        if (horizonMs >= TimingWheel.spanMillis(tickMs)) {
+            throw new IllegalArgumentException("planup.deadlines.horizon-days exceeds what the timing wheel spans at this tick");
+        }
+        this.scanner = Executors.newSingleThreadScheduledExecutor(ExecutionConfig.namedThreads("deadlines-"));
+        // renewing every third of the TTL; ticks between renewals only check the local view of the lease
+        long renewMs = Math.max(tickMs, leaseMs / 3);
+        scanner.scheduleWithFixedDelay(this::renewSafely, 0, renewMs, TimeUnit.MILLISECONDS);
+        scanner.scheduleWithFixedDelay(this::tickSafely, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    public long getOverdueCount(String projectId) {
+        Document counter = mongoTemplate.findById(projectId, Document.class, COUNTERS);
+        return counter == null ? 0 : ((Number) counter.getOrDefault("overdue", 0)).longValue();
+    }
+
+    // Deletes are the one change the poll can't see
+    @EventListener
+    public void onIssueChanged(IssueChangedEvent event) {
+        Issue issue = event.issue();
+        if (event.deleted() && issue.getDeadlineNotifiedFor() != null) {
+            count(issue.getProjectId(), -1);
+        }
+    }
+
+    private void renewSafely() {
+        try {
+            boolean held = lease.tryAcquire();
+            if (held && wheel == null) {
+                start();
+            } else if (!held && wheel != null) {
+                log.info("Deadline lease lost, dropping {} scheduled deadlines", wheel.size());
+                wheel = null;
+            }
+        } catch (Exception e) {
+            log.warn("Deadline lease renewal failed: {}", e.getMessage());
+        }
+    }
+
+    private void tickSafely() {
+        try {
+            if (wheel == null) {
+                return;
+            }
+            if (!lease.isHeld()) {
+                wheel = null;
+                return;
+            }
+            long now = System.currentTimeMillis();
+            if (now >= nextPoll) {
+                poll(now);
+                nextPoll = now + pollMs;
+            }
+            if (now + horizonMs - loadedUntil >= HOUR) {
+                load(loadedUntil, now + horizonMs);
+            }
+            List<Issue> fired = new ArrayList<>();
+            wheel.advance(now, (id, due) -> {
+                Issue issue = claim(id, due);
+                if (issue != null) {
+                    fired.add(issue);
+                }
+            });
+            notify(fired);
+        } catch (Exception e) {
+            log.warn("Deadline tick failed: {}", e.getMessage());
+        }
+    }
+
+    private void start() {
+        long now = System.currentTimeMillis();
+        wheel = new TimingWheel(tickMs, now);
+        loadedUntil = now - catchUpMs;
+        polledUntil = now;
+        nextPoll = now + pollMs;
+        load(loadedUntil, now + horizonMs);
+        log.info("Deadline lease acquired, {} deadlines scheduled", wheel.size());
+    }
+
+    // Open issues due in [from, to), streamed through the partial dueDate index with only the fields the wheel keeps
+    private void load(long from, long to) {
+        Query due = Query.query(Criteria.where("dueDate").gte(new Date(from)).lt(new Date(to))
+                .and("isActive").is(true).and("status").nin(resolvedStatuses));
+        due.fields().include("dueDate");
+        try (Stream<Issue> stream = mongoTemplate.stream(due, Issue.class)) {
+            stream.forEach(i -> wheel.schedule(i.getId(), i.getDueDate().getTime()));
+        }
+        loadedUntil = to;
+    }
+
+    // Issues changed since the last poll, on any instance: reschedule new due dates, settle stale stamps
+    private void poll(long now) {
+        Query changed = Query.query(Criteria.where("updated").gte(new Date(polledUntil - POLL_SKEW_MS)).and("isActive").is(true));
+        changed.fields().include("projectId").include("status").include("dueDate").include("deadlineNotifiedFor");
+        polledUntil = now;
+        try (Stream<Issue> stream = mongoTemplate.stream(changed, Issue.class)) {
+            stream.forEach(issue -> {
+                boolean resolved = resolvedStatuses.contains(issue.getStatus());
+                Date stamp = issue.getDeadlineNotifiedFor();
+                if (stamp != null && (resolved || !stamp.equals(issue.getDueDate()))) {
+                    clear(issue, stamp);
+                }
+                // a duplicate of an entry already in the wheel is harmless, the claim only succeeds once
+                if (!resolved && issue.getDueDate() != null && issue.getDueDate().getTime() >= now - catchUpMs
+                        && issue.getDueDate().getTime() < loadedUntil
+                        && !issue.getDueDate().equals(issue.getDeadlineNotifiedFor())) {
+                    wheel.schedule(issue.getId(), issue.getDueDate().getTime());
+                }
+            });
+        }
+    }
+
+    // Succeeds for exactly one caller per (issue, dueDate), and only while the issue is still due then and open
+    private Issue claim(String id, long due) {
+        Query open = Query.query(Criteria.where("_id").is(id).and("dueDate").is(new Date(due))
+                .and("deadlineNotifiedFor").ne(new Date(due)).and("status").nin(resolvedStatuses));
+        open.fields().include("key").include("title").include("projectId").include("assigneeId").include("reporterId");
+        return mongoTemplate.findAndModify(open, new Update().set("deadlineNotifiedFor", new Date(due)),
+                FindAndModifyOptions.options().returnNew(true), Issue.class);
+    }
+
+    private void clear(Issue issue, Date stamp) {
+        Query stamped = Query.query(Criteria.where("_id").is(issue.getId()).and("deadlineNotifiedFor").is(stamp));
+        if (mongoTemplate.updateFirst(stamped, new Update().unset("deadlineNotifiedFor"), Issue.class).getModifiedCount() > 0) {
+            count(issue.getProjectId(), -1);
+        }
+    }
+
+    private void notify(List<Issue> fired) {
+        if (fired.isEmpty()) {
+            return;
+        }
+        Date now = new Date();
+        List<Notification> notifications = new ArrayList<>();
+        for (Issue issue : fired) {
+            String recipient = issue.getAssigneeId() != null ? issue.getAssigneeId() : issue.getReporterId();
+            if (recipient == null) {
+                continue;
+            }
+            String label = issue.getKey() != null ? issue.getKey() : issue.getTitle();
+            notifications.add(Notification.builder()
+                    .type("deadline")
+                    .title(label + " is overdue")
+                    .message(issue.getTitle())
+                    .userId(recipient)
+                    .projectId(issue.getProjectId())
+                    .issueId(issue.getId())
+                    .createdAt(now)
+                    .isActive(true)
+                    .build());
+        }
+        if (!notifications.isEmpty()) {
+            mongoTemplate.insertAll(notifications);
+        }
+        Map<String, Long> byProject = fired.stream().filter(i -> i.getProjectId() != null)
+                .collect(Collectors.groupingBy(Issue::getProjectId, HashMap::new, Collectors.counting()));
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COUNTERS);
+        byProject.forEach((projectId, n) ->
+                bulk.upsert(Query.query(Criteria.where("_id").is(projectId)), new Update().inc("overdue", n)));
+        if (!byProject.isEmpty()) {
+            bulk.execute();
+        }
+    }
+
+    private void count(String projectId, long delta) {
+        if (projectId != null) {
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(projectId)), new Update().inc("overdue", delta), COUNTERS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scanner.shutdown();
+        try {
+            scanner.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // lets another instance take over without waiting out the TTL
+        try {
+            lease.release();
+        } catch (Exception e) {
+            log.warn("Deadline lease release failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package planup.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import planup.backend.config.ExecutionConfig;
+import planup.backend.model.DeletionJob;
+import planup.backend.model.Issue;
+import planup.backend.model.Sprint;
+import planup.backend.repository.DeletionJobRepository;
+import planup.backend.repository.ProjectRepository;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Deletes an issue, sprint or project at once and its dependents in the background. The job is saved
+// before the root goes, so a crash in between still cleans up. One instance at a time, the holder of the
+// "deletions" lease, works through pending jobs: each job is a fixed list of steps, each step removes or
+// detaches one bounded batch per call until it finds nothing left. The job records its step and a running
+// count after every batch, and every batch is idempotent, so a job picks up where it stopped. Batches are
+// spaced by pause-ms so a big project doesn't crowd out live traffic.
+@Slf4j
+@Service
+public class DeletionJobService {
+    private static final int JOBS_PER_POLL = 20;
+
+    private final MongoTemplate mongoTemplate;
+    private final DeletionJobRepository jobRepository;
+    private final ProjectRepository projectRepository;
+    private final AttachmentService attachmentService;
+    private final RetrospectiveService retrospectiveService;
+    private final Lease lease;
+    private final ScheduledExecutorService worker;
+    private final int batchSize;
+    private final long pauseMs;
+    private final Map<String, List<Step>> steps;
+
+    // Handles one batch for a root; returns how many documents it touched, 0 once the step is done
+    private interface Step {
+        int run(String rootId) throws IOException;
+    }
+
+    public DeletionJobService(MongoTemplate mongoTemplate, DeletionJobRepository jobRepository,
+                              ProjectRepository projectRepository, AttachmentService attachmentService,
+                              RetrospectiveService retrospectiveService,
+                              @Value("${planup.deletions.batch-size:500}") int batchSize,
+                              @Value("${planup.deletions.pause-ms:50}") long pauseMs,
+                              @Value("${planup.deletions.poll-ms:10000}") long pollMs,
+                              @Value("${planup.deletions.lease-ms:60000}") long leaseMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.jobRepository = jobRepository;
+        this.projectRepository = projectRepository;
+        this.attachmentService = attachmentService;
+        this.retrospectiveService = retrospectiveService;
+        this.lease = new Lease(mongoTemplate, "deletions", leaseMs);
+        this.batchSize = batchSize;
+        this.pauseMs = pauseMs;
+        // the first step of each list deletes the root itself, a no-op once delete() has done it
+        this.steps = Map.of(
+                DeletionJob.ISSUE, List.of(
+                        id -> removeRoot(Issue.class, id),
+                        id -> deleteBatch("comments", Criteria.where("issueId").is(id)),
+                        id -> deleteBatch("timelogs", Criteria.where("issueId").is(id)),
+                        id -> deleteAttachments(Criteria.where("issueId").is(id)),
+                        id -> deleteBatch("subtasks", Criteria.where("parentIssueId").is(id)),
+                        id -> deleteBatch("issuelinks", Criteria.where("sourceIssueId").is(id)),
+                        id -> deleteBatch("issuelinks", Criteria.where("targetIssueId").is(id)),
+                        id -> pull("sprints", "issues", id),
+                        id -> pull("epics", "issueIds", id)),
+                DeletionJob.SPRINT, List.of(
+                        id -> removeRoot(Sprint.class, id),
+                        // issues go back to the backlog rather than with the sprint
+                        id -> detachBatch("issues", Criteria.where("sprintId").is(id).and("isActive").is(true), "sprintId"),
+                        id -> retrospectiveService.deleteSprintBatch(id, batchSize)),
+                DeletionJob.PROJECT, List.of(
+                        this::removeProject,
+                        id -> deleteIssues(id, "issues", "comments", "timelogs", "subtasks"),
+                        id -> deleteIssues(id, IssueArchive.ISSUES, IssueArchive.COMMENTS, IssueArchive.TIME_LOGS, IssueArchive.SUB_TASKS),
+                        id -> deleteBatch("sprints", Criteria.where("projectId").is(id)),
+                        id -> deleteBatch("epics", Criteria.where("projectId").is(id)),
+                        id -> deleteBatch("retrospectives", Criteria.where("projectId").is(id)),
+                        id -> deleteBatch("components", Criteria.where("projectId").is(id)),
+                        id -> deleteBatch("templates", Criteria.where("projectId").is(id)),
+                        id -> deleteBatch("workflows", Criteria.where("projectId").is(id)),
+                        id -> deleteBatch("calendar_events", Criteria.where("projectId").is(id)),
+                        id -> deleteBatch("memberships", Criteria.where("scopeType").is("project").and("scopeId").is(id)),
+                        id -> removeById("project_counters", id),
+                        id -> removeById("calendar_versions", id)));
+        this.worker = Executors.newSingleThreadScheduledExecutor(ExecutionConfig.namedThreads("deletions-"));
+        worker.scheduleWithFixedDelay(this::runSafely, pollMs, pollMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Deletes the root now and queues the job that removes everything depending on it
+    public DeletionJob delete(String rootType, String rootId) {
+        Date now = new Date();
+        DeletionJob job = jobRepository.save(DeletionJob.builder()
+                .rootType(rootType)
+                .rootId(rootId)
+                .status(DeletionJob.PENDING)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        try {
+            steps.get(rootType).get(0).run(rootId);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        worker.execute(this::runSafely);
+        return job;
+    }
+
+    public Optional<DeletionJob> getJob(String id) {
+        return jobRepository.findById(id);
+    }
+
+    public List<DeletionJob> getJobsForRoot(String rootId) {
+        return jobRepository.findByRootIdOrderByCreatedAtDesc(rootId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+        try {
+            worker.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lease.release();
+    }
+
+    private void runSafely() {
+        try {
+            if (!lease.tryAcquire()) {
+                return;
+            }
+            Query pending = Query.query(Criteria.where("status").is(DeletionJob.PENDING))
+                    .with(Sort.by("createdAt"))
+                    .limit(JOBS_PER_POLL);
+            List<DeletionJob> jobs;
+            while (!(jobs = mongoTemplate.find(pending, DeletionJob.class)).isEmpty()) {
+                for (DeletionJob job : jobs) {
+                    if (!run(job)) {
+                        return;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Deletion job run stopped, it resumes on the next poll: {}", e.getMessage());
+        }
+    }
+
+    // False when the lease was lost midway; the job stays pending at the step it reached
+    private boolean run(DeletionJob job) throws IOException, InterruptedException {
+        List<Step> plan = steps.getOrDefault(job.getRootType(), List.of());
+        Query byId = Query.query(Criteria.where("_id").is(job.getId()));
+        int step = job.getStep();
+        long processed = job.getProcessed();
+        while (step < plan.size()) {
+            if (!lease.tryAcquire()) {
+                return false;
+            }
+            int touched = plan.get(step).run(job.getRootId());
+            Update progress = new Update().set("updatedAt", new Date());
+            if (touched == 0) {
+                progress.set("step", ++step);
+            } else {
+                progress.inc("processed", touched);
+                processed += touched;
+            }
+            mongoTemplate.updateFirst(byId, progress, DeletionJob.class);
+            if (touched > 0) {
+                Thread.sleep(pauseMs);
+            }
+        }
+        mongoTemplate.updateFirst(byId, new Update().set("status", DeletionJob.DONE).set("finishedAt", new Date()), DeletionJob.class);
+        log.info("Deleted {} {} with {} dependent documents", job.getRootType(), job.getRootId(), processed);
+        return true;
+    }
+
+    private List<Object> ids(String collection, Criteria criteria) {
+        Query batch = Query.query(criteria).limit(batchSize);
+        batch.fields().include("_id");
+        return mongoTemplate.find(batch, Document.class, collection).stream().map(doc -> doc.get("_id")).toList();
+    }
+
+    private int deleteBatch(String collection, Criteria criteria) {
+        List<Object> ids = ids(collection, criteria);
+        if (!ids.isEmpty()) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), collection);
+        }
+        return ids.size();
+    }
+
+    private int detachBatch(String collection, Criteria criteria, String field) {
+        List<Object> ids = ids(collection, criteria);
+        if (!ids.isEmpty()) {
+            mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)), new Update().unset(field), collection);
+        }
+        return ids.size();
+    }
+
+    // Attachment blobs are shared by content hash, so they go only with their last attachment
+    private int deleteAttachments(Criteria criteria) throws IOException {
+        Query batch = Query.query(criteria).limit(batchSize);
+        batch.fields().include("contentHash");
+        List<Document> attachments = mongoTemplate.find(batch, Document.class, "attachments");
+        if (attachments.isEmpty()) {
+            return 0;
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("_id").in(attachments.stream().map(doc -> doc.get("_id")).toList())),
+                "attachments");
+        Set<String> hashes = attachments.stream()
+                .map(doc -> doc.getString("contentHash"))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        attachmentService.deleteUnreferencedContent(hashes);
+        return attachments.size();
+    }
+
+    // A batch of a deleted project's issues goes with all of its comments, time logs, attachments, sub-tasks
+    // and links. Each call removes at most one bounded batch of one child collection and returns, so the job
+    // pauses between batches however many children an issue has; the issues themselves are removed by the
+    // call that finds no children left, so a crash midway repeats the batch
+    private int deleteIssues(String projectId, String issues, String comments, String timeLogs, String subTasks) throws IOException {
+        List<Object> ids = ids(issues, Criteria.where("projectId").is(projectId));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<String> issueIds = ids.stream().map(Object::toString).toList();
+        int touched;
+        if ((touched = deleteBatch(comments, Criteria.where("issueId").in(issueIds))) > 0
+                || (touched = deleteBatch(timeLogs, Criteria.where("issueId").in(issueIds))) > 0
+                || (touched = deleteBatch(subTasks, Criteria.where("parentIssueId").in(issueIds))) > 0
+                || (touched = deleteBatch("issuelinks", new Criteria().orOperator(
+                        Criteria.where("sourceIssueId").in(issueIds), Criteria.where("targetIssueId").in(issueIds)))) > 0
+                || (touched = deleteAttachments(Criteria.where("issueId").in(issueIds))) > 0) {
+            return touched;
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), issues);
+        return ids.size();
+    }
+
+    private int remove(String collection, Criteria criteria) {
+        return (int) mongoTemplate.remove(Query.query(criteria), collection).getDeletedCount();
+    }
+
+    private int removeById(String collection, String id) {
+        return remove(collection, Criteria.where("_id").is(id));
+    }
+
+    // Through the entity mapping, which stores these ids as ObjectIds
+    private int removeRoot(Class<?> type, String id) {
+        return (int) mongoTemplate.remove(Query.query(Criteria.where("_id").is(id)), type).getDeletedCount();
+    }
+
+    // Project ids are mapped by the repository, the raw collection can't match them by string
+    private int removeProject(String id) {
+        if (!projectRepository.existsById(id)) {
+            return 0;
+        }
+        projectRepository.deleteById(id);
+        return 1;
+    }
+
+    private int pull(String collection, String field, String id) {
+        return (int) mongoTemplate.updateMulti(Query.query(Criteria.where(field).is(id)), new Update().pull(field, id), collection)
+                .getModifiedCount();
+    }
+}
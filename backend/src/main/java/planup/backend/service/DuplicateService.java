@@ -0,0 +1,154 @@
+package planup.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import planup.backend.dto.DuplicateCandidate;
+import planup.backend.model.Idea;
+import planup.backend.model.Issue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Near-duplicate lookup for issues (per project) and ideas (per organization) over title + description.
+// Each scope's SimilarityIndex is built from Mongo on first use and then kept current from issue events
+// and idea writes, so a lookup is a handful of bucket probes and signature comparisons, never a pass over
+// the text of every issue. Scopes not yet loaded ignore writes; they read the current state when loaded.
+// A loaded scope is reloaded once older than the refresh interval, which bounds how long issues and ideas
+// written on other instances stay invisible here.
+@Service
+public class DuplicateService {
+    private static final String ISSUES = "issues:";
+    private static final String IDEAS = "ideas:";
+
+    private final MongoTemplate mongoTemplate;
+    private final double minSimilarity;
+    private final long refreshMs;
+    private final Map<String, Scope> scopes = new ConcurrentHashMap<>();
+    // issue id -> scope key, for deletes that only carry the id
+    private final Map<String, String> issueScopes = new ConcurrentHashMap<>();
+
+    public DuplicateService(MongoTemplate mongoTemplate,
+                            @Value("${planup.duplicates.min-similarity:0.5}") double minSimilarity,
+                            @Value("${planup.duplicates.refresh-ms:300000}") long refreshMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.minSimilarity = minSimilarity;
+        this.refreshMs = refreshMs;
+    }
+
+    public List<DuplicateCandidate> findIssueDuplicates(String projectId, String title, String description,
+                                                        String excludeId, int limit) {
+        return find(ISSUES + projectId, text(title, description), excludeId, limit);
+    }
+
+    public List<DuplicateCandidate> findSimilarIdeas(String organizationId, String title, String description,
+                                                     String excludeId, int limit) {
+        return find(IDEAS + organizationId, text(title, description), excludeId, limit);
+    }
+
+    @EventListener
+    public void onIssueChanged(IssueChangedEvent event) {
+        Issue issue = event.issue();
+        String previous = issueScopes.remove(issue.getId());
+        if (previous != null) {
+            SimilarityIndex index = loaded(previous);
+            if (index != null) {
+                synchronized (index) {
+                    index.remove(issue.getId());
+                }
+            }
+        }
+        if (!event.deleted() && issue.getProjectId() != null) {
+            String scope = ISSUES + issue.getProjectId();
+            SimilarityIndex index = loaded(scope);
+            if (index != null) {
+                synchronized (index) {
+                    index.put(issue.getId(), issue.getKey(), issue.getTitle(), text(issue.getTitle(), issue.getDescription()));
+                }
+                issueScopes.put(issue.getId(), scope);
+            }
+        }
+    }
+
+    public void ideaSaved(Idea idea) {
+        SimilarityIndex index = loaded(IDEAS + idea.getOrganizationId());
+        if (index != null) {
+            synchronized (index) {
+                index.put(idea.getId(), null, idea.getTitle(), text(idea.getTitle(), idea.getDescription()));
+            }
+        }
+    }
+
+    public void ideaDeleted(Idea idea) {
+        SimilarityIndex index = loaded(IDEAS + idea.getOrganizationId());
+        if (index != null) {
+            synchronized (index) {
+                index.remove(idea.getId());
+            }
+        }
+    }
+
+    private List<DuplicateCandidate> find(String scope, String text, String excludeId, int limit) {
+        SimilarityIndex index = current(scope);
+        List<SimilarityIndex.Match> matches;
+        synchronized (index) {
+            matches = index.query(text, excludeId, minSimilarity, Math.max(limit, 1));
+        }
+        List<DuplicateCandidate> candidates = new ArrayList<>(matches.size());
+        for (SimilarityIndex.Match match : matches) {
+            candidates.add(new DuplicateCandidate(match.id(), match.label(), match.title(), match.similarity()));
+        }
+        return candidates;
+    }
+
+    // The scope's index, loading it when missing or older than the refresh interval
+    private SimilarityIndex current(String key) {
+        Scope scope = scopes.get(key);
+        if (scope == null || System.currentTimeMillis() - scope.loadedAt() > refreshMs) {
+            scope = scopes.compute(key, (k, existing) -> existing != null
+                    && System.currentTimeMillis() - existing.loadedAt() <= refreshMs
+                    ? existing : new Scope(load(k), System.currentTimeMillis()));
+        }
+        return scope.index();
+    }
+
+    // Null while the scope isn't loaded
+    private SimilarityIndex loaded(String key) {
+        Scope scope = scopes.get(key);
+        return scope == null ? null : scope.index();
+    }
+
+    private SimilarityIndex load(String scope) {
+        SimilarityIndex index = new SimilarityIndex();
+        if (scope.startsWith(ISSUES)) {
+            Query query = Query.query(Criteria.where("projectId").is(scope.substring(ISSUES.length())));
+            query.fields().include("key").include("title").include("description");
+            try (var issues = mongoTemplate.stream(query, Issue.class)) {
+                issues.forEach(issue -> {
+                    index.put(issue.getId(), issue.getKey(), issue.getTitle(), text(issue.getTitle(), issue.getDescription()));
+                    issueScopes.put(issue.getId(), scope);
+                });
+            }
+        } else {
+            Query query = Query.query(Criteria.where("organizationId").is(scope.substring(IDEAS.length())));
+            query.fields().include("title").include("description");
+            try (var ideas = mongoTemplate.stream(query, Idea.class)) {
+                ideas.forEach(idea -> index.put(idea.getId(), null, idea.getTitle(), text(idea.getTitle(), idea.getDescription())));
+            }
+        }
+        return index;
+    }
+
+    private static String text(String title, String description) {
+        String head = title == null ? "" : title;
+        return description == null || description.isBlank() ? head : head + " " + description;
+    }
+
+    private record Scope(SimilarityIndex index, long loadedAt) {
+    }
+}
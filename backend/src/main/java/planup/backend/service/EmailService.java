@@ -1,20 +1,25 @@
 package planup.backend.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import planup.backend.config.Bulkhead;
 
 @Service
 public class EmailService {
     @Autowired
     private JavaMailSender mailSender;
+    @Autowired
+    @Qualifier("mailBulkhead")
+    private Bulkhead mailBulkhead;
 
     public void sendEmail(String to, String subject, String body) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setTo(to);
         message.setSubject(subject);
         message.setText(body);
-        mailSender.send(message);
+        mailBulkhead.run(() -> mailSender.send(message));
     }
 } 
\ No newline at end of file
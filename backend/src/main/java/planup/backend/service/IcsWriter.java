@@ -0,0 +1,88 @@
+package planup.backend.service;
+
+import planup.backend.dto.CalendarItem;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+// Minimal RFC 5545 writer: one VEVENT per item, written as it arrives. Issue due dates and sprints are
+// all-day entries; events keep their times in UTC. Lines end in CRLF and are folded at 75 characters.
+public final class IcsWriter {
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private final Writer out;
+    private final String stamp;
+
+    public IcsWriter(Writer out) {
+        this.out = out;
+        this.stamp = DATE_TIME.format(Instant.now());
+    }
+
+    public void begin(String name) throws IOException {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//PlanUp//Calendar//EN");
+        line("CALSCALE:GREGORIAN");
+        line("X-WR-CALNAME:" + escape(name));
+    }
+
+    public void write(CalendarItem item) throws IOException {
+        if (item.getStart() == null) {
+            return;
+        }
+        line("BEGIN:VEVENT");
+        line("UID:" + item.getType() + "-" + item.getId() + "@planup");
+        line("DTSTAMP:" + stamp);
+        if (CalendarItem.EVENT.equals(item.getType())) {
+            line("DTSTART:" + DATE_TIME.format(item.getStart().toInstant()));
+            line("DTEND:" + DATE_TIME.format(end(item).toInstant()));
+        } else {
+            line("DTSTART;VALUE=DATE:" + DATE.format(item.getStart().toInstant()));
+            // DTEND of an all-day entry is exclusive
+            line("DTEND;VALUE=DATE:" + DATE.format(Instant.ofEpochMilli(end(item).getTime() + DAY)));
+        }
+        line("SUMMARY:" + escape(item.getTitle()));
+        if (item.getDescription() != null && !item.getDescription().isBlank()) {
+            line("DESCRIPTION:" + escape(item.getDescription()));
+        }
+        line("CATEGORIES:" + item.getType());
+        line("END:VEVENT");
+    }
+
+    public void end() throws IOException {
+        line("END:VCALENDAR");
+        out.flush();
+    }
+
+    private static Date end(CalendarItem item) {
+        return item.getEnd() != null ? item.getEnd() : item.getStart();
+    }
+
+    private void line(String text) throws IOException {
+        // continuation lines start with a space, which counts toward their 75
+        int from = 0;
+        int width = 75;
+        while (text.length() - from > width) {
+            out.write(text, from, width);
+            out.write("\r\n ");
+            from += width;
+            width = 74;
+        }
+        out.write(text, from, text.length() - from);
+        out.write("\r\n");
+    }
+
+    private static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,")
+                .replace("\r\n", "\\n").replace("\n", "\\n");
+    }
+}
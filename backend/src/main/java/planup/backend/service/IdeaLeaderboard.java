@@ -0,0 +1,93 @@
+package planup.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// The top `capacity` ideas of one organization by upvotes, as a min-heap so the weakest entry is evicted in
+// O(log n) when a stronger idea arrives. Every idea outside the board has no more votes than the board's
+// minimum; an update that could break that (an entry dropping below the minimum, a deletion from a full
+// board) marks the board incomplete, and the owner reloads it from the {organizationId, upvotes} index.
+final class IdeaLeaderboard {
+    private static final Comparator<Entry> WEAKEST_FIRST = Comparator.comparingInt(Entry::upvotes)
+            .thenComparing(Entry::ideaId, Comparator.reverseOrder());
+
+    record Entry(String ideaId, int upvotes) {
+    }
+
+    private final int capacity;
+    private final long loadedAt;
+    private final PriorityQueue<Entry> heap;
+    private final Map<String, Entry> byIdea = new HashMap<>();
+    // true when the organization had fewer ideas than capacity at load, so everything is on the board
+    private boolean holdsAll;
+    private boolean incomplete;
+
+    IdeaLeaderboard(int capacity, List<Entry> loaded, long loadedAt) {
+        this.capacity = capacity;
+        this.loadedAt = loadedAt;
+        this.heap = new PriorityQueue<>(capacity + 1, WEAKEST_FIRST);
+        for (Entry entry : loaded) {
+            offer(entry);
+        }
+        this.holdsAll = loaded.size() < capacity;
+    }
+
+    long loadedAt() {
+        return loadedAt;
+    }
+
+    synchronized boolean incomplete() {
+        return incomplete;
+    }
+
+    // The idea now has `upvotes` votes (new ideas arrive with 0)
+    synchronized void update(String ideaId, int upvotes) {
+        Entry current = byIdea.get(ideaId);
+        if (current != null) {
+            // ideas off the board may have up to the minimum's votes, so falling below it needs a reload
+            if (upvotes < heap.peek().upvotes() && !holdsAll) {
+                incomplete = true;
+            }
+            heap.remove(current);
+            byIdea.remove(ideaId);
+        }
+        offer(new Entry(ideaId, upvotes));
+    }
+
+    synchronized void remove(String ideaId) {
+        Entry current = byIdea.remove(ideaId);
+        if (current != null) {
+            heap.remove(current);
+            if (!holdsAll) {
+                incomplete = true;
+            }
+        }
+    }
+
+    // Strongest first
+    synchronized List<Entry> top(int limit) {
+        List<Entry> entries = new ArrayList<>(heap);
+        entries.sort(WEAKEST_FIRST.reversed());
+        return entries.size() > limit ? entries.subList(0, limit) : entries;
+    }
+
+    private void offer(Entry entry) {
+        if (heap.size() < capacity) {
+            heap.add(entry);
+            byIdea.put(entry.ideaId(), entry);
+            return;
+        }
+        holdsAll = false;
+        Entry weakest = heap.peek();
+        if (WEAKEST_FIRST.compare(entry, weakest) > 0) {
+            heap.poll();
+            byIdea.remove(weakest.ideaId());
+            heap.add(entry);
+            byIdea.put(entry.ideaId(), entry);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package planup.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import planup.backend.dto.DuplicateCandidate;
+import planup.backend.dto.PromotionResponse;
+import planup.backend.mapper.IssueMapper;
+import planup.backend.model.Idea;
+import planup.backend.model.IdeaVote;
+import planup.backend.model.Issue;
+import planup.backend.model.IssueLink;
+import planup.backend.repository.IdeaRepository;
+import planup.backend.repository.IdeaVoteRepository;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Ideas and their votes. A vote is an idea_votes edge with a unique {ideaId, userId} index, so voting twice
+// is a no-op, and Idea.upvotes only ever moves by $inc after an edge was actually inserted or deleted, so
+// concurrent votes are never lost. Each organization's top ideas are kept in an IdeaLeaderboard updated
+// with every vote on this instance and reloaded from the {organizationId, upvotes} index when incomplete
+// or older than the refresh interval. Promotion turns an idea into an issue and reports the issues it most
+// likely duplicates.
+@Service
+public class IdeaService {
+    private final IdeaRepository ideaRepository;
+    private final IdeaVoteRepository ideaVoteRepository;
+    private final MongoTemplate mongoTemplate;
+    private final IssueService issueService;
+    private final DuplicateService duplicateService;
+    private final int leaderboardSize;
+    private final double autoLinkSimilarity;
+    private final long refreshMs;
+    private final Map<String, IdeaLeaderboard> leaderboards = new ConcurrentHashMap<>();
+
+    public IdeaService(IdeaRepository ideaRepository, IdeaVoteRepository ideaVoteRepository, MongoTemplate mongoTemplate,
+                       IssueService issueService, DuplicateService duplicateService,
+                       @Value("${planup.ideas.leaderboard-size:100}") int leaderboardSize,
+                       @Value("${planup.ideas.leaderboard-refresh-ms:30000}") long refreshMs,
+                       @Value("${planup.duplicates.auto-link-similarity:0.8}") double autoLinkSimilarity) {
+        this.ideaRepository = ideaRepository;
+        this.ideaVoteRepository = ideaVoteRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.issueService = issueService;
+        this.duplicateService = duplicateService;
+        this.leaderboardSize = leaderboardSize;
+        this.autoLinkSimilarity = autoLinkSimilarity;
+        this.refreshMs = refreshMs;
+    }
+
+    public List<Idea> getIdeasByOrganization(String organizationId) {
+        return ideaRepository.findByOrganizationId(organizationId);
+    }
+
+    public List<Idea> getIdeasByProject(String projectId) {
+        return ideaRepository.findByProjectId(projectId);
+    }
+
+    public Optional<Idea> getIdeaById(String id) {
+        return ideaRepository.findById(id);
+    }
+
+    public Idea createIdea(Idea idea) {
+        idea.setId(null);
+        idea.setUpvotes(0);
+        idea.setCreatedAt(new Date());
+        idea.setUpdatedAt(new Date());
+        Idea saved = ideaRepository.save(idea);
+        duplicateService.ideaSaved(saved);
+        IdeaLeaderboard board = leaderboards.get(key(saved.getOrganizationId()));
+        if (board != null) {
+            board.update(saved.getId(), 0);
+        }
+        return saved;
+    }
+
+    // Only the editable fields are $set: upvotes moves by $inc with the vote edges and promotedIssueId is set by
+    // promotion, so neither can be overwritten with the copy the caller read
+    public Idea updateIdea(Idea existing, Idea idea) {
+        Update update = new Update()
+                .set("title", idea.getTitle())
+                .set("description", idea.getDescription())
+                .set("status", idea.getStatus())
+                .set("updatedAt", new Date());
+        Idea saved = mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(existing.getId())), update,
+                FindAndModifyOptions.options().returnNew(true), Idea.class);
+        if (saved == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Idea not found");
+        }
+        duplicateService.ideaSaved(saved);
+        return saved;
+    }
+
+    public void deleteIdea(Idea idea) {
+        ideaRepository.deleteById(idea.getId());
+        ideaVoteRepository.deleteByIdeaId(idea.getId());
+        duplicateService.ideaDeleted(idea);
+        IdeaLeaderboard board = leaderboards.get(key(idea.getOrganizationId()));
+        if (board != null) {
+            board.remove(idea.getId());
+        }
+    }
+
+    // Idempotent: a second vote by the same user leaves the count alone
+    public Idea upvote(String ideaId, String userId) {
+        Idea idea = ideaRepository.findById(ideaId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Idea not found"));
+        try {
+            ideaVoteRepository.insert(IdeaVote.builder().ideaId(ideaId).userId(userId).createdAt(new Date()).build());
+        } catch (DuplicateKeyException e) {
+            return idea;
+        }
+        return adjustUpvotes(ideaId, 1);
+    }
+
+    public Idea removeUpvote(String ideaId, String userId) {
+        if (ideaVoteRepository.deleteByIdeaIdAndUserId(ideaId, userId) == 0) {
+            return ideaRepository.findById(ideaId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Idea not found"));
+        }
+        return adjustUpvotes(ideaId, -1);
+    }
+
+    public boolean hasVoted(String ideaId, String userId) {
+        return ideaVoteRepository.existsByIdeaIdAndUserId(ideaId, userId);
+    }
+
+    public List<DuplicateCandidate> getSimilarIdeas(Idea idea, int limit) {
+        return duplicateService.findSimilarIdeas(idea.getOrganizationId(), idea.getTitle(), idea.getDescription(),
+                idea.getId(), limit);
+    }
+
+    // Creates a Story from the idea in projectId and returns it with its likely duplicates; with linkDuplicates
+    // the close ones get a "duplicates" link. An idea is promoted once: the claim on promotedIssueId is
+    // conditional, and the loser of a race deletes the issue it created.
+    public PromotionResponse promote(Idea idea, String projectId, String userId, boolean linkDuplicates, int limit) {
+        if (idea.getPromotedIssueId() != null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Idea already promoted to " + idea.getPromotedIssueId());
+        }
+        Issue issue = issueService.createIssue(Issue.builder()
+                .title(idea.getTitle())
+                .description(idea.getDescription())
+                .projectId(projectId)
+                .type("Story")
+                .reporterId(userId)
+                .build());
+        Query unclaimed = Query.query(Criteria.where("id").is(idea.getId()).and("promotedIssueId").is(null));
+        Update claim = new Update().set("promotedIssueId", issue.getId()).set("updatedAt", new Date());
+        if (userId != null) {
+            claim.addToSet("promotedByIds", userId);
+        }
+        if (mongoTemplate.updateFirst(unclaimed, claim, Idea.class).getMatchedCount() == 0) {
+            issueService.deleteIssue(issue);
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Idea already promoted");
+        }
+        List<DuplicateCandidate> duplicates = duplicateService.findIssueDuplicates(projectId, issue.getTitle(),
+                issue.getDescription(), issue.getId(), limit);
+        int linked = 0;
+        if (linkDuplicates) {
+            for (DuplicateCandidate candidate : duplicates) {
+                if (candidate.getSimilarity() >= autoLinkSimilarity) {
+                    issueService.addIssueLink(issue.getId(), IssueLink.builder()
+                            .targetIssueId(candidate.getId())
+                            .linkType("duplicates")
+                            .createdById(userId)
+                            .isActive(true)
+                            .build());
+                    linked++;
+                }
+            }
+        }
+        return new PromotionResponse(IssueMapper.toResponse(issue), duplicates, linked);
+    }
+
+    // The organization's most upvoted ideas, most votes first; limit is capped at the leaderboard size
+    public List<Idea> getTopIdeas(String organizationId, int limit) {
+        List<IdeaLeaderboard.Entry> top = leaderboard(organizationId).top(Math.min(Math.max(limit, 1), leaderboardSize));
+        List<String> ids = new ArrayList<>(top.size());
+        for (IdeaLeaderboard.Entry entry : top) {
+            ids.add(entry.ideaId());
+        }
+        Map<String, Idea> byId = new HashMap<>();
+        for (Idea idea : ideaRepository.findAllById(ids)) {
+            byId.put(idea.getId(), idea);
+        }
+        List<Idea> ideas = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Idea idea = byId.get(id);
+            if (idea != null) {
+                ideas.add(idea);
+            }
+        }
+        return ideas;
+    }
+
+    private Idea adjustUpvotes(String ideaId, int delta) {
+        Idea updated = mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(ideaId)),
+                new Update().inc("upvotes", delta), FindAndModifyOptions.options().returnNew(true), Idea.class);
+        if (updated == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Idea not found");
+        }
+        IdeaLeaderboard board = leaderboards.get(key(updated.getOrganizationId()));
+        if (board != null) {
+            board.update(ideaId, updated.getUpvotes());
+        }
+        return updated;
+    }
+
+    private IdeaLeaderboard leaderboard(String organizationId) {
+        String key = key(organizationId);
+        long now = System.currentTimeMillis();
+        IdeaLeaderboard board = leaderboards.get(key);
+        if (board != null && !board.incomplete() && now - board.loadedAt() < refreshMs) {
+            return board;
+        }
+        return leaderboards.compute(key, (k, current) ->
+                current != null && !current.incomplete() && now - current.loadedAt() < refreshMs
+                        ? current : load(organizationId, now));
+    }
+
+    private IdeaLeaderboard load(String organizationId, long now) {
+        Query query = Query.query(Criteria.where("organizationId").is(organizationId))
+                .with(Sort.by(Sort.Direction.DESC, "upvotes"))
+                .limit(leaderboardSize);
+        query.fields().include("upvotes");
+        List<IdeaLeaderboard.Entry> entries = new ArrayList<>();
+        for (Idea idea : mongoTemplate.find(query, Idea.class)) {
+            entries.add(new IdeaLeaderboard.Entry(idea.getId(), idea.getUpvotes()));
+        }
+        return new IdeaLeaderboard(leaderboardSize, entries, now);
+    }
+
+    // ideas without an organization share one board
+    private static String key(String organizationId) {
+        return organizationId == null ? "" : organizationId;
+    }
+}
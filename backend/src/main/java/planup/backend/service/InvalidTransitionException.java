@@ -0,0 +1,7 @@
+package planup.backend.service;
+
+public class InvalidTransitionException extends RuntimeException {
+    public InvalidTransitionException(String fromStatus, String toStatus) {
+        super("Transition from '" + fromStatus + "' to '" + toStatus + "' is not allowed by the issue's workflow");
+    }
+}
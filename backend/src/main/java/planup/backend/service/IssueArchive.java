@@ -0,0 +1,55 @@
+package planup.backend.service;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import planup.backend.model.Issue;
+import planup.backend.model.SubTask;
+import planup.backend.model.TimeLog;
+
+import java.util.List;
+
+// The cold tier: issues ArchivalService moved out of the hot collections, with their comments, time logs
+// and sub-tasks, stored as they were under the same ids. Read-only apart from ArchivalService.
+@Service
+public class IssueArchive {
+    public static final String ISSUES = "issues_archive";
+    public static final String COMMENTS = "comments_archive";
+    public static final String TIME_LOGS = "timelogs_archive";
+    public static final String SUB_TASKS = "subtasks_archive";
+
+    private final MongoTemplate mongoTemplate;
+
+    public IssueArchive(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Archive collections have no entity class, so their indexes aren't created automatically
+    public void createIndexes() {
+        mongoTemplate.indexOps(ISSUES).createIndex(new Index().on("projectId", Sort.Direction.ASC).named("project"));
+        mongoTemplate.indexOps(ISSUES).createIndex(new Index().on("sprintId", Sort.Direction.ASC).named("sprint").sparse());
+        mongoTemplate.indexOps(ISSUES).createIndex(new Index().on("epicId", Sort.Direction.ASC).named("epic").sparse());
+        mongoTemplate.indexOps(COMMENTS).createIndex(new Index().on("issueId", Sort.Direction.ASC).named("issue"));
+        mongoTemplate.indexOps(TIME_LOGS).createIndex(new Index().on("issueId", Sort.Direction.ASC).named("issue"));
+        mongoTemplate.indexOps(SUB_TASKS).createIndex(new Index().on("parentIssueId", Sort.Direction.ASC).named("parent"));
+    }
+
+    public Issue findIssue(String id) {
+        return mongoTemplate.findById(id, Issue.class, ISSUES);
+    }
+
+    public List<Issue> findIssues(String field, String value) {
+        return mongoTemplate.find(Query.query(Criteria.where(field).is(value)), Issue.class, ISSUES);
+    }
+
+    public List<TimeLog> findTimeLogs(String issueId) {
+        return mongoTemplate.find(Query.query(Criteria.where("issueId").is(issueId)), TimeLog.class, TIME_LOGS);
+    }
+
+    public List<SubTask> findSubTasks(String issueId) {
+        return mongoTemplate.find(Query.query(Criteria.where("parentIssueId").is(issueId)), SubTask.class, SUB_TASKS);
+    }
+}
@@ -0,0 +1,7 @@
+package planup.backend.service;
+
+import planup.backend.model.Issue;
+
+// Published after an issue is created, updated or deleted (then only the id is meaningful)
+public record IssueChangedEvent(Issue issue, boolean deleted) {
+}
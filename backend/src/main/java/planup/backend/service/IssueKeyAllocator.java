@@ -0,0 +1,74 @@
+package planup.backend.service;
+
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Hands out issue numbers per project from project_counters.issueSeq: one $inc reserves a whole block, so
+// creating N issues costs one round trip however large N is. A project's sequence starts after the highest
+// number found in its existing keys, hot and archived, the first time it is used.
+@Service
+public class IssueKeyAllocator {
+    private static final String COUNTERS = "project_counters";
+
+    private final MongoTemplate mongoTemplate;
+
+    public IssueKeyAllocator(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // `count` keys like "MAD-41", "MAD-42", ... for a project whose key is "MAD"
+    public List<String> allocate(String projectId, String projectKey, int count) {
+        Query counter = Query.query(Criteria.where("_id").is(projectId));
+        if (!mongoTemplate.exists(Query.query(Criteria.where("_id").is(projectId).and("issueSeq").exists(true)), COUNTERS)) {
+            seed(projectId);
+        }
+        Document after = mongoTemplate.findAndModify(counter, new Update().inc("issueSeq", (long) count),
+                FindAndModifyOptions.options().upsert(true).returnNew(true), Document.class, COUNTERS);
+        long last = ((Number) after.get("issueSeq")).longValue();
+        List<String> keys = new ArrayList<>(count);
+        for (long seq = last - count + 1; seq <= last; seq++) {
+            keys.add(projectKey + "-" + seq);
+        }
+        return keys;
+    }
+
+    // Only sets the sequence while it is still missing, so racing seeders can't reset one already in use
+    private void seed(String projectId) {
+        long highest = Math.max(highestNumber(projectId, "issues"), highestNumber(projectId, IssueArchive.ISSUES));
+        try {
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(projectId).and("issueSeq").exists(false)),
+                    new Update().set("issueSeq", highest), COUNTERS);
+        } catch (DuplicateKeyException e) {
+            // another instance seeded it first
+        }
+    }
+
+    // Keys are strings, so the numeric maximum is found by reading them; this happens once per project
+    private long highestNumber(String projectId, String collection) {
+        Query query = Query.query(Criteria.where("projectId").is(projectId).and("key").exists(true));
+        query.fields().include("key").exclude("_id");
+        long highest = 0;
+        for (Document issue : mongoTemplate.find(query, Document.class, collection)) {
+            String key = issue.getString("key");
+            int dash = key == null ? -1 : key.lastIndexOf('-');
+            if (dash < 0) {
+                continue;
+            }
+            try {
+                highest = Math.max(highest, Long.parseLong(key.substring(dash + 1)));
+            } catch (NumberFormatException e) {
+                // not an allocated key
+            }
+        }
+        return highest;
+    }
+}
@@ -1,113 +1,241 @@
 package planup.backend.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import planup.backend.dto.BulkStatusUpdateResponse;
 import planup.backend.model.*;
 import planup.backend.repository.IssueRepository;
-import planup.backend.repository.CommentRepository;
 import planup.backend.repository.TimeLogRepository;
 import planup.backend.repository.AttachmentRepository;
 import planup.backend.repository.SubTaskRepository;
 import planup.backend.repository.IssueLinkRepository;
+import planup.backend.repository.ProjectRepository;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class IssueService {
     private final IssueRepository issueRepository;
-    private final CommentRepository commentRepository;
     private final TimeLogRepository timeLogRepository;
     private final AttachmentRepository attachmentRepository;
     private final SubTaskRepository subTaskRepository;
     private final IssueLinkRepository issueLinkRepository;
+    private final WorkflowService workflowService;
+    private final ApplicationEventPublisher events;
+    private final IssueArchive archive;
+    private final DeletionJobService deletions;
+    private final ProjectRepository projectRepository;
+    private final IssueKeyAllocator keyAllocator;
+    private final MongoTemplate mongoTemplate;
 
     public List<Issue> getAllIssues() {
-        return issueRepository.findAll();
+        return issueRepository.findByIsActiveTrue();
     }
 
     public Optional<Issue> getIssueById(String id) {
         return issueRepository.findById(id);
     }
 
+    // Falls back to the archive when asked to; archived issues are read-only
+    public Optional<Issue> getIssueById(String id, boolean includeArchived) {
+        Optional<Issue> issue = issueRepository.findById(id);
+        return issue.isPresent() || !includeArchived ? issue : Optional.ofNullable(archive.findIssue(id));
+    }
+
     public Optional<Issue> getIssueByKey(String key) {
         return issueRepository.findByKey(key);
     }
 
     public List<Issue> getIssuesByProject(String projectId) {
-        return issueRepository.findByProjectId(projectId);
+        return issueRepository.findByProjectIdAndIsActiveTrue(projectId);
+    }
+
+    public List<Issue> getIssuesByProject(String projectId, boolean includeArchived) {
+        return withArchived(getIssuesByProject(projectId), includeArchived, "projectId", projectId);
     }
 
     public List<Issue> getIssuesByAssignee(String assigneeId) {
-        return issueRepository.findByAssigneeId(assigneeId);
+        return issueRepository.findByAssigneeIdAndIsActiveTrue(assigneeId);
     }
 
     public List<Issue> getIssuesByStatus(String status) {
-        return issueRepository.findByStatus(status);
+        return issueRepository.findByStatusAndIsActiveTrue(status);
     }
 
     public List<Issue> getIssuesByPriority(String priority) {
-        return issueRepository.findByPriority(priority);
+        return issueRepository.findByPriorityAndIsActiveTrue(priority);
     }
 
     public List<Issue> getIssuesByType(String type) {
-        return issueRepository.findByType(type);
+        return issueRepository.findByTypeAndIsActiveTrue(type);
     }
 
     public List<Issue> getIssuesBySprint(String sprintId) {
-        return issueRepository.findBySprintId(sprintId);
+        return issueRepository.findBySprintIdAndIsActiveTrue(sprintId);
+    }
+
+    public List<Issue> getIssuesBySprint(String sprintId, boolean includeArchived) {
+        return withArchived(getIssuesBySprint(sprintId), includeArchived, "sprintId", sprintId);
     }
 
     public List<Issue> getIssuesByEpic(String epicId) {
-        return issueRepository.findByEpicId(epicId);
+        return issueRepository.findByEpicIdAndIsActiveTrue(epicId);
+    }
+
+    public List<Issue> getIssuesByEpic(String epicId, boolean includeArchived) {
+        return withArchived(getIssuesByEpic(epicId), includeArchived, "epicId", epicId);
+    }
+
+    private List<Issue> withArchived(List<Issue> hot, boolean includeArchived, String field, String value) {
+        if (!includeArchived) {
+            return hot;
+        }
+        List<Issue> all = new ArrayList<>(hot);
+        all.addAll(archive.findIssues(field, value));
+        return all;
     }
 
     public Issue createIssue(Issue issue) {
+        WorkflowStateMachine workflow = workflowService.stateMachineFor(issue);
+        if (issue.getStatus() == null) {
+            issue.setStatus(workflow.initialStatus());
+        } else if (!workflow.isKnown(issue.getStatus())) {
+            throw new InvalidTransitionException(null, issue.getStatus());
+        }
+        // a project with a key numbers its issues from its sequence, whatever key the client sent
+        String projectKey = issue.getProjectId() == null ? null
+                : projectRepository.findById(issue.getProjectId()).map(Project::getKey).orElse(null);
+        if (projectKey != null) {
+            issue.setKey(keyAllocator.allocate(issue.getProjectId(), projectKey, 1).get(0));
+        }
         issue.setCreated(new Date());
         issue.setUpdated(new Date());
         issue.setLoggedHours(0);
-        issue.setComments(List.of());
+        issue.setCommentCount(0);
         issue.setAttachments(List.of());
         issue.setTimeLogs(List.of());
         issue.setDecisionLog(List.of());
         issue.setSubTaskIds(List.of());
         issue.setLinkedIssueIds(List.of());
-        return issueRepository.save(issue);
-    }
-
-    public Issue updateIssue(String id, Issue issue) {
-        issue.setId(id);
-        issue.setUpdated(new Date());
-        return issueRepository.save(issue);
-    }
-
-    public void deleteIssue(String id) {
-        issueRepository.deleteById(id);
-    }
-
-    // Comment operations
-    public Comment addComment(String issueId, Comment comment) {
-        comment.setIssueId(issueId);
-        comment.setTimestamp(new Date());
-        comment.setEdited(false);
-        return commentRepository.save(comment);
-    }
-
-    public List<Comment> getCommentsByIssue(String issueId) {
-        return commentRepository.findByIssueId(issueId);
+        issue.setActive(true);
+        Issue saved = issueRepository.save(issue);
+        events.publishEvent(activity("issue_created", "Created " + label(saved), saved, saved.getReporterId()));
+        events.publishEvent(new IssueChangedEvent(saved, false));
+        return saved;
     }
 
-    public Comment updateComment(String commentId, Comment comment) {
-        comment.setId(commentId);
-        comment.setEditedAt(new Date());
-        comment.setEdited(true);
-        return commentRepository.save(comment);
+    // `existing` is the stored issue the caller already loaded, so validating the status change costs no read.
+    // Only the fields an IssueRequest carries are $set: comments not yet moved by CommentMigration, commentCount,
+    // deadlineNotifiedFor and the sub-task/link ids are maintained by their own targeted updates, which writing
+    // back this copy of the issue would undo.
+    public Issue updateIssue(Issue existing, Issue changes) {
+        // the archiver copies a claimed issue and then deletes it, so an edit now would be lost
+        if (!existing.isActive()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Issue is being archived");
+        }
+        String status = changes.getStatus();
+        if (status == null) {
+            status = existing.getStatus();
+        } else {
+            workflowService.checkTransition(existing, status);
+        }
+        Update update = new Update()
+                .set("title", changes.getTitle())
+                .set("description", changes.getDescription())
+                .set("priority", changes.getPriority())
+                .set("type", changes.getType())
+                .set("status", status)
+                .set("projectId", changes.getProjectId())
+                .set("assigneeId", changes.getAssigneeId())
+                .set("dueDate", changes.getDueDate())
+                .set("estimatedHours", changes.getEstimatedHours())
+                .set("storyPoints", changes.getStoryPoints())
+                .set("labels", changes.getLabels())
+                .set("components", changes.getComponents())
+                .set("updated", new Date());
+        Issue saved = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(existing.getId()).and("isActive").is(true)),
+                update, FindAndModifyOptions.options().returnNew(true), Issue.class);
+        if (saved == null) {
+            throw issueRepository.existsById(existing.getId())
+                    ? new ResponseStatusException(HttpStatus.CONFLICT, "Issue is being archived")
+                    : new ResponseStatusException(HttpStatus.NOT_FOUND, "Issue not found");
+        }
+        boolean moved = !Objects.equals(existing.getStatus(), saved.getStatus());
+        events.publishEvent(moved
+                ? activity("issue_moved", label(saved) + " moved to " + saved.getStatus(), saved, null)
+                : activity("issue_updated", "Updated " + label(saved), saved, null));
+        events.publishEvent(new IssueChangedEvent(saved, false));
+        return saved;
     }
 
-    public void deleteComment(String commentId) {
-        commentRepository.deleteById(commentId);
+    // Validates every issue against its compiled workflow, then writes one conditional updateMany per source
+    // status. Issues that are missing or may not make the move are reported back instead of failing the batch.
+    public BulkStatusUpdateResponse updateStatuses(List<String> issueIds, String status) {
+        Map<String, String> rejected = new LinkedHashMap<>();
+        Map<String, List<Issue>> bySourceStatus = new HashMap<>();
+        Set<String> found = new HashSet<>();
+        long unchanged = 0;
+        for (Issue issue : issueRepository.findStatusByIdIn(issueIds)) {
+            found.add(issue.getId());
+            if (!issue.isActive()) {
+                rejected.put(issue.getId(), "Issue is being archived");
+            } else if (status.equals(issue.getStatus())) {
+                unchanged++;
+            } else if (workflowService.stateMachineFor(issue).canTransition(issue.getStatus(), status)) {
+                bySourceStatus.computeIfAbsent(issue.getStatus(), k -> new ArrayList<>()).add(issue);
+            } else {
+                rejected.put(issue.getId(), new InvalidTransitionException(issue.getStatus(), status).getMessage());
+            }
+        }
+        for (String id : issueIds) {
+            if (!found.contains(id)) {
+                rejected.put(id, "Issue not found");
+            }
+        }
+        long updated = unchanged;
+        Date now = new Date();
+        List<String> moving = new ArrayList<>();
+        for (Map.Entry<String, List<Issue>> group : bySourceStatus.entrySet()) {
+            List<String> ids = group.getValue().stream().map(Issue::getId).toList();
+            updated += issueRepository.updateStatusByIdInAndStatus(ids, group.getKey(), status, now);
+            moving.addAll(ids);
+        }
+        if (!moving.isEmpty()) {
+            // read back in full, as updateIssue hands listeners the whole issue; an issue some other write
+            // got to first no longer carries this update's status and timestamp, and isn't reported as moved
+            for (Issue issue : issueRepository.findAllById(moving)) {
+                if (status.equals(issue.getStatus()) && now.equals(issue.getUpdated())) {
+                    events.publishEvent(activity("issue_moved", label(issue) + " moved to " + status, issue, null));
+                    events.publishEvent(new IssueChangedEvent(issue, false));
+                }
+            }
+        }
+        return new BulkStatusUpdateResponse(updated, rejected);
+    }
+
+    // `issue` is the stored issue the caller already loaded; listeners need its project. Its comments, time
+    // logs, attachments, sub-tasks and links are removed by a deletion job.
+    public void deleteIssue(Issue issue) {
+        deletions.delete(DeletionJob.ISSUE, issue.getId());
+        events.publishEvent(new IssueChangedEvent(issue, true));
     }
 
     // Time log operations
@@ -123,6 +251,15 @@ public class IssueService {
         return timeLogRepository.findByIssueId(issueId);
     }
 
+    public List<TimeLog> getTimeLogsByIssue(String issueId, boolean includeArchived) {
+        List<TimeLog> timeLogs = getTimeLogsByIssue(issueId);
+        if (!includeArchived || !timeLogs.isEmpty()) {
+            return timeLogs;
+        }
+        // an issue is archived with all of its time logs, so hot and archived ones never mix
+        return archive.findTimeLogs(issueId);
+    }
+
     public TimeLog updateTimeLog(String timeLogId, TimeLog timeLog) {
         timeLog.setId(timeLogId);
         timeLog.setUpdatedAt(new Date());
@@ -140,11 +277,8 @@ public class IssueService {
         subTask.setUpdatedAt(new Date());
         subTask.setActive(true);
         SubTask saved = subTaskRepository.save(subTask);
-        issueRepository.findById(issueId).ifPresent(i -> {
-            i.getSubTaskIds().add(saved.getId());
-            i.setUpdated(new Date());
-            issueRepository.save(i);
-        });
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(issueId)),
+                new Update().push("subTaskIds", saved.getId()).set("updated", new Date()), Issue.class);
         return saved;
     }
 
@@ -152,6 +286,11 @@ public class IssueService {
         return subTaskRepository.findByParentIssueId(issueId);
     }
 
+    public List<SubTask> getSubTasksByIssue(String issueId, boolean includeArchived) {
+        List<SubTask> subTasks = getSubTasksByIssue(issueId);
+        return !includeArchived || !subTasks.isEmpty() ? subTasks : archive.findSubTasks(issueId);
+    }
+
     public SubTask updateSubTask(String subTaskId, SubTask subTask) {
         subTask.setId(subTaskId);
         subTask.setUpdatedAt(new Date());
@@ -167,10 +306,8 @@ public class IssueService {
         link.setSourceIssueId(sourceIssueId);
         link.setCreatedAt(new Date());
         IssueLink saved = issueLinkRepository.save(link);
-        issueRepository.findById(sourceIssueId).ifPresent(i -> {
-            i.getLinkedIssueIds().add(saved.getId());
-            issueRepository.save(i);
-        });
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(sourceIssueId)),
+                new Update().push("linkedIssueIds", saved.getId()), Issue.class);
         return saved;
     }
 
@@ -193,20 +330,33 @@ public class IssueService {
         return attachmentRepository.findByIssueId(issueId);
     }
 
-    public void deleteAttachment(String attachmentId) {
-        attachmentRepository.deleteById(attachmentId);
-    }
-
     // Search operations
     public List<Issue> searchIssues(String query) {
         // This would implement a more sophisticated search
-        // For now, return all issues
-        return issueRepository.findAll();
+        // For now, return all active issues
+        return issueRepository.findByIsActiveTrue();
     }
 
     public List<Issue> getIssuesByLabels(List<String> labels) {
         // This would implement label-based filtering
-        // For now, return all issues
-        return issueRepository.findAll();
+        // For now, return all active issues
+        return issueRepository.findByIsActiveTrue();
+    }
+
+    private static Activity activity(String type, String title, Issue issue, String userId) {
+        return Activity.builder()
+                .type(type)
+                .title(title)
+                .description(issue.getTitle())
+                .userId(userId)
+                .projectId(issue.getProjectId())
+                .issueId(issue.getId())
+                .sprintId(issue.getSprintId())
+                .timestamp(new Date())
+                .build();
+    }
+
+    private static String label(Issue issue) {
+        return issue.getKey() != null ? issue.getKey() : issue.getTitle();
     }
-} 
\ No newline at end of file
+}
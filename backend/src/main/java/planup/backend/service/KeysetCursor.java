@@ -0,0 +1,35 @@
+package planup.backend.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+// Position in a newest-first list ordered by (timestamp, id), both descending. Opaque to clients: base64url of
+// "<timestamp millis>:<id>" of the last item on a page. Ids are ObjectId hex strings, whose string order
+// matches Mongo's ObjectId order, so items sharing a millisecond are neither skipped nor repeated.
+record KeysetCursor(Date timestamp, String id) {
+
+    // True when an item at (timestamp, id) comes after this cursor, i.e. belongs on a later page
+    boolean precedes(Date itemTimestamp, String itemId) {
+        int byTime = itemTimestamp.compareTo(timestamp);
+        return byTime < 0 || byTime == 0 && itemId.compareTo(id) < 0;
+    }
+
+    String encode() {
+        String raw = timestamp.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int colon = raw.indexOf(':');
+            return new KeysetCursor(new Date(Long.parseLong(raw.substring(0, colon))), raw.substring(colon + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
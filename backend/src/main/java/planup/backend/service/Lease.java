@@ -0,0 +1,57 @@
+package planup.backend.service;
+
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.UUID;
+
+// A named lease in the `leases` collection, held by at most one instance at a time. Acquiring and renewing
+// are the same conditional upsert: it matches when the lease is free, expired or already ours; when another
+// instance holds it the upsert collides on _id and we stay a follower. Holders renew well inside the TTL.
+public final class Lease {
+    private static final String COLLECTION = "leases";
+
+    private final MongoTemplate mongoTemplate;
+    private final String name;
+    private final long ttlMs;
+    private final String owner = UUID.randomUUID().toString();
+    private long heldUntil;
+
+    public Lease(MongoTemplate mongoTemplate, String name, long ttlMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.name = name;
+        this.ttlMs = ttlMs;
+    }
+
+    // True while this instance holds the lease; acquires or renews it as needed
+    public boolean tryAcquire() {
+        long now = System.currentTimeMillis();
+        Query free = Query.query(Criteria.where("_id").is(name).orOperator(
+                Criteria.where("owner").is(owner), Criteria.where("expiresAt").lt(new Date(now))));
+        Update claim = new Update().set("owner", owner).set("expiresAt", new Date(now + ttlMs));
+        try {
+            UpdateResult result = mongoTemplate.upsert(free, claim, COLLECTION);
+            heldUntil = result.getMatchedCount() > 0 || result.getUpsertedId() != null ? now + ttlMs : 0;
+        } catch (DuplicateKeyException e) {
+            heldUntil = 0;
+        }
+        return heldUntil > 0;
+    }
+
+    // Local view only; the holder stops acting once its last renewal would have expired
+    public boolean isHeld() {
+        return System.currentTimeMillis() < heldUntil;
+    }
+
+    public void release() {
+        if (heldUntil > 0) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(name).and("owner").is(owner)), COLLECTION);
+            heldUntil = 0;
+        }
+    }
+}
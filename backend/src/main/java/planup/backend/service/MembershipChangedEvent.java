@@ -0,0 +1,7 @@
+package planup.backend.service;
+
+import java.util.Collection;
+
+// Published after a user's memberships change; organizationIds are the organizations whose member lists changed
+public record MembershipChangedEvent(String userId, Collection<String> organizationIds) {
+}
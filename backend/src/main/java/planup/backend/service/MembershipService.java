@@ -0,0 +1,210 @@
+package planup.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import planup.backend.model.Membership;
+import planup.backend.model.User;
+import planup.backend.repository.MembershipRepository;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Organization and project membership kept as one edge document per (scope, user), indexed from both ends,
+// so member lists and "my orgs" are index lookups whatever the size of the organization. The edge is written
+// first and User.organizationIds/projectIds follow with $addToSet/$pull; Organization.memberIds is no longer
+// maintained. A user's scopes are cached for membership checks, invalidated on change and bounded by a TTL
+// for changes made by other instances.
+@Service
+public class MembershipService {
+    private static final int MAX_PAGE = 1000;
+
+    private final MembershipRepository membershipRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher events;
+    private final long cacheTtlMs;
+    private final int cacheMaxUsers;
+    private final Map<String, Scopes> cache = new ConcurrentHashMap<>();
+
+    public MembershipService(MembershipRepository membershipRepository, MongoTemplate mongoTemplate,
+                             ApplicationEventPublisher events,
+                             @Value("${planup.memberships.cache-ttl-ms:60000}") long cacheTtlMs,
+                             @Value("${planup.memberships.cache-max-users:10000}") int cacheMaxUsers) {
+        this.membershipRepository = membershipRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.events = events;
+        this.cacheTtlMs = cacheTtlMs;
+        this.cacheMaxUsers = cacheMaxUsers;
+    }
+
+    // Adds the membership, or changes its role when it exists
+    public Membership join(String scopeType, String scopeId, String userId, String role) {
+        String array = userArray(scopeType);
+        Query edge = edgeQuery(scopeType, scopeId, userId);
+        Update update = new Update().set("role", role).setOnInsert("createdAt", new Date());
+        mongoTemplate.upsert(edge, update, Membership.class);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(userId)),
+                new Update().addToSet(array, scopeId), User.class);
+        changed(userId, scopeType, scopeId);
+        return mongoTemplate.findOne(edge, Membership.class);
+    }
+
+    public boolean leave(String scopeType, String scopeId, String userId) {
+        String array = userArray(scopeType);
+        boolean removed = membershipRepository.deleteByScopeTypeAndScopeIdAndUserId(scopeType, scopeId, userId) > 0;
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(userId)),
+                new Update().pull(array, scopeId), User.class);
+        changed(userId, scopeType, scopeId);
+        return removed;
+    }
+
+    // Brings the edges in line with the organizationIds/projectIds of a user create/update: missing edges are
+    // added without a role, extra ones removed. Only the lists the request sent are synced; a null list leaves
+    // that kind of edge alone, since the edges, not the user document, are the source of truth.
+    public void syncFromUser(User user) {
+        boolean organizations = user.getOrganizationIds() != null;
+        boolean projects = user.getProjectIds() != null;
+        if (!organizations && !projects) {
+            return;
+        }
+        Map<String, String[]> desired = new HashMap<>();
+        for (String organizationId : organizations ? user.getOrganizationIds() : List.<String>of()) {
+            desired.put(key(Membership.ORGANIZATION, organizationId), new String[]{Membership.ORGANIZATION, organizationId});
+        }
+        for (String projectId : projects ? user.getProjectIds() : List.<String>of()) {
+            desired.put(key(Membership.PROJECT, projectId), new String[]{Membership.PROJECT, projectId});
+        }
+        List<String> organizationsChanged = new ArrayList<>();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Membership.class);
+        int operations = 0;
+        for (Membership existing : membershipRepository.findScopesByUserId(user.getId())) {
+            boolean synced = Membership.ORGANIZATION.equals(existing.getScopeType()) ? organizations : projects;
+            if (desired.remove(key(existing.getScopeType(), existing.getScopeId())) == null && synced) {
+                bulk.remove(edgeQuery(existing.getScopeType(), existing.getScopeId(), user.getId()));
+                operations++;
+                if (Membership.ORGANIZATION.equals(existing.getScopeType())) {
+                    organizationsChanged.add(existing.getScopeId());
+                }
+            }
+        }
+        for (String[] scope : desired.values()) {
+            bulk.upsert(edgeQuery(scope[0], scope[1], user.getId()), new Update().setOnInsert("createdAt", new Date()));
+            operations++;
+            if (Membership.ORGANIZATION.equals(scope[0])) {
+                organizationsChanged.add(scope[1]);
+            }
+        }
+        if (operations > 0) {
+            bulk.execute();
+            cache.remove(user.getId());
+            events.publishEvent(new MembershipChangedEvent(user.getId(), organizationsChanged));
+        }
+    }
+
+    // The user's own document is being deleted, so only the edges need removing
+    public void removeUser(String userId) {
+        List<String> organizationIds = organizationIds(userId);
+        membershipRepository.deleteByUserId(userId);
+        cache.remove(userId);
+        events.publishEvent(new MembershipChangedEvent(userId, organizationIds));
+    }
+
+    // Members ordered by user id; pass the last userId of a page as `after` for the next one
+    public List<Membership> getMembers(String scopeType, String scopeId, String after, int limit) {
+        Criteria criteria = Criteria.where("scopeType").is(scopeType).and("scopeId").is(scopeId);
+        if (after != null) {
+            criteria = criteria.and("userId").gt(after);
+        }
+        Query query = Query.query(criteria).with(Sort.by("userId")).limit(Math.min(Math.max(limit, 1), MAX_PAGE));
+        return mongoTemplate.find(query, Membership.class);
+    }
+
+    public List<String> getMemberIds(String scopeType, String scopeId) {
+        Query query = Query.query(Criteria.where("scopeType").is(scopeType).and("scopeId").is(scopeId));
+        query.fields().include("userId").exclude("_id");
+        List<String> userIds = new ArrayList<>();
+        for (Membership membership : mongoTemplate.find(query, Membership.class)) {
+            userIds.add(membership.getUserId());
+        }
+        return userIds;
+    }
+
+    public List<Membership> getMemberships(String userId) {
+        return membershipRepository.findScopesByUserId(userId);
+    }
+
+    public boolean isMember(String userId, String scopeType, String scopeId) {
+        return scopes(userId).roles().containsKey(key(scopeType, scopeId));
+    }
+
+    // Role on the edge, "" for a member without one, null for a non-member
+    public String roleIn(String userId, String scopeType, String scopeId) {
+        return scopes(userId).roles().get(key(scopeType, scopeId));
+    }
+
+    public List<String> organizationIds(String userId) {
+        return scopes(userId).organizationIds();
+    }
+
+    private Scopes scopes(String userId) {
+        long now = System.currentTimeMillis();
+        Scopes scopes = cache.get(userId);
+        if (scopes != null && now - scopes.loadedAt() < cacheTtlMs) {
+            return scopes;
+        }
+        if (cache.size() >= cacheMaxUsers) {
+            cache.clear();
+        }
+        Map<String, String> roles = new HashMap<>();
+        List<String> organizationIds = new ArrayList<>();
+        for (Membership membership : membershipRepository.findScopesByUserId(userId)) {
+            roles.put(key(membership.getScopeType(), membership.getScopeId()),
+                    membership.getRole() == null ? "" : membership.getRole());
+            if (Membership.ORGANIZATION.equals(membership.getScopeType())) {
+                organizationIds.add(membership.getScopeId());
+            }
+        }
+        scopes = new Scopes(Map.copyOf(roles), List.copyOf(organizationIds), now);
+        cache.put(userId, scopes);
+        return scopes;
+    }
+
+    private void changed(String userId, String scopeType, String scopeId) {
+        cache.remove(userId);
+        events.publishEvent(new MembershipChangedEvent(userId,
+                Membership.ORGANIZATION.equals(scopeType) ? List.of(scopeId) : List.of()));
+    }
+
+    private static Query edgeQuery(String scopeType, String scopeId, String userId) {
+        return Query.query(Criteria.where("scopeType").is(scopeType).and("scopeId").is(scopeId).and("userId").is(userId));
+    }
+
+    private static String userArray(String scopeType) {
+        if (Membership.ORGANIZATION.equals(scopeType)) {
+            return "organizationIds";
+        }
+        if (Membership.PROJECT.equals(scopeType)) {
+            return "projectIds";
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown membership scope: " + scopeType);
+    }
+
+    private static String key(String scopeType, String scopeId) {
+        return scopeType + ":" + scopeId;
+    }
+
+    private record Scopes(Map<String, String> roles, List<String> organizationIds, long loadedAt) {
+    }
+}
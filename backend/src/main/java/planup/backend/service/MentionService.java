@@ -0,0 +1,193 @@
+package planup.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import planup.backend.model.Comment;
+import planup.backend.model.Issue;
+import planup.backend.model.Membership;
+import planup.backend.model.Notification;
+import planup.backend.model.Project;
+import planup.backend.model.User;
+import planup.backend.repository.NotificationRepository;
+import planup.backend.repository.ProjectRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+// Turns @mentions in comments into "mention" notifications. Parsing, resolution and the single batched
+// insert all run on the blocking executor, so posting a comment costs the same however many people it
+// mentions. Handles are a user's email, its local part, and their full name joined with or without dots
+// (@ana.lopez, @analopez), resolved through one MentionTrie per organization built from its members, so a
+// comment only ever reaches people in the organization that owns the issue's project. A trie is rebuilt
+// lazily after its member list or a member's handles change, and at least every refresh interval.
+@Slf4j
+@Service
+public class MentionService {
+    private static final int SNIPPET_LENGTH = 140;
+
+    private final MongoTemplate mongoTemplate;
+    private final NotificationRepository notificationRepository;
+    private final ProjectRepository projectRepository;
+    private final MembershipService membershipService;
+    private final ExecutorService executor;
+    private final long refreshMs;
+
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+
+    public MentionService(MongoTemplate mongoTemplate, NotificationRepository notificationRepository,
+                          ProjectRepository projectRepository, MembershipService membershipService,
+                          @Qualifier("blockingExecutor") ExecutorService executor,
+                          @Value("${planup.mentions.refresh-ms:300000}") long refreshMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.notificationRepository = notificationRepository;
+        this.projectRepository = projectRepository;
+        this.membershipService = membershipService;
+        this.executor = executor;
+        this.refreshMs = refreshMs;
+    }
+
+    // Called when a member's email or name changes; the next comment in those organizations rebuilds
+    public void invalidate(Collection<String> organizationIds) {
+        for (String organizationId : organizationIds) {
+            Slot slot = slots.get(organizationId);
+            if (slot != null) {
+                slot.stale = true;
+            }
+        }
+    }
+
+    @EventListener
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        invalidate(event.organizationIds());
+    }
+
+    public void onCommentAdded(Comment comment) {
+        executor.execute(() -> notifySafely(comment, null));
+    }
+
+    // Only people newly mentioned by the edit are notified
+    public void onCommentEdited(Comment comment, String previousContent) {
+        executor.execute(() -> notifySafely(comment, previousContent));
+    }
+
+    private void notifySafely(Comment comment, String previousContent) {
+        try {
+            notifyMentioned(comment, previousContent);
+        } catch (Exception e) {
+            log.warn("Mention notifications failed for comment {}: {}", comment.getId(), e.getMessage());
+        }
+    }
+
+    void notifyMentioned(Comment comment, String previousContent) {
+        if (comment.getContent() == null || comment.getContent().indexOf('@') < 0) {
+            return;
+        }
+        Query issueQuery = Query.query(Criteria.where("id").is(comment.getIssueId()));
+        issueQuery.fields().include("key").include("projectId");
+        Issue issue = mongoTemplate.findOne(issueQuery, Issue.class);
+        String organizationId = issue == null || issue.getProjectId() == null ? null
+                : projectRepository.findById(issue.getProjectId()).map(Project::getOrganizationId).orElse(null);
+        if (organizationId == null) {
+            return;
+        }
+        Snapshot current = slots.computeIfAbsent(organizationId, k -> new Slot()).current(organizationId);
+        Set<String> mentioned = current.trie().resolve(comment.getContent());
+        if (previousContent != null) {
+            mentioned.removeAll(current.trie().resolve(previousContent));
+        }
+        mentioned.remove(comment.getAuthorId());
+        if (mentioned.isEmpty()) {
+            return;
+        }
+        String author = current.names().getOrDefault(comment.getAuthorId(), "Someone");
+        String title = author + " mentioned you" + (issue.getKey() != null ? " on " + issue.getKey() : "");
+        String message = snippet(comment.getContent());
+        Date now = new Date();
+        List<Notification> notifications = new ArrayList<>(mentioned.size());
+        for (String userId : mentioned) {
+            notifications.add(Notification.builder()
+                    .type("mention")
+                    .title(title)
+                    .message(message)
+                    .userId(userId)
+                    .issueId(comment.getIssueId())
+                    .projectId(issue.getProjectId())
+                    .createdAt(now)
+                    .isRead(false)
+                    .isActive(true)
+                    .build());
+        }
+        notificationRepository.insert(notifications);
+    }
+
+    private Snapshot load(String organizationId) {
+        Query query = Query.query(Criteria.where("id").in(membershipService.getMemberIds(Membership.ORGANIZATION, organizationId)));
+        query.fields().include("email").include("fullName");
+        List<Map.Entry<String, String>> handles = new ArrayList<>();
+        Map<String, String> names = new HashMap<>();
+        for (User user : mongoTemplate.find(query, User.class)) {
+            String id = user.getId();
+            String email = user.getEmail();
+            String fullName = user.getFullName();
+            if (email != null && !email.isBlank()) {
+                handles.add(Map.entry(email, id));
+                int at = email.indexOf('@');
+                if (at > 0) {
+                    handles.add(Map.entry(email.substring(0, at), id));
+                }
+            }
+            if (fullName != null && !fullName.isBlank()) {
+                String[] parts = fullName.trim().split("\\s+");
+                handles.add(Map.entry(String.join(".", parts), id));
+                handles.add(Map.entry(String.join("", parts), id));
+                names.put(id, fullName.trim());
+            }
+        }
+        return new Snapshot(MentionTrie.build(handles), names);
+    }
+
+    private static String snippet(String content) {
+        if (content == null) {
+            return "";
+        }
+        return content.length() <= SNIPPET_LENGTH ? content : content.substring(0, SNIPPET_LENGTH - 1) + "…";
+    }
+
+    private record Snapshot(MentionTrie trie, Map<String, String> names) {
+    }
+
+    private final class Slot {
+        private volatile Snapshot snapshot;
+        private volatile long builtAt;
+        private volatile boolean stale = true;
+
+        Snapshot current(String organizationId) {
+            Snapshot s = snapshot;
+            if (s == null || stale || System.currentTimeMillis() - builtAt > refreshMs) {
+                synchronized (this) {
+                    s = snapshot;
+                    if (s == null || stale || System.currentTimeMillis() - builtAt > refreshMs) {
+                        stale = false;
+                        s = load(organizationId);
+                        snapshot = s;
+                        builtAt = System.currentTimeMillis();
+                    }
+                }
+            }
+            return s;
+        }
+    }
+}
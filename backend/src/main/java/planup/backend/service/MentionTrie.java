@@ -0,0 +1,117 @@
+package planup.backend.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Immutable, case-insensitive trie from mention handles to user ids. Children are kept in sorted parallel
+// arrays and looked up by binary search, which keeps nodes small for an org-sized user list. A handle
+// claimed by more than one user is ambiguous and resolves to nobody.
+public final class MentionTrie {
+    private static final String AMBIGUOUS = "";
+
+    private final Node root;
+
+    private MentionTrie(Node root) {
+        this.root = root;
+    }
+
+    // handles -> user id; the same handle mapped by several entries becomes ambiguous
+    public static MentionTrie build(Collection<Map.Entry<String, String>> handles) {
+        Node root = new Node();
+        for (Map.Entry<String, String> entry : handles) {
+            String handle = entry.getKey().toLowerCase();
+            if (handle.isEmpty()) {
+                continue;
+            }
+            Node node = root;
+            for (int i = 0; i < handle.length(); i++) {
+                node = node.childOrCreate(handle.charAt(i));
+            }
+            node.userId = node.userId == null || node.userId.equals(entry.getValue()) ? entry.getValue() : AMBIGUOUS;
+        }
+        return new MentionTrie(root);
+    }
+
+    // User ids of every @handle in the text, in order of first mention. The longest handle wins, so with both
+    // "@ana" and "@ana.lopez" known, "@ana.lopez" never mentions "ana".
+    public Set<String> resolve(String text) {
+        Set<String> userIds = new LinkedHashSet<>();
+        if (text == null) {
+            return userIds;
+        }
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) != '@' || (i > 0 && isWordChar(text.charAt(i - 1)))) {
+                continue;
+            }
+            Node node = root;
+            String match = null;
+            int end = i;
+            for (int j = i + 1; j < length && node != null; j++) {
+                node = node.child(Character.toLowerCase(text.charAt(j)));
+                if (node != null && node.userId != null && endsHandle(text, j + 1)) {
+                    match = node.userId;
+                    end = j;
+                }
+            }
+            if (match != null && !match.equals(AMBIGUOUS)) {
+                userIds.add(match);
+            }
+            i = end;
+        }
+        return userIds;
+    }
+
+    // "@ana." and "@ana," end at the punctuation, "@ana.lopez" and "@ana_b" don't end after "ana"
+    private static boolean endsHandle(String text, int next) {
+        if (next >= text.length()) {
+            return true;
+        }
+        char c = text.charAt(next);
+        if (isWordChar(c)) {
+            return false;
+        }
+        if (c == '.' || c == '-' || c == '@' || c == '+') {
+            return next + 1 >= text.length() || !isWordChar(text.charAt(next + 1));
+        }
+        return true;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private String userId;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            Node created = new Node();
+            newKeys[at] = c;
+            newChildren[at] = created;
+            keys = newKeys;
+            children = newChildren;
+            return created;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package planup.backend.service;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// MinHash signatures over character 4-gram shingles of normalized text (lower case, punctuation and runs of
+// whitespace collapsed to one space). Two signatures agree in a position with probability equal to the
+// Jaccard similarity of the shingle sets, so comparing signatures estimates it without the text.
+public final class MinHash {
+    public static final int SIZE = 64;
+    private static final int SHINGLE = 4;
+    private static final long[] SEEDS = new SplittableRandom(0x5EEDL).longs(SIZE).toArray();
+
+    private MinHash() {
+    }
+
+    public static int[] signature(String text) {
+        String normalized = normalize(text);
+        int[] signature = new int[SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        if (normalized.isEmpty()) {
+            return signature;
+        }
+        int shingles = Math.max(1, normalized.length() - SHINGLE + 1);
+        for (int i = 0; i < shingles; i++) {
+            long base = shingleHash(normalized, i, Math.min(normalized.length(), i + SHINGLE));
+            for (int h = 0; h < SIZE; h++) {
+                int value = (int) (mix(base ^ SEEDS[h]) >>> 33);
+                if (value < signature[h]) {
+                    signature[h] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    // False for empty text and text without letters or digits, whose signatures are all the same
+    public static boolean hasShingles(String text) {
+        return !normalize(text).isEmpty();
+    }
+
+    public static double similarity(int[] a, int[] b) {
+        int same = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (a[i] == b[i]) {
+                same++;
+            }
+        }
+        return (double) same / SIZE;
+    }
+
+    private static long shingleHash(String text, int from, int to) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            hash = (hash ^ text.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // splitmix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(text.length());
+        boolean space = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                out.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                out.append(' ');
+                space = true;
+            }
+        }
+        int length = out.length();
+        if (length > 0 && out.charAt(length - 1) == ' ') {
+            out.setLength(length - 1);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,250 @@
+package planup.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import planup.backend.model.Membership;
+import planup.backend.model.Role;
+import planup.backend.model.User;
+import planup.backend.repository.RoleRepository;
+import planup.backend.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Answers can(user, project, permission) from precompiled bitsets. Permission strings are interned to bit
+// positions (the ten built-in ones first, custom ones appended as they are seen); a user's effective set in a
+// project is their role's bits OR their directly granted permissions. The role is the one on their project
+// membership, else User.role, and is looked up as a project role, else an organization role, else the
+// built-in role of that name. Compiled sets are cached per (user, project) and per role scope, so a warm
+// check is two map lookups and a bit test with no allocation. Sets are compiled outside the maps and only kept
+// if no invalidation happened meanwhile, so a compile racing a change can't leave a stale set behind.
+@Service
+public class PermissionService {
+    public static final List<String> BUILT_IN = List.of("manage-project", "manage-users", "manage-roles",
+            "create-issues", "edit-issues", "delete-issues", "manage-sprints", "view-reports",
+            "manage-templates", "bulk-operations");
+    // Defaults matching the app's pre-defined roles, used when no Role document overrides them
+    private static final Map<String, List<String>> DEFAULT_ROLES = Map.of(
+            "admin", BUILT_IN,
+            "developer", List.of("create-issues", "edit-issues", "view-reports", "manage-sprints"),
+            "reporter", List.of("create-issues", "view-reports"),
+            "viewer", List.of("view-reports"));
+    private static final long[] NONE = new long[0];
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final MembershipService membershipService;
+    private final int maxUsers;
+
+    private final Map<String, Integer> bits = new ConcurrentHashMap<>();
+    private final List<String> names = new ArrayList<>();
+    // userId -> projectId -> effective bitset
+    private final Map<String, Map<String, long[]>> effective = new ConcurrentHashMap<>();
+    // "p:<projectId>" / "o:<organizationId>" -> lower-cased role id and name -> bitset
+    private final Map<String, Map<String, long[]>> roleScopes = new ConcurrentHashMap<>();
+    // bumped before every invalidation; a set compiled across a bump is dropped again after publishing
+    private final AtomicLong generation = new AtomicLong();
+
+    public PermissionService(UserRepository userRepository, RoleRepository roleRepository,
+                             MembershipService membershipService,
+                             @Value("${planup.permissions.cache-max-users:10000}") int maxUsers) {
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.membershipService = membershipService;
+        this.maxUsers = maxUsers;
+        BUILT_IN.forEach(this::bit);
+    }
+
+    public boolean can(String userId, String projectId, String permission) {
+        Integer bit = bits.get(permission);
+        if (bit == null || userId == null || projectId == null) {
+            return false;
+        }
+        long[] set = effective(userId, projectId);
+        int word = bit >>> 6;
+        return word < set.length && (set[word] & (1L << bit)) != 0;
+    }
+
+    public List<String> permissions(String userId, String projectId) {
+        long[] set = effective(userId, projectId);
+        List<String> granted = new ArrayList<>();
+        synchronized (names) {
+            for (int i = 0; i < names.size(); i++) {
+                if ((i >>> 6) < set.length && (set[i >>> 6] & (1L << i)) != 0) {
+                    granted.add(names.get(i));
+                }
+            }
+        }
+        return granted;
+    }
+
+    // The user's role, direct permissions or memberships changed
+    public void invalidateUser(String userId) {
+        generation.incrementAndGet();
+        effective.remove(userId);
+    }
+
+    @EventListener
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        invalidateUser(event.userId());
+    }
+
+    // Any role definition changed; roles are few and rarely edited, so everything is recompiled lazily
+    public void invalidateRoles() {
+        generation.incrementAndGet();
+        roleScopes.clear();
+        effective.clear();
+    }
+
+    private long[] effective(String userId, String projectId) {
+        Map<String, long[]> projects = effective.get(userId);
+        long[] set = projects == null ? null : projects.get(projectId);
+        if (set != null) {
+            return set;
+        }
+        if (projects == null) {
+            evictIfFull();
+            projects = effective.computeIfAbsent(userId, k -> new ConcurrentHashMap<>());
+        }
+        // compiled outside the map so the Mongo reads don't hold a bin lock
+        long seen = generation.get();
+        set = compile(userId, projectId);
+        long[] cached = publish(projects, projectId, set, seen);
+        return cached == null ? set : cached;
+    }
+
+    // Caches value unless another thread got there first (whose value is returned). An invalidation bumps the
+    // generation before removing, so either it removes what was put here or the re-check below sees the bump.
+    private <T> T publish(Map<String, T> map, String key, T value, long seen) {
+        T existing = map.putIfAbsent(key, value);
+        if (existing != null) {
+            return existing;
+        }
+        if (generation.get() != seen) {
+            map.remove(key, value);
+        }
+        return null;
+    }
+
+    private long[] compile(String userId, String projectId) {
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null) {
+            return NONE;
+        }
+        String role = user.getRole() == null ? null : user.getRole().toLowerCase(Locale.ROOT);
+        boolean admin = "admin".equals(role) || "administrator".equals(role);
+        String projectRole = membershipService.roleIn(userId, Membership.PROJECT, projectId);
+        if (!admin && projectRole == null) {
+            return NONE;
+        }
+        if (!admin && !projectRole.isEmpty()) {
+            role = projectRole.toLowerCase(Locale.ROOT);
+        }
+        long[] set = role == null ? NONE : roleBits(role, projectId, membershipService.organizationIds(userId));
+        return or(set, encode(user.getPermissions()));
+    }
+
+    private long[] roleBits(String role, String projectId, List<String> organizationIds) {
+        long[] bitsForRole = scope("p:" + projectId, () -> roleRepository.findByProjectId(projectId)).get(role);
+        if (bitsForRole != null) {
+            return bitsForRole;
+        }
+        if (organizationIds != null) {
+            for (String organizationId : organizationIds) {
+                bitsForRole = scope("o:" + organizationId, () -> roleRepository.findByOrganizationId(organizationId)).get(role);
+                if (bitsForRole != null) {
+                    return bitsForRole;
+                }
+            }
+        }
+        List<String> defaults = DEFAULT_ROLES.get("administrator".equals(role) ? "admin" : role);
+        return defaults == null ? NONE : encode(defaults);
+    }
+
+    private Map<String, long[]> scope(String key, Supplier<List<Role>> loader) {
+        Map<String, long[]> scope = roleScopes.get(key);
+        if (scope != null) {
+            return scope;
+        }
+        long seen = generation.get();
+        Map<String, long[]> compiled = new HashMap<>();
+        for (Role role : loader.get()) {
+            long[] set = encode(role.getPermissions());
+            if (role.getName() != null) {
+                compiled.put(role.getName().toLowerCase(Locale.ROOT), set);
+            }
+            if (role.getId() != null) {
+                compiled.put(role.getId().toLowerCase(Locale.ROOT), set);
+            }
+        }
+        scope = Map.copyOf(compiled);
+        Map<String, long[]> cached = publish(roleScopes, key, scope, seen);
+        return cached == null ? scope : cached;
+    }
+
+    private long[] encode(Collection<String> permissions) {
+        if (permissions == null || permissions.isEmpty()) {
+            return NONE;
+        }
+        long[] set = NONE;
+        for (String permission : permissions) {
+            int bit = bit(permission);
+            int word = bit >>> 6;
+            if (word >= set.length) {
+                long[] grown = new long[word + 1];
+                System.arraycopy(set, 0, grown, 0, set.length);
+                set = grown;
+            }
+            set[word] |= 1L << bit;
+        }
+        return set;
+    }
+
+    private int bit(String permission) {
+        Integer bit = bits.get(permission);
+        if (bit != null) {
+            return bit;
+        }
+        synchronized (names) {
+            return bits.computeIfAbsent(permission, p -> {
+                names.add(p);
+                return names.size() - 1;
+            });
+        }
+    }
+
+    private static long[] or(long[] a, long[] b) {
+        if (b.length == 0) {
+            return a;
+        }
+        if (a.length == 0) {
+            return b;
+        }
+        long[] result = new long[Math.max(a.length, b.length)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (i < a.length ? a[i] : 0) | (i < b.length ? b[i] : 0);
+        }
+        return result;
+    }
+
+    // Bounded by user count; dropping an arbitrary tenth keeps eviction O(1) amortized without an LRU list
+    private void evictIfFull() {
+        if (effective.size() < maxUsers) {
+            return;
+        }
+        Iterator<String> it = effective.keySet().iterator();
+        for (int i = maxUsers / 10 + 1; i > 0 && it.hasNext(); i--) {
+            it.next();
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package planup.backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+// Immutable typeahead index. Every entry contributes a few lower-cased terms (the whole label, each word
+// of it, and the detail such as an email or project key); the terms live in one sorted array with a
+// parallel array of owning entries, so a query is a binary search to the first term with the prefix and a
+// scan of the contiguous run after it. The scan is capped, which keeps one-letter queries in a huge org
+// bounded; ranking prefers the start of the label and the closest-length term.
+public final class PrefixIndex {
+    private static final int SCAN_LIMIT = 4096;
+    private static final int LATER_WORD_PENALTY = 1000;
+
+    public record Entry(String id, String label, String detail) {
+    }
+
+    private final Entry[] entries;
+    private final String[] terms;
+    private final int[] owners;
+    private final int[] penalties;
+
+    private PrefixIndex(Entry[] entries, String[] terms, int[] owners, int[] penalties) {
+        this.entries = entries;
+        this.terms = terms;
+        this.owners = owners;
+        this.penalties = penalties;
+    }
+
+    public static PrefixIndex build(List<Entry> source) {
+        Entry[] entries = source.toArray(new Entry[0]);
+        List<Term> collected = new ArrayList<>(entries.length * 3);
+        for (int i = 0; i < entries.length; i++) {
+            String label = normalize(entries[i].label());
+            if (!label.isEmpty()) {
+                collected.add(new Term(label, i, 0));
+                String[] words = label.split(" ");
+                for (int w = 1; w < words.length; w++) {
+                    collected.add(new Term(words[w], i, LATER_WORD_PENALTY));
+                }
+            }
+            String detail = normalize(entries[i].detail());
+            if (!detail.isEmpty()) {
+                collected.add(new Term(detail, i, 0));
+            }
+        }
+        collected.sort(Comparator.comparing(Term::text));
+        String[] terms = new String[collected.size()];
+        int[] owners = new int[terms.length];
+        int[] penalties = new int[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            Term term = collected.get(i);
+            terms[i] = term.text();
+            owners[i] = term.owner();
+            penalties[i] = term.penalty();
+        }
+        return new PrefixIndex(entries, terms, owners, penalties);
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    // Best `limit` entries having a term that starts with the query, best first
+    public List<Entry> search(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int[] top = new int[limit];
+        int[] topScores = new int[limit];
+        int found = 0;
+        int start = lowerBound(prefix);
+        int end = Math.min(terms.length, start + SCAN_LIMIT);
+        for (int i = start; i < end && terms[i].startsWith(prefix); i++) {
+            int owner = owners[i];
+            int score = penalties[i] + terms[i].length() - prefix.length();
+            int existing = indexOf(top, found, owner);
+            if (existing >= 0) {
+                if (score >= topScores[existing]) {
+                    continue;
+                }
+                System.arraycopy(top, existing + 1, top, existing, found - existing - 1);
+                System.arraycopy(topScores, existing + 1, topScores, existing, found - existing - 1);
+                found--;
+            } else if (found == limit && score >= topScores[limit - 1]) {
+                continue;
+            }
+            int at = found < limit ? found : limit - 1;
+            while (at > 0 && topScores[at - 1] > score) {
+                top[at] = top[at - 1];
+                topScores[at] = topScores[at - 1];
+                at--;
+            }
+            top[at] = owner;
+            topScores[at] = score;
+            found = Math.min(found + 1, limit);
+        }
+        List<Entry> result = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            result.add(entries[top[i]]);
+        }
+        return result;
+    }
+
+    private int lowerBound(String prefix) {
+        int i = Arrays.binarySearch(terms, prefix);
+        if (i >= 0) {
+            while (i > 0 && terms[i - 1].equals(prefix)) {
+                i--;
+            }
+            return i;
+        }
+        return -i - 1;
+    }
+
+    private static int indexOf(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private record Term(String text, int owner, int penalty) {
+    }
+}
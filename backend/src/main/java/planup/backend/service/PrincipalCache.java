@@ -0,0 +1,122 @@
+package planup.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import planup.backend.model.User;
+import planup.backend.repository.UserRepository;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Near cache from Clerk id to User for resolving the caller on every authenticated request. Concurrent misses
+// for the same clerkId share one in-flight load; an entry older than refresh-after is still served while a
+// single background reload replaces it, so a steadily active user never waits on Mongo. Entries past the TTL
+// are reloaded inline. User writes invalidate by clerkId and by user id; a reload that races an
+// invalidation is discarded rather than put back.
+@Slf4j
+@Service
+public class PrincipalCache {
+    private final UserRepository userRepository;
+    private final ExecutorService executor;
+    private final long ttlMs;
+    private final long refreshAfterMs;
+    private final int maxSize;
+
+    private final Map<String, Entry> byClerkId = new ConcurrentHashMap<>();
+    // user id -> clerkId, so invalidation by id still finds the entry after a clerkId change
+    private final Map<String, String> clerkIds = new ConcurrentHashMap<>();
+
+    public PrincipalCache(UserRepository userRepository,
+                          @Qualifier("blockingExecutor") ExecutorService executor,
+                          @Value("${planup.principals.ttl-ms:60000}") long ttlMs,
+                          @Value("${planup.principals.refresh-after-ms:30000}") long refreshAfterMs,
+                          @Value("${planup.principals.max-size:50000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.executor = executor;
+        this.ttlMs = ttlMs;
+        this.refreshAfterMs = refreshAfterMs;
+        this.maxSize = maxSize;
+    }
+
+    public Optional<User> resolve(String clerkId) {
+        long now = System.currentTimeMillis();
+        Entry entry = byClerkId.get(clerkId);
+        if (entry == null || now - entry.loadedAt >= ttlMs || entry.value.isCompletedExceptionally()) {
+            if (byClerkId.size() >= maxSize) {
+                byClerkId.clear();
+                clerkIds.clear();
+            }
+            entry = byClerkId.compute(clerkId, (k, current) -> current != null && now - current.loadedAt < ttlMs
+                    && !current.value.isCompletedExceptionally() ? current : new Entry(new CompletableFuture<>(), now));
+            if (entry.loading.compareAndSet(false, true)) {
+                load(clerkId, entry, entry.value);
+            }
+        } else if (now - entry.loadedAt >= refreshAfterMs && entry.value.isDone() && entry.refreshing.compareAndSet(false, true)) {
+            refresh(clerkId, entry);
+        }
+        try {
+            return entry.value.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+    public void invalidateClerkId(String clerkId) {
+        if (clerkId != null) {
+            byClerkId.remove(clerkId);
+        }
+    }
+
+    public void invalidateUser(String userId) {
+        String clerkId = clerkIds.remove(userId);
+        invalidateClerkId(clerkId);
+    }
+
+    // Inline load on the caller's thread; other callers for the same clerkId wait on the same future
+    private void load(String clerkId, Entry entry, CompletableFuture<Optional<User>> target) {
+        try {
+            Optional<User> user = userRepository.findByClerkId(clerkId);
+            user.ifPresent(u -> clerkIds.put(u.getId(), clerkId));
+            target.complete(user);
+        } catch (RuntimeException e) {
+            byClerkId.remove(clerkId, entry);
+            target.completeExceptionally(e);
+        }
+    }
+
+    private void refresh(String clerkId, Entry stale) {
+        executor.execute(() -> {
+            Entry fresh = new Entry(new CompletableFuture<>(), System.currentTimeMillis());
+            fresh.loading.set(true);
+            try {
+                Optional<User> user = userRepository.findByClerkId(clerkId);
+                fresh.value.complete(user);
+                if (byClerkId.replace(clerkId, stale, fresh)) {
+                    user.ifPresent(u -> clerkIds.put(u.getId(), clerkId));
+                }
+            } catch (RuntimeException e) {
+                stale.refreshing.set(false);
+                log.debug("Principal refresh failed for {}: {}", clerkId, e.getMessage());
+            }
+        });
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<Optional<User>> value;
+        private final long loadedAt;
+        private final AtomicBoolean loading = new AtomicBoolean();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(CompletableFuture<Optional<User>> value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
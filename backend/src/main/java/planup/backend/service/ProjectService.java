@@ -2,6 +2,7 @@ package planup.backend.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import planup.backend.model.DeletionJob;
 import planup.backend.model.Project;
 import planup.backend.repository.ProjectRepository;
 
@@ -12,14 +13,17 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class ProjectService {
     private final ProjectRepository repo;
+    private final TypeaheadService typeahead;
+    private final DeletionJobService deletions;
 
     public List<Project> findAll(){return repo.findAll();}
 
     public Optional<Project> findById(String id){return repo.findById(id);}
 
-    public Project create(Project p){return repo.save(p);}    
+    public Project create(Project p){Project saved=repo.save(p);typeahead.invalidateProjects(saved.getOrganizationId()==null?List.of():List.of(saved.getOrganizationId()));return saved;}
 
-    public Project update(String id, Project p){p.setId(id);return repo.save(p);}    
+    public Project update(String id, Project p){p.setId(id);Project saved=repo.save(p);typeahead.invalidateProjects(null);return saved;}
 
-    public boolean delete(String id){if(repo.existsById(id)){repo.deleteById(id);return true;}return false;}
+    // Everything in the project is removed afterwards by a deletion job
+    public boolean delete(String id){if(repo.existsById(id)){deletions.delete(DeletionJob.PROJECT,id);typeahead.invalidateProjects(null);return true;}return false;}
 }
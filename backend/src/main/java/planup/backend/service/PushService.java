@@ -1,20 +1,28 @@
 package planup.backend.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import planup.backend.config.Bulkhead;
 import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class PushService {
     private static final String EXPO_PUSH_URL = "https://exp.host/--/api/v2/push/send";
+    @Autowired
+    @Qualifier("pushRestTemplate")
+    private RestTemplate restTemplate;
+    @Autowired
+    @Qualifier("pushBulkhead")
+    private Bulkhead pushBulkhead;
 
     public void sendPush(String expoPushToken, String title, String message) {
-        RestTemplate restTemplate = new RestTemplate();
         Map<String, Object> payload = new HashMap<>();
         payload.put("to", expoPushToken);
         payload.put("title", title);
         payload.put("body", message);
-        restTemplate.postForObject(EXPO_PUSH_URL, payload, String.class);
+        pushBulkhead.run(() -> restTemplate.postForObject(EXPO_PUSH_URL, payload, String.class));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,170 @@
+package planup.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import planup.backend.dto.RetrospectiveGroup;
+import planup.backend.dto.RetrospectiveSummary;
+import planup.backend.model.Retrospective;
+import planup.backend.repository.RetrospectiveRepository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+// Retrospective feedback. A sprint's retro is one aggregation on {sprintId, type}, grouped by type with
+// counts. Open action items have a partial index per project, and each project's count of them is kept in
+// project_counters: every write that can open or close an action item is a single-document atomic update
+// that returns the previous state, and the counter moves only when that state actually changed.
+@Service
+@RequiredArgsConstructor
+public class RetrospectiveService {
+    private static final String COUNTERS = "project_counters";
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final RetrospectiveRepository retrospectiveRepository;
+    private final MongoTemplate mongoTemplate;
+
+    public Optional<Retrospective> getById(String id) {
+        return retrospectiveRepository.findById(id);
+    }
+
+    public RetrospectiveSummary getSprintSummary(String sprintId) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("sprintId").is(sprintId)),
+                Aggregation.sort(Sort.by("type", "createdAt")),
+                Aggregation.group("type")
+                        .count().as("count")
+                        .sum(ConditionalOperators.when(Criteria.where("resolved").is(false)).then(1).otherwise(0)).as("open")
+                        .push("$$ROOT").as("items"),
+                Aggregation.project("count", "open", "items").and("type").previousOperation(),
+                Aggregation.sort(Sort.by("type")));
+        List<RetrospectiveGroup> groups = mongoTemplate.aggregate(aggregation, Retrospective.class, RetrospectiveGroup.class)
+                .getMappedResults();
+        return new RetrospectiveSummary(sprintId, groups.stream().mapToInt(RetrospectiveGroup::getCount).sum(), groups);
+    }
+
+    // Newest first, straight off the partial index
+    public List<Retrospective> getOpenActionItems(String projectId, int limit) {
+        Query open = Query.query(Criteria.where("projectId").is(projectId)
+                        .and("type").is(Retrospective.ACTION_ITEM).and("resolved").is(false))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt"))
+                .limit(Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        return mongoTemplate.find(open, Retrospective.class);
+    }
+
+    public long getOpenActionItemCount(String projectId) {
+        Document counter = mongoTemplate.findById(projectId, Document.class, COUNTERS);
+        return counter == null ? 0 : ((Number) counter.getOrDefault("openActionItems", 0)).longValue();
+    }
+
+    public Retrospective create(Retrospective retrospective) {
+        retrospective.setId(null);
+        retrospective.setCreatedAt(new Date());
+        retrospective.setResolved(false);
+        retrospective.setResolvedAt(null);
+        retrospective.setActive(true);
+        Retrospective saved = retrospectiveRepository.save(retrospective);
+        if (isOpenAction(saved)) {
+            count(saved.getProjectId(), 1);
+        }
+        return saved;
+    }
+
+    // Only the text and type are editable; resolution has its own endpoints and the scope is fixed
+    public Optional<Retrospective> update(String id, Retrospective changes) {
+        if (changes.getText() == null && changes.getType() == null) {
+            return getById(id);
+        }
+        Update update = new Update();
+        if (changes.getText() != null) {
+            update.set("text", changes.getText());
+        }
+        if (changes.getType() != null) {
+            update.set("type", changes.getType());
+        }
+        Retrospective previous = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(id)), update, Retrospective.class);
+        if (previous == null) {
+            return Optional.empty();
+        }
+        boolean wasOpen = isOpenAction(previous);
+        if (changes.getText() != null) {
+            previous.setText(changes.getText());
+        }
+        if (changes.getType() != null) {
+            previous.setType(changes.getType());
+        }
+        countChange(previous, wasOpen);
+        return Optional.of(previous);
+    }
+
+    public Optional<Retrospective> setResolved(String id, boolean resolved) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        Date resolvedAt = resolved ? new Date() : null;
+        Update update = new Update().set("resolved", resolved).set("resolvedAt", resolvedAt);
+        Retrospective previous = mongoTemplate.findAndModify(query, update, Retrospective.class);
+        if (previous == null) {
+            return Optional.empty();
+        }
+        boolean wasOpen = isOpenAction(previous);
+        previous.setResolved(resolved);
+        previous.setResolvedAt(resolvedAt);
+        countChange(previous, wasOpen);
+        return Optional.of(previous);
+    }
+
+    public boolean delete(String id) {
+        Retrospective removed = mongoTemplate.findAndRemove(Query.query(Criteria.where("_id").is(id)), Retrospective.class);
+        if (removed == null) {
+            return false;
+        }
+        if (isOpenAction(removed)) {
+            count(removed.getProjectId(), -1);
+        }
+        return true;
+    }
+
+    // One batch of a deleted sprint's retrospectives, for DeletionJobService; 0 once none are left
+    public int deleteSprintBatch(String sprintId, int limit) {
+        Query batch = Query.query(Criteria.where("sprintId").is(sprintId)).limit(limit);
+        batch.fields().include("projectId").include("type").include("resolved");
+        List<Retrospective> retrospectives = mongoTemplate.find(batch, Retrospective.class);
+        if (retrospectives.isEmpty()) {
+            return 0;
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("_id").in(retrospectives.stream().map(Retrospective::getId).toList())),
+                Retrospective.class);
+        retrospectives.stream()
+                .filter(RetrospectiveService::isOpenAction)
+                .filter(retrospective -> retrospective.getProjectId() != null)
+                .collect(Collectors.groupingBy(Retrospective::getProjectId, Collectors.counting()))
+                .forEach((projectId, open) -> count(projectId, -open));
+        return retrospectives.size();
+    }
+
+    // `retrospective` is the state just written, `wasOpen` what the atomic update found
+    private void countChange(Retrospective retrospective, boolean wasOpen) {
+        boolean open = isOpenAction(retrospective);
+        if (open != wasOpen) {
+            count(retrospective.getProjectId(), open ? 1 : -1);
+        }
+    }
+
+    private void count(String projectId, long delta) {
+        if (projectId != null) {
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(projectId)), new Update().inc("openActionItems", delta), COUNTERS);
+        }
+    }
+
+    private static boolean isOpenAction(Retrospective retrospective) {
+        return Retrospective.ACTION_ITEM.equals(retrospective.getType()) && !retrospective.isResolved();
+    }
+}
@@ -0,0 +1,54 @@
+package planup.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import planup.backend.model.Role;
+import planup.backend.repository.RoleRepository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class RoleService {
+    private final RoleRepository roleRepository;
+    private final PermissionService permissionService;
+
+    public List<Role> getAllRoles() {
+        return roleRepository.findAll();
+    }
+
+    public List<Role> getRolesByProject(String projectId) {
+        return roleRepository.findByProjectId(projectId);
+    }
+
+    public List<Role> getRolesByOrganization(String organizationId) {
+        return roleRepository.findByOrganizationId(organizationId);
+    }
+
+    public Optional<Role> getRoleById(String id) {
+        return roleRepository.findById(id);
+    }
+
+    public Role createRole(Role role) {
+        role.setCreatedAt(new Date());
+        role.setUpdatedAt(new Date());
+        Role saved = roleRepository.save(role);
+        permissionService.invalidateRoles();
+        return saved;
+    }
+
+    public Role updateRole(String id, Role role) {
+        role.setId(id);
+        role.setUpdatedAt(new Date());
+        Role saved = roleRepository.save(role);
+        permissionService.invalidateRoles();
+        return saved;
+    }
+
+    public void deleteRole(String id) {
+        roleRepository.deleteById(id);
+        permissionService.invalidateRoles();
+    }
+}
@@ -0,0 +1,94 @@
+package planup.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Locality-sensitive hashing over MinHash signatures: the signature is cut into BANDS bands of ROWS values
+// and each band hashed to a bucket, so documents that share any band become candidates and only those are
+// compared. With 16 bands of 4 rows, pairs at Jaccard 0.5 collide with probability ~0.65 and pairs at
+// 0.8 with ~1.0, while unrelated text almost never does. Mutable; callers synchronize on the index.
+final class SimilarityIndex {
+    private static final int BANDS = 16;
+    private static final int ROWS = MinHash.SIZE / BANDS;
+
+    record Match(String id, String label, String title, double similarity) {
+    }
+
+    private record Doc(int[] signature, String label, String title) {
+    }
+
+    private final Map<String, Doc> docs = new HashMap<>();
+    private final Map<Long, List<String>> buckets = new HashMap<>();
+
+    // Text without a single letter or digit has no shingles, so its signature would equal that of any other
+    // such text; it is kept out of the index and matches nothing
+    void put(String id, String label, String title, String text) {
+        remove(id);
+        if (!MinHash.hasShingles(text)) {
+            return;
+        }
+        int[] signature = MinHash.signature(text);
+        docs.put(id, new Doc(signature, label, title));
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfAbsent(bucket(signature, band), k -> new ArrayList<>(2)).add(id);
+        }
+    }
+
+    void remove(String id) {
+        Doc doc = docs.remove(id);
+        if (doc == null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            long key = bucket(doc.signature(), band);
+            List<String> ids = buckets.get(key);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+    }
+
+    // Most similar first; `excludeId` (the document itself) is skipped
+    List<Match> query(String text, String excludeId, double minSimilarity, int limit) {
+        if (!MinHash.hasShingles(text)) {
+            return List.of();
+        }
+        int[] signature = MinHash.signature(text);
+        Set<String> seen = new HashSet<>();
+        List<Match> matches = new ArrayList<>();
+        for (int band = 0; band < BANDS; band++) {
+            List<String> ids = buckets.get(bucket(signature, band));
+            if (ids == null) {
+                continue;
+            }
+            for (String id : ids) {
+                if (id.equals(excludeId) || !seen.add(id)) {
+                    continue;
+                }
+                Doc doc = docs.get(id);
+                double similarity = MinHash.similarity(signature, doc.signature());
+                if (similarity >= minSimilarity) {
+                    matches.add(new Match(id, doc.label(), doc.title(), similarity));
+                }
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Match::similarity).reversed());
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    private static long bucket(int[] signature, int band) {
+        long hash = band;
+        for (int i = band * ROWS; i < (band + 1) * ROWS; i++) {
+            hash = hash * 0x9E3779B97F4A7C15L + signature[i];
+        }
+        return hash;
+    }
+}
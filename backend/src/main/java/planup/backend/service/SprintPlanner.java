@@ -0,0 +1,277 @@
+package planup.backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Picks the most valuable set of items that fits a team capacity and per-member capacities, where an item
+// may only be picked together with every item it (transitively) requires; a precedence-constrained,
+// multi-dimensional knapsack. Items are added and removed as closures, so every state is feasible. Each
+// worker builds a greedy plan by value density (worker 0 exactly, the others with noise), then until the
+// deadline keeps dropping a few picked closures and refilling from the rest, keeping moves that don't lose
+// value. A move costs O(n), so thousands of items still get many rounds per worker. Workers run as one
+// fork-join task on the caller's pool and the best plan any of them found wins. One planner per problem.
+public final class SprintPlanner {
+    private static final double NOISE = 0.35;
+    private static final int MAX_DROP = 3;
+    private static final int RESHUFFLE_ROUNDS = 256;
+
+    private final int n;
+    private final int[] points;
+    private final double[] value;
+    private final int[] member; // index into memberCapacity, -1 for unassigned
+    private final int[][] requires;
+    private final int[][] requiredBy;
+    private final int capacity;
+    private final int[] memberCapacity;
+
+    private Plan best;
+
+    public record Plan(int[] picked, int points, double value, boolean optimal) {
+    }
+
+    public SprintPlanner(int[] points, double[] value, int[] member, int[][] requires, int capacity, int[] memberCapacity) {
+        this.n = points.length;
+        this.points = points;
+        this.value = value;
+        this.member = member;
+        this.requires = requires;
+        this.capacity = capacity;
+        this.memberCapacity = memberCapacity;
+        int[] counts = new int[n];
+        for (int[] req : requires) {
+            for (int r : req) {
+                counts[r]++;
+            }
+        }
+        this.requiredBy = new int[n][];
+        for (int i = 0; i < n; i++) {
+            requiredBy[i] = new int[counts[i]];
+        }
+        for (int i = 0; i < n; i++) {
+            for (int r : requires[i]) {
+                requiredBy[r][--counts[r]] = i;
+            }
+        }
+    }
+
+    public Plan solve(ForkJoinPool pool, int workers, long deadlineNanos) {
+        State all = new State();
+        for (int i = 0; i < n; i++) {
+            all.add(i);
+        }
+        // everything fits: nothing to choose
+        if (all.fits()) {
+            return new Plan(all.picked(), all.used, all.value, true);
+        }
+        pool.invoke(new Search(0, Math.max(1, workers), deadlineNanos));
+        return best;
+    }
+
+    private synchronized void offer(State state) {
+        if (best == null || state.value > best.value()) {
+            best = new Plan(state.picked(), state.used, state.value, false);
+        }
+    }
+
+    private final class Search extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final long deadlineNanos;
+
+        Search(int from, int to, long deadlineNanos) {
+            this.from = from;
+            this.to = to;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Search(from, mid, deadlineNanos), new Search(mid, to, deadlineNanos));
+            } else {
+                offer(work(from, deadlineNanos));
+            }
+        }
+    }
+
+    private State work(int worker, long deadlineNanos) {
+        SplittableRandom random = new SplittableRandom(worker * 0x9E3779B97F4A7C15L + 1);
+        int[] order = order(worker == 0 ? null : random);
+        State current = new State();
+        fill(current, order, null);
+        State trial = new State();
+        boolean[] tabu = new boolean[n];
+        List<Integer> dropped = new ArrayList<>();
+        for (long round = 1; System.nanoTime() < deadlineNanos && current.count > 0; round++) {
+            trial.copyFrom(current);
+            int drop = 1 + random.nextInt(MAX_DROP);
+            for (int d = 0; d < drop && trial.count > 0; d++) {
+                trial.remove(trial.randomPicked(random));
+                dropped.addAll(trial.closure);
+            }
+            // refill without the dropped items first, so the move actually swaps something in
+            dropped.forEach(i -> tabu[i] = true);
+            fill(trial, order, tabu);
+            dropped.forEach(i -> tabu[i] = false);
+            dropped.clear();
+            fill(trial, order, null);
+            // equal-value moves are accepted too, to walk across plateaus
+            if (trial.value >= current.value) {
+                State swap = current;
+                current = trial;
+                trial = swap;
+            }
+            if (round % RESHUFFLE_ROUNDS == 0) {
+                order = order(random);
+            }
+        }
+        return current;
+    }
+
+    private void fill(State state, int[] order, boolean[] skip) {
+        for (int i : order) {
+            if (!state.in[i] && (skip == null || !skip[i])) {
+                state.tryAdd(i);
+            }
+        }
+    }
+
+    // By value per point, optionally perturbed so workers explore different plans
+    private int[] order(SplittableRandom random) {
+        Integer[] order = new Integer[n];
+        double[] key = new double[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            double noise = random == null ? 1 : 1 + NOISE * (2 * random.nextDouble() - 1);
+            key[i] = value[i] / Math.max(1, points[i]) * noise;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(key[b], key[a]));
+        return Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+    }
+
+    private final class State {
+        final boolean[] in = new boolean[n];
+        final int[] memberUsed = new int[memberCapacity.length];
+        int used;
+        double value;
+        int count;
+        // scratch for closures
+        private final int[] stamp = new int[n];
+        private int epoch;
+        final List<Integer> closure = new ArrayList<>();
+        private final int[] memberDelta = new int[memberCapacity.length];
+
+        void copyFrom(State other) {
+            System.arraycopy(other.in, 0, in, 0, n);
+            System.arraycopy(other.memberUsed, 0, memberUsed, 0, memberUsed.length);
+            used = other.used;
+            value = other.value;
+            count = other.count;
+        }
+
+        void add(int i) {
+            in[i] = true;
+            used += points[i];
+            value += SprintPlanner.this.value[i];
+            count++;
+            if (member[i] >= 0) {
+                memberUsed[member[i]] += points[i];
+            }
+        }
+
+        void drop(int i) {
+            in[i] = false;
+            used -= points[i];
+            value -= SprintPlanner.this.value[i];
+            count--;
+            if (member[i] >= 0) {
+                memberUsed[member[i]] -= points[i];
+            }
+        }
+
+        boolean fits() {
+            if (used > capacity) {
+                return false;
+            }
+            for (int m = 0; m < memberUsed.length; m++) {
+                if (memberUsed[m] > memberCapacity[m]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Adds i and whatever it requires that isn't picked yet, if all of it fits
+        boolean tryAdd(int i) {
+            collect(i, requires, false);
+            int extra = 0;
+            Arrays.fill(memberDelta, 0);
+            for (int c : closure) {
+                extra += points[c];
+                if (member[c] >= 0) {
+                    memberDelta[member[c]] += points[c];
+                }
+            }
+            if (used + extra > capacity) {
+                return false;
+            }
+            for (int m = 0; m < memberDelta.length; m++) {
+                if (memberDelta[m] > 0 && memberUsed[m] + memberDelta[m] > memberCapacity[m]) {
+                    return false;
+                }
+            }
+            for (int c : closure) {
+                add(c);
+            }
+            return true;
+        }
+
+        // Removes i and every picked item that requires it
+        void remove(int i) {
+            collect(i, requiredBy, true);
+            for (int c : closure) {
+                drop(c);
+            }
+        }
+
+        private void collect(int start, int[][] edges, boolean picked) {
+            closure.clear();
+            epoch++;
+            stamp[start] = epoch;
+            closure.add(start);
+            for (int k = 0; k < closure.size(); k++) {
+                for (int next : edges[closure.get(k)]) {
+                    if (in[next] == picked && stamp[next] != epoch) {
+                        stamp[next] = epoch;
+                        closure.add(next);
+                    }
+                }
+            }
+        }
+
+        int randomPicked(SplittableRandom random) {
+            int skip = random.nextInt(count);
+            for (int i = 0; i < n; i++) {
+                if (in[i] && skip-- == 0) {
+                    return i;
+                }
+            }
+            throw new IllegalStateException();
+        }
+
+        int[] picked() {
+            int[] picked = new int[count];
+            for (int i = 0, k = 0; i < n; i++) {
+                if (in[i]) {
+                    picked[k++] = i;
+                }
+            }
+            return picked;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package planup.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import planup.backend.dto.SprintPlan;
+import planup.backend.dto.SprintPlanRequest;
+import planup.backend.model.Issue;
+import planup.backend.model.IssueLink;
+import planup.backend.model.Sprint;
+import planup.backend.repository.IssueRepository;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Proposes a sprint's scope from its project's backlog: open issues that are unplanned or already in the
+// sprint, valued by priority, weighed in story points, within the team's capacity and each member's share.
+// An issue blocked by an open issue can only come with its blocker; one blocked by an open issue outside
+// the backlog can't be planned at all. The search itself is SprintPlanner on a bounded fork-join pool and
+// stops at its time budget; the plan is returned, not saved.
+@Service
+public class SprintPlanningService {
+    private static final Map<String, Double> DEFAULT_WEIGHTS = Map.of(
+            "highest", 16.0, "critical", 16.0, "high", 8.0, "medium", 4.0, "low", 2.0, "lowest", 1.0);
+    private static final double UNKNOWN_WEIGHT = 3.0;
+
+    private final MongoTemplate mongoTemplate;
+    private final IssueRepository issueRepository;
+    private final Set<String> resolvedStatuses;
+    private final long timeBudgetMs;
+    private final long maxTimeBudgetMs;
+    private final int parallelism;
+    private final ForkJoinPool pool;
+
+    public SprintPlanningService(MongoTemplate mongoTemplate, IssueRepository issueRepository,
+                                 @Value("${planup.issues.resolved-statuses:Done,Closed,Resolved}") Set<String> resolvedStatuses,
+                                 @Value("${planup.planner.time-budget-ms:300}") long timeBudgetMs,
+                                 @Value("${planup.planner.max-time-budget-ms:2000}") long maxTimeBudgetMs,
+                                 @Value("${planup.planner.parallelism:0}") int parallelism) {
+        this.mongoTemplate = mongoTemplate;
+        this.issueRepository = issueRepository;
+        this.resolvedStatuses = resolvedStatuses;
+        this.timeBudgetMs = timeBudgetMs;
+        this.maxTimeBudgetMs = maxTimeBudgetMs;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(this.parallelism);
+    }
+
+    public SprintPlan plan(Sprint sprint, SprintPlanRequest request) {
+        if (sprint.getProjectId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Sprint has no project to plan from");
+        }
+        long started = System.nanoTime();
+        int capacity = request.getCapacity() != null ? request.getCapacity()
+                : sprint.getCapacity() > 0 ? sprint.getCapacity() : sprint.getVelocity();
+        Map<String, Integer> memberCapacity = memberCapacity(sprint, request, capacity);
+        Map<String, Double> weights = weights(request.getPriorityWeights());
+
+        Query backlog = Query.query(Criteria.where("projectId").is(sprint.getProjectId())
+                .and("status").nin(resolvedStatuses)
+                .orOperator(Criteria.where("sprintId").is(null), Criteria.where("sprintId").is(sprint.getId())));
+        backlog.fields().include("key").include("priority").include("storyPoints").include("assigneeId");
+        List<Issue> issues = mongoTemplate.find(backlog, Issue.class);
+
+        Map<String, String> excluded = new LinkedHashMap<>();
+        Map<String, Issue> byId = new LinkedHashMap<>();
+        for (Issue issue : issues) {
+            if (issue.getAssigneeId() != null && !memberCapacity.isEmpty() && !memberCapacity.containsKey(issue.getAssigneeId())) {
+                excluded.put(issue.getId(), "Assignee is not on the sprint team");
+            } else {
+                byId.put(issue.getId(), issue);
+            }
+        }
+        Map<String, Set<String>> blockers = blockers(issues);
+        excludeBlocked(byId, blockers, excluded);
+
+        List<Issue> items = new ArrayList<>(byId.values());
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            index.put(items.get(i).getId(), i);
+        }
+        List<String> members = new ArrayList<>(memberCapacity.keySet());
+        int[] points = new int[items.size()];
+        double[] value = new double[items.size()];
+        int[] member = new int[items.size()];
+        int[][] requires = new int[items.size()][];
+        for (int i = 0; i < items.size(); i++) {
+            Issue issue = items.get(i);
+            // unestimated issues still take room
+            points[i] = Math.max(1, issue.getStoryPoints());
+            value[i] = weight(weights, issue.getPriority());
+            member[i] = issue.getAssigneeId() == null ? -1 : members.indexOf(issue.getAssigneeId());
+            requires[i] = blockers.getOrDefault(issue.getId(), Set.of()).stream()
+                    .filter(index::containsKey).mapToInt(index::get).toArray();
+        }
+        int[] caps = members.stream().mapToInt(memberCapacity::get).toArray();
+
+        long budget = Math.min(request.getTimeBudgetMs() != null ? request.getTimeBudgetMs() : timeBudgetMs, maxTimeBudgetMs);
+        SprintPlanner.Plan plan = new SprintPlanner(points, value, member, requires, capacity, caps)
+                .solve(pool, parallelism, started + TimeUnit.MILLISECONDS.toNanos(budget));
+
+        List<Integer> picked = new ArrayList<>();
+        for (int i : plan.picked()) {
+            picked.add(i);
+        }
+        picked.sort(Comparator.comparingDouble((Integer i) -> -value[i]).thenComparingInt(i -> points[i]));
+        Map<String, Integer> memberLoad = new LinkedHashMap<>();
+        members.forEach(m -> memberLoad.put(m, 0));
+        for (int i : picked) {
+            if (member[i] >= 0) {
+                memberLoad.merge(members.get(member[i]), points[i], Integer::sum);
+            }
+        }
+        return new SprintPlan(sprint.getId(), picked.stream().map(i -> items.get(i).getId()).toList(), capacity,
+                plan.points(), plan.value(), memberLoad, issues.size(), excluded, plan.optimal(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    // Explicit capacities win; other team members get an even share of the sprint's capacity
+    private static Map<String, Integer> memberCapacity(Sprint sprint, SprintPlanRequest request, int capacity) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        List<String> team = sprint.getTeamMembers() != null ? sprint.getTeamMembers() : List.of();
+        int share = team.isEmpty() ? capacity : (capacity + team.size() - 1) / team.size();
+        team.forEach(m -> result.put(m, share));
+        if (request.getMemberCapacity() != null) {
+            result.putAll(request.getMemberCapacity());
+        }
+        return result;
+    }
+
+    private static Map<String, Double> weights(Map<String, Double> overrides) {
+        Map<String, Double> weights = new HashMap<>(DEFAULT_WEIGHTS);
+        if (overrides != null) {
+            overrides.forEach((priority, weight) -> weights.put(priority.toLowerCase(Locale.ROOT), weight));
+        }
+        return weights;
+    }
+
+    private static double weight(Map<String, Double> weights, String priority) {
+        return priority == null ? UNKNOWN_WEIGHT : weights.getOrDefault(priority.toLowerCase(Locale.ROOT), UNKNOWN_WEIGHT);
+    }
+
+    // blocked issue id -> ids of the issues blocking it, from links in either direction
+    private Map<String, Set<String>> blockers(List<Issue> issues) {
+        List<String> ids = issues.stream().map(Issue::getId).toList();
+        Query links = Query.query(Criteria.where("linkType").in("blocks", "is-blocked-by").orOperator(
+                Criteria.where("sourceIssueId").in(ids), Criteria.where("targetIssueId").in(ids)));
+        links.fields().include("sourceIssueId").include("targetIssueId").include("linkType");
+        Map<String, Set<String>> blockers = new HashMap<>();
+        for (IssueLink link : mongoTemplate.find(links, IssueLink.class)) {
+            boolean blocks = "blocks".equals(link.getLinkType());
+            String blocked = blocks ? link.getTargetIssueId() : link.getSourceIssueId();
+            String blocker = blocks ? link.getSourceIssueId() : link.getTargetIssueId();
+            if (blocked != null && blocker != null && !blocked.equals(blocker)) {
+                blockers.computeIfAbsent(blocked, k -> new HashSet<>()).add(blocker);
+            }
+        }
+        return blockers;
+    }
+
+    // Drops issues waiting on an open issue that can't be planned, and whatever waits on those in turn
+    private void excludeBlocked(Map<String, Issue> byId, Map<String, Set<String>> blockers, Map<String, String> excluded) {
+        Set<String> outside = new HashSet<>();
+        blockers.forEach((blocked, ids) -> ids.stream().filter(id -> !byId.containsKey(id) && !excluded.containsKey(id)).forEach(outside::add));
+        Set<String> openOutside = new HashSet<>();
+        if (!outside.isEmpty()) {
+            for (Issue issue : issueRepository.findStatusByIdIn(outside)) {
+                if (!resolvedStatuses.contains(issue.getStatus())) {
+                    openOutside.add(issue.getId());
+                }
+            }
+        }
+        Map<String, List<String>> waiting = new HashMap<>();
+        blockers.forEach((blocked, ids) -> ids.forEach(id -> waiting.computeIfAbsent(id, k -> new ArrayList<>()).add(blocked)));
+        Deque<String> unplannable = new ArrayDeque<>(openOutside);
+        unplannable.addAll(excluded.keySet());
+        while (!unplannable.isEmpty()) {
+            String blocker = unplannable.poll();
+            for (String blocked : waiting.getOrDefault(blocker, List.of())) {
+                if (byId.remove(blocked) != null) {
+                    excluded.put(blocked, "Blocked by " + blocker + ", which can't be planned into this sprint");
+                    unplannable.add(blocked);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -1,10 +1,14 @@
 package planup.backend.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import planup.backend.model.Activity;
+import planup.backend.model.DeletionJob;
 import planup.backend.model.Sprint;
 import planup.backend.repository.SprintRepository;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +16,8 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class SprintService {
     private final SprintRepository sprintRepository;
+    private final ApplicationEventPublisher events;
+    private final DeletionJobService deletions;
 
     public List<Sprint> getAllSprints() {
         return sprintRepository.findAll();
@@ -22,15 +28,33 @@ public class SprintService {
     }
 
     public Sprint createSprint(Sprint sprint) {
-        return sprintRepository.save(sprint);
+        Sprint saved = sprintRepository.save(sprint);
+        events.publishEvent(activity("sprint_created", "Created " + saved.getName(), saved));
+        return saved;
     }
 
     public Sprint updateSprint(String id, Sprint sprint) {
         sprint.setId(id);
-        return sprintRepository.save(sprint);
+        Sprint saved = sprintRepository.save(sprint);
+        events.publishEvent(activity("sprint_updated", "Updated " + saved.getName(), saved));
+        return saved;
     }
 
-    public void deleteSprint(String id) {
-        sprintRepository.deleteById(id);
+    // Its issues go back to the backlog and its retrospectives are removed by a deletion job
+    public void deleteSprint(Sprint sprint) {
+        deletions.delete(DeletionJob.SPRINT, sprint.getId());
+        events.publishEvent(activity("sprint_deleted", "Deleted " + sprint.getName(), sprint));
     }
-} 
\ No newline at end of file
+
+    // Sprints without a projectId have no timeline to land on and are skipped by ActivityService
+    private static Activity activity(String type, String title, Sprint sprint) {
+        return Activity.builder()
+                .type(type)
+                .title(title)
+                .description(sprint.getGoal())
+                .projectId(sprint.getProjectId())
+                .sprintId(sprint.getId())
+                .timestamp(new Date())
+                .build();
+    }
+}
@@ -0,0 +1,254 @@
+package planup.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import planup.backend.dto.TemplateInstantiateRequest;
+import planup.backend.model.Activity;
+import planup.backend.model.Issue;
+import planup.backend.model.Project;
+import planup.backend.model.Sprint;
+import planup.backend.model.Template;
+import planup.backend.repository.ProjectRepository;
+import planup.backend.repository.TemplateRepository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Issue templates. Instantiating one renders its compiled fields once per requested issue, allocates all
+// their keys with one counter update and writes them with one insertMany. Compiled templates are cached by
+// id and revalidated against updatedAt, so an edit on any instance is picked up on the next use.
+@Service
+public class TemplateService {
+    private static final Set<String> BUILT_INS = Set.of("n", "count", "key", "date");
+
+    private final TemplateRepository templateRepository;
+    private final ProjectRepository projectRepository;
+    private final MongoTemplate mongoTemplate;
+    private final WorkflowService workflowService;
+    private final IssueKeyAllocator keyAllocator;
+    private final ApplicationEventPublisher events;
+    private final int cacheMaxSize;
+    private final Map<String, Compiled> compiled = new ConcurrentHashMap<>();
+
+    private record Compiled(Date updatedAt, CompiledTemplate template) {
+    }
+
+    public TemplateService(TemplateRepository templateRepository, ProjectRepository projectRepository,
+                           MongoTemplate mongoTemplate, WorkflowService workflowService,
+                           IssueKeyAllocator keyAllocator, ApplicationEventPublisher events,
+                           @Value("${planup.templates.cache-max-size:1000}") int cacheMaxSize) {
+        this.templateRepository = templateRepository;
+        this.projectRepository = projectRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.workflowService = workflowService;
+        this.keyAllocator = keyAllocator;
+        this.events = events;
+        this.cacheMaxSize = cacheMaxSize;
+    }
+
+    public List<Template> getTemplates(String projectId, String organizationId) {
+        return projectId != null
+                ? templateRepository.findByProjectId(projectId)
+                : templateRepository.findByOrganizationId(organizationId);
+    }
+
+    public Optional<Template> getTemplateById(String id) {
+        return templateRepository.findById(id);
+    }
+
+    public Template createTemplate(Template template) {
+        template.setId(null);
+        template.setCreatedAt(new Date());
+        template.setUpdatedAt(new Date());
+        return templateRepository.save(template);
+    }
+
+    public Template updateTemplate(Template existing, Template template) {
+        template.setId(existing.getId());
+        template.setCreatedAt(existing.getCreatedAt());
+        template.setUpdatedAt(new Date());
+        compiled.remove(existing.getId());
+        return templateRepository.save(template);
+    }
+
+    public void deleteTemplate(Template template) {
+        templateRepository.deleteById(template.getId());
+        compiled.remove(template.getId());
+    }
+
+    public List<Issue> instantiate(Template template, TemplateInstantiateRequest request) {
+        List<Map<String, String>> items = request.getItems();
+        int count = items != null && !items.isEmpty() ? items.size() : request.getCount() != null ? request.getCount() : 1;
+        String projectId = request.getProjectId() != null ? request.getProjectId() : template.getProjectId();
+        if (projectId == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "projectId is required for a template without a project");
+        }
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
+        if (request.getSprintId() != null
+                && !mongoTemplate.exists(Query.query(Criteria.where("_id").is(request.getSprintId())), Sprint.class)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Sprint not found");
+        }
+        CompiledTemplate fields = compiled(template);
+        Map<String, String> shared = request.getVariables() != null ? request.getVariables() : Map.of();
+        checkVariables(fields, shared, items, count);
+
+        List<String> keys = project.getKey() != null ? keyAllocator.allocate(projectId, project.getKey(), count) : null;
+        Issue probe = Issue.builder().projectId(projectId).build();
+        WorkflowStateMachine workflow = workflowService.stateMachineFor(probe);
+        Date now = new Date();
+        String today = LocalDate.now(ZoneOffset.UTC).toString();
+        List<Issue> issues = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, String> variables = new HashMap<>(shared);
+            if (items != null && !items.isEmpty()) {
+                variables.putAll(items.get(i));
+            }
+            variables.put("n", String.valueOf(i + 1));
+            variables.put("count", String.valueOf(count));
+            variables.put("date", today);
+            variables.put("key", keys != null ? keys.get(i) : "");
+            Issue issue = render(fields, variables::get);
+            issue.setKey(keys != null ? keys.get(i) : null);
+            issue.setProjectId(projectId);
+            issue.setSprintId(request.getSprintId());
+            issue.setReporterId(request.getReporterId());
+            issue.setTemplateId(template.getId());
+            if (issue.getStatus() == null) {
+                issue.setStatus(workflow.initialStatus());
+            } else if (!workflow.isKnown(issue.getStatus())) {
+                throw new InvalidTransitionException(null, issue.getStatus());
+            }
+            issue.setCreated(now);
+            issue.setUpdated(now);
+            issue.setAttachments(List.of());
+            issue.setTimeLogs(List.of());
+            issue.setDecisionLog(List.of());
+            issue.setSubTaskIds(List.of());
+            issue.setLinkedIssueIds(List.of());
+            issue.setActive(true);
+            issues.add(issue);
+        }
+
+        List<Issue> saved = new ArrayList<>(mongoTemplate.insert(issues, Issue.class));
+        if (request.getSprintId() != null) {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(request.getSprintId())),
+                    new Update().push("issues").each(saved.stream().map(Issue::getId).toArray()), Sprint.class);
+        }
+        saved.forEach(issue -> events.publishEvent(new IssueChangedEvent(issue, false)));
+        events.publishEvent(Activity.builder()
+                .type("issues_created")
+                .title("Created " + count + " issues from " + template.getName())
+                .userId(request.getReporterId())
+                .projectId(projectId)
+                .sprintId(request.getSprintId())
+                .timestamp(now)
+                .build());
+        return saved;
+    }
+
+    private CompiledTemplate compiled(Template template) {
+        Compiled entry = compiled.get(template.getId());
+        if (entry != null && Objects.equals(entry.updatedAt(), template.getUpdatedAt())) {
+            return entry.template();
+        }
+        if (compiled.size() >= cacheMaxSize) {
+            compiled.clear();
+        }
+        CompiledTemplate fresh = CompiledTemplate.compile(template.getFields());
+        compiled.put(template.getId(), new Compiled(template.getUpdatedAt(), fresh));
+        return fresh;
+    }
+
+    private static void checkVariables(CompiledTemplate fields, Map<String, String> shared,
+                                       List<Map<String, String>> items, int count) {
+        Set<String> missing = new TreeSet<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, String> item = items != null && !items.isEmpty() ? items.get(i) : Map.of();
+            for (String name : fields.variables()) {
+                if (!BUILT_INS.contains(name) && !shared.containsKey(name) && !item.containsKey(name)) {
+                    missing.add(name);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Missing template variables: " + String.join(", ", missing));
+        }
+    }
+
+    // Template fields are strings; numbers, lists and dates are parsed after rendering
+    private static Issue render(CompiledTemplate fields, Function<String, String> variables) {
+        Issue issue = new Issue();
+        issue.setTitle(fields.render("title", variables));
+        issue.setDescription(fields.render("description", variables));
+        issue.setType(fields.render("type", variables));
+        issue.setPriority(fields.render("priority", variables));
+        issue.setStatus(blankToNull(fields.render("status", variables)));
+        issue.setAssigneeId(blankToNull(fields.render("assigneeId", variables)));
+        issue.setEpicId(blankToNull(fields.render("epicId", variables)));
+        issue.setColor(fields.render("color", variables));
+        issue.setLabels(list(fields.render("labels", variables)));
+        issue.setComponents(list(fields.render("components", variables)));
+        issue.setStoryPoints(number("storyPoints", fields.render("storyPoints", variables)));
+        issue.setEstimatedHours(number("estimatedHours", fields.render("estimatedHours", variables)));
+        issue.setDueDate(date(fields.render("dueDate", variables)));
+        return issue;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static List<String> list(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+    }
+
+    private static int number(String field, String value) {
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        try {
+            return (int) Math.round(Double.parseDouble(value.trim()));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, field + " is not a number: " + value);
+        }
+    }
+
+    // yyyy-MM-dd (midnight UTC) or a full ISO instant
+    private static Date date(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String text = value.trim();
+            Instant instant = text.length() == 10 ? LocalDate.parse(text).atStartOfDay(ZoneOffset.UTC).toInstant() : Instant.parse(text);
+            return Date.from(instant);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "dueDate is not a date: " + value);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package planup.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import planup.backend.storage.AttachmentStore;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+// Generates fixed-size JPEG thumbnails for image attachments on the thumbnail pool and stores them next to the
+// original blob. Nothing here runs on the upload request: a saturated pool just drops the task and the
+// thumbnail is queued again the first time somebody asks for it.
+@Slf4j
+@Service
+public class ThumbnailService {
+    public static final String CONTENT_TYPE = "image/jpeg";
+
+    private final AttachmentStore attachmentStore;
+    private final ExecutorService executor;
+    private final int size;
+    private final String variant;
+    private final String failedVariant;
+    // hashes with a generation queued or running, so repeated requests don't pile up duplicate work
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ThumbnailService(AttachmentStore attachmentStore,
+                            @Qualifier("thumbnailExecutor") ExecutorService executor,
+                            @Value("${planup.thumbnails.size:256}") int size) {
+        this.attachmentStore = attachmentStore;
+        this.executor = executor;
+        this.size = size;
+        this.variant = "thumb-" + size;
+        this.failedVariant = variant + "-failed";
+        // decode from memory/file directly instead of spooling through temp files
+        ImageIO.setUseCache(false);
+    }
+
+    public boolean supports(String contentType) {
+        return contentType != null && contentType.startsWith("image/")
+                && ImageIO.getImageReadersByMIMEType(contentType).hasNext();
+    }
+
+    public String getVariant() {
+        return variant;
+    }
+
+    public void schedule(String hash, String contentType) {
+        if (!supports(contentType) || !inFlight.add(hash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(hash);
+                } catch (Exception e) {
+                    log.warn("Thumbnail generation failed for {}: {}", hash, e.getMessage());
+                } finally {
+                    inFlight.remove(hash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(hash);
+            log.debug("Thumbnail queue full, deferring {}", hash);
+        }
+    }
+
+    // Empty while the thumbnail is pending, in which case generation is (re)queued
+    public Optional<AttachmentStore.Blob> open(String hash, String contentType) throws IOException {
+        Optional<AttachmentStore.Blob> thumbnail = attachmentStore.openDerived(hash, variant);
+        if (thumbnail.isEmpty()) {
+            schedule(hash, contentType);
+        }
+        return thumbnail;
+    }
+
+    public boolean hasFailed(String hash) throws IOException {
+        return attachmentStore.openDerived(hash, failedVariant).isPresent();
+    }
+
+    void generate(String hash) throws IOException {
+        if (attachmentStore.openDerived(hash, variant).isPresent() || hasFailed(hash)) {
+            return;
+        }
+        Optional<AttachmentStore.Blob> source = attachmentStore.open(hash);
+        if (source.isEmpty()) {
+            return;
+        }
+        BufferedImage image;
+        try {
+            image = decode(source.get());
+        } catch (IIOException | RuntimeException e) {
+            // readers throw rather than return null on many corrupt files
+            log.debug("Could not decode {}: {}", hash, e.getMessage());
+            image = null;
+        }
+        if (image == null) {
+            // not decodable (corrupt or mislabelled); remember so it isn't retried on every request
+            attachmentStore.storeDerived(hash, failedVariant, new byte[0]);
+            return;
+        }
+        attachmentStore.storeDerived(hash, variant, encode(scale(image)));
+    }
+
+    private BufferedImage decode(AttachmentStore.Blob blob) throws IOException {
+        Optional<Path> file = blob.file();
+        try (SeekableByteChannel channel = file.isPresent() ? null : blob.channel();
+             ImageInputStream in = ImageIO.createImageInputStream(
+                     file.isPresent() ? file.get().toFile() : Channels.newInputStream(channel))) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                // decode every n-th pixel of large images so memory stays proportional to the thumbnail,
+                // keeping about twice the target resolution for the final smooth downscale
+                int step = Math.max(1, longest / (size * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage scale(BufferedImage image) {
+        double ratio = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = thumbnail.createGraphics();
+        try {
+            // JPEG has no alpha channel, so transparent areas are flattened onto white
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return thumbnail;
+    }
+
+    private static byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByMIMEType(CONTENT_TYPE).next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(0.8f);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+}
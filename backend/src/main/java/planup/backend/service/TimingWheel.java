@@ -0,0 +1,205 @@
+package planup.backend.service;
+
+import java.util.Arrays;
+import java.util.HexFormat;
+
+// Hierarchical timing wheel of (id, due time) entries: four levels of 64 slots, each level's slot spanning
+// 64 of the level below, so with one-second ticks it covers about 194 days. Scheduling and expiring are
+// O(1); an entry is moved down a level at most three times before it fires. Slots keep entries in parallel
+// primitive arrays, and 24-character hex ObjectIds are packed into a long and an int, so an entry costs
+// about 20 bytes rather than two objects. Not thread-safe; one thread owns a wheel.
+public final class TimingWheel {
+    private static final int LEVELS = 4;
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+
+    @FunctionalInterface
+    public interface Expired {
+        void accept(String id, long dueMillis);
+    }
+
+    private final long tickMs;
+    private final Slot[][] wheels = new Slot[LEVELS][SLOTS];
+    // entries already due when scheduled, fired on the next advance
+    private final Slot ready = new Slot();
+    private long current;
+    private int size;
+
+    public TimingWheel(long tickMs, long startMillis) {
+        this.tickMs = tickMs;
+        this.current = Math.floorDiv(startMillis, tickMs);
+        for (Slot[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) {
+                wheel[i] = new Slot();
+            }
+        }
+    }
+
+    public static long spanMillis(long tickMs) {
+        return (1L << (BITS * LEVELS)) * tickMs;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // False when the due time lies beyond the wheel's span; the caller loads it later
+    public boolean schedule(String id, long dueMillis) {
+        long hi = 0;
+        int lo = 0;
+        String other = null;
+        if (isObjectId(id)) {
+            hi = Long.parseUnsignedLong(id, 0, 16, 16);
+            lo = Integer.parseUnsignedInt(id, 16, 24, 16);
+        } else {
+            other = id;
+        }
+        if (!place(dueMillis, hi, lo, other)) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    // Moves time forward to `nowMillis`, handing every entry that came due to `expired`
+    public void advance(long nowMillis, Expired expired) {
+        long target = Math.floorDiv(nowMillis, tickMs);
+        fire(ready, expired);
+        while (current < target) {
+            current++;
+            // higher levels first, so entries cascading into a lower slot that starts now are not missed
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((current & ((1L << (BITS * level)) - 1)) == 0) {
+                    cascade(wheels[level][(int) ((current >>> (BITS * level)) & MASK)]);
+                }
+            }
+            fire(wheels[0][(int) (current & MASK)], expired);
+            fire(ready, expired);
+        }
+    }
+
+    public void clear() {
+        for (Slot[] wheel : wheels) {
+            for (Slot slot : wheel) {
+                slot.reset();
+            }
+        }
+        ready.reset();
+        size = 0;
+    }
+
+    private boolean place(long dueMillis, long hi, int lo, String other) {
+        // rounded up, so nothing fires before it is due
+        long tick = Math.ceilDiv(dueMillis, tickMs);
+        if (tick <= current) {
+            ready.add(dueMillis, hi, lo, other);
+            return true;
+        }
+        long delta = tick - current;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (BITS * (level + 1))) {
+                wheels[level][(int) ((tick >>> (BITS * level)) & MASK)].add(dueMillis, hi, lo, other);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void cascade(Slot slot) {
+        if (slot.size == 0) {
+            return;
+        }
+        Slot moving = slot.detach();
+        for (int i = 0; i < moving.size; i++) {
+            place(moving.due[i], moving.hi[i], moving.lo[i], moving.other == null ? null : moving.other[i]);
+        }
+    }
+
+    private void fire(Slot slot, Expired expired) {
+        if (slot.size == 0) {
+            return;
+        }
+        // detached first, so entries the callback schedules land in a fresh slot
+        Slot due = slot.detach();
+        size -= due.size;
+        for (int i = 0; i < due.size; i++) {
+            expired.accept(due.id(i), due.due[i]);
+        }
+    }
+
+    private static boolean isObjectId(String id) {
+        if (id == null || id.length() != 24) {
+            return false;
+        }
+        for (int i = 0; i < 24; i++) {
+            char c = id.charAt(i);
+            // lower-case only, so the packed form round-trips to the same string
+            if (!(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Slot {
+        private int size;
+        private long[] due;
+        private long[] hi;
+        private int[] lo;
+        private String[] other; // only allocated once a slot holds an id that isn't an ObjectId
+
+        void add(long dueMillis, long idHi, int idLo, String id) {
+            if (due == null) {
+                due = new long[4];
+                hi = new long[4];
+                lo = new int[4];
+            } else if (size == due.length) {
+                int capacity = size + (size >> 1);
+                due = Arrays.copyOf(due, capacity);
+                hi = Arrays.copyOf(hi, capacity);
+                lo = Arrays.copyOf(lo, capacity);
+                if (other != null) {
+                    other = Arrays.copyOf(other, capacity);
+                }
+            }
+            if (id != null && other == null) {
+                other = new String[due.length];
+            }
+            due[size] = dueMillis;
+            hi[size] = idHi;
+            lo[size] = idLo;
+            if (other != null) {
+                other[size] = id;
+            }
+            size++;
+        }
+
+        String id(int i) {
+            if (other != null && other[i] != null) {
+                return other[i];
+            }
+            return HexFormat.of().toHexDigits(hi[i]) + HexFormat.of().toHexDigits(lo[i]);
+        }
+
+        // Hands the entries over and leaves this slot empty, releasing its arrays
+        Slot detach() {
+            Slot taken = new Slot();
+            taken.size = size;
+            taken.due = due;
+            taken.hi = hi;
+            taken.lo = lo;
+            taken.other = other;
+            reset();
+            return taken;
+        }
+
+        void reset() {
+            size = 0;
+            due = null;
+            hi = null;
+            lo = null;
+            other = null;
+        }
+    }
+}
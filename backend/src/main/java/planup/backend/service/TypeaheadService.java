@@ -0,0 +1,135 @@
+package planup.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import planup.backend.dto.TypeaheadHit;
+import planup.backend.model.Membership;
+import planup.backend.model.Project;
+import planup.backend.model.User;
+import planup.backend.repository.ProjectRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Typeahead over users (fullName, email) and projects (name, key), one PrefixIndex per organization and
+// kind. Writes mark the affected organizations stale and the next search there rebuilds, as the mention
+// index does; the refresh interval bounds how long another instance's writes can go unseen.
+@Service
+public class TypeaheadService {
+    private static final int MAX_LIMIT = 50;
+
+    private final MongoTemplate mongoTemplate;
+    private final ProjectRepository projectRepository;
+    private final MembershipService membershipService;
+    private final long refreshMs;
+
+    private final Map<String, Slot> users = new ConcurrentHashMap<>();
+    private final Map<String, Slot> projects = new ConcurrentHashMap<>();
+
+    public TypeaheadService(MongoTemplate mongoTemplate, ProjectRepository projectRepository,
+                            MembershipService membershipService,
+                            @Value("${planup.typeahead.refresh-ms:300000}") long refreshMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.projectRepository = projectRepository;
+        this.membershipService = membershipService;
+        this.refreshMs = refreshMs;
+    }
+
+    public List<TypeaheadHit> searchUsers(String organizationId, String query, int limit) {
+        return search(users, organizationId, query, limit, this::loadUsers);
+    }
+
+    public List<TypeaheadHit> searchProjects(String organizationId, String query, int limit) {
+        return search(projects, organizationId, query, limit, this::loadProjects);
+    }
+
+    // organizationIds of a created/updated/deleted user; null when unknown marks every organization
+    public void invalidateUsers(Collection<String> organizationIds) {
+        invalidate(users, organizationIds);
+    }
+
+    @EventListener
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        invalidateUsers(event.organizationIds());
+    }
+
+    public void invalidateProjects(Collection<String> organizationIds) {
+        invalidate(projects, organizationIds);
+    }
+
+    private List<TypeaheadHit> search(Map<String, Slot> slots, String organizationId, String query, int limit,
+                                      Function<String, PrefixIndex> loader) {
+        if (organizationId == null || query == null || query.isBlank()) {
+            return List.of();
+        }
+        Slot slot = slots.computeIfAbsent(organizationId, k -> new Slot());
+        PrefixIndex index = slot.current(organizationId, loader, refreshMs);
+        List<PrefixIndex.Entry> found = index.search(query, Math.min(Math.max(limit, 1), MAX_LIMIT));
+        List<TypeaheadHit> hits = new ArrayList<>(found.size());
+        for (PrefixIndex.Entry entry : found) {
+            hits.add(new TypeaheadHit(entry.id(), entry.label(), entry.detail()));
+        }
+        return hits;
+    }
+
+    private void invalidate(Map<String, Slot> slots, Collection<String> organizationIds) {
+        if (organizationIds == null) {
+            slots.values().forEach(slot -> slot.stale = true);
+            return;
+        }
+        for (String organizationId : organizationIds) {
+            Slot slot = slots.get(organizationId);
+            if (slot != null) {
+                slot.stale = true;
+            }
+        }
+    }
+
+    private PrefixIndex loadUsers(String organizationId) {
+        Query query = Query.query(Criteria.where("id").in(membershipService.getMemberIds(Membership.ORGANIZATION, organizationId)));
+        query.fields().include("fullName").include("email");
+        List<PrefixIndex.Entry> entries = new ArrayList<>();
+        for (User user : mongoTemplate.find(query, User.class)) {
+            entries.add(new PrefixIndex.Entry(user.getId(), user.getFullName(), user.getEmail()));
+        }
+        return PrefixIndex.build(entries);
+    }
+
+    private PrefixIndex loadProjects(String organizationId) {
+        List<PrefixIndex.Entry> entries = new ArrayList<>();
+        for (Project project : projectRepository.findByOrganizationId(organizationId)) {
+            entries.add(new PrefixIndex.Entry(String.valueOf(project.getId()), project.getName(), project.getKey()));
+        }
+        return PrefixIndex.build(entries);
+    }
+
+    private static final class Slot {
+        private volatile PrefixIndex index;
+        private volatile long builtAt;
+        private volatile boolean stale = true;
+
+        PrefixIndex current(String organizationId, Function<String, PrefixIndex> loader, long refreshMs) {
+            PrefixIndex i = index;
+            if (i == null || stale || System.currentTimeMillis() - builtAt > refreshMs) {
+                synchronized (this) {
+                    i = index;
+                    if (i == null || stale || System.currentTimeMillis() - builtAt > refreshMs) {
+                        stale = false;
+                        i = loader.apply(organizationId);
+                        index = i;
+                        builtAt = System.currentTimeMillis();
+                    }
+                }
+            }
+            return i;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package planup.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import planup.backend.dto.UserProfile;
+import planup.backend.model.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Compact user profiles for hydrating lists. Cached per user id with a short TTL; whatever is missing or
+// expired for a page is fetched with a single $in query projected to the profile fields. Unknown ids are
+// simply absent from the result.
+@Service
+public class UserProfileService {
+    private final MongoTemplate mongoTemplate;
+    private final long ttlMs;
+    private final int maxSize;
+    private final Map<String, Cached> cache = new ConcurrentHashMap<>();
+
+    public UserProfileService(MongoTemplate mongoTemplate,
+                              @Value("${planup.user-profiles.ttl-ms:60000}") long ttlMs,
+                              @Value("${planup.user-profiles.max-size:20000}") int maxSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+    }
+
+    public Map<String, UserProfile> getProfiles(Collection<String> userIds) {
+        long now = System.currentTimeMillis();
+        Map<String, UserProfile> profiles = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String id : userIds) {
+            if (id == null) {
+                continue;
+            }
+            Cached cached = cache.get(id);
+            if (cached != null && now - cached.loadedAt() < ttlMs) {
+                profiles.put(id, cached.profile());
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return profiles;
+        }
+        Query query = Query.query(Criteria.where("id").in(missing));
+        query.fields().include("fullName").include("email").include("avatar");
+        if (cache.size() + missing.size() > maxSize) {
+            cache.clear();
+        }
+        for (User user : mongoTemplate.find(query, User.class)) {
+            UserProfile profile = new UserProfile(user.getId(), user.getFullName(), user.getEmail(), user.getAvatar());
+            cache.put(user.getId(), new Cached(profile, now));
+            profiles.put(user.getId(), profile);
+        }
+        return profiles;
+    }
+
+    // Profiles in the order of the requested ids, skipping unknown ones
+    public List<UserProfile> getProfilesInOrder(List<String> userIds) {
+        Map<String, UserProfile> profiles = getProfiles(userIds);
+        List<UserProfile> ordered = new ArrayList<>(profiles.size());
+        for (String id : new LinkedHashSet<>(userIds)) {
+            UserProfile profile = profiles.get(id);
+            if (profile != null) {
+                ordered.add(profile);
+            }
+        }
+        return ordered;
+    }
+
+    public void invalidate(String userId) {
+        cache.remove(userId);
+    }
+
+    private record Cached(UserProfile profile, long loadedAt) {
+    }
+}
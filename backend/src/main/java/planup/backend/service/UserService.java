@@ -2,6 +2,8 @@ package planup.backend.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import planup.backend.dto.UserProfile;
+import planup.backend.model.Membership;
 import planup.backend.model.User;
 import planup.backend.repository.UserRepository;
 
@@ -13,6 +15,12 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class UserService {
     private final UserRepository userRepository;
+    private final MentionService mentionService;
+    private final PermissionService permissionService;
+    private final PrincipalCache principalCache;
+    private final UserProfileService userProfileService;
+    private final TypeaheadService typeaheadService;
+    private final MembershipService membershipService;
 
     public List<User> getAllUsers() {
         return userRepository.findAll();
@@ -23,7 +31,7 @@ public class UserService {
     }
 
     public Optional<User> getUserByClerkId(String clerkId) {
-        return userRepository.findByClerkId(clerkId);
+        return principalCache.resolve(clerkId);
     }
 
     public Optional<User> getUserByEmail(String email) {
@@ -31,27 +39,58 @@ public class UserService {
     }
 
     public List<User> getUsersByOrganization(String organizationId) {
-        return userRepository.findByOrganizationIdsContaining(organizationId);
+        return userRepository.findAllById(membershipService.getMemberIds(Membership.ORGANIZATION, organizationId));
     }
 
     public List<User> getUsersByProject(String projectId) {
-        return userRepository.findByProjectIdsContaining(projectId);
+        return userRepository.findAllById(membershipService.getMemberIds(Membership.PROJECT, projectId));
     }
 
     public User createUser(User user) {
         user.setCreatedAt(new Date());
         user.setUpdatedAt(new Date());
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        membershipService.syncFromUser(saved);
+        principalCache.invalidateClerkId(saved.getClerkId());
+        typeaheadService.invalidateUsers(saved.getOrganizationIds() != null ? saved.getOrganizationIds() : List.of());
+        return saved;
     }
 
     public User updateUser(String id, User user) {
         user.setId(id);
         user.setUpdatedAt(new Date());
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        membershipService.syncFromUser(saved);
+        // handles may have changed in the organizations the user stays in, as recorded by the edges
+        List<String> organizationIds = membershipService.organizationIds(id);
+        mentionService.invalidate(organizationIds);
+        permissionService.invalidateUser(id);
+        principalCache.invalidateUser(id);
+        principalCache.invalidateClerkId(saved.getClerkId());
+        userProfileService.invalidate(id);
+        // organizations the user left are refreshed through the membership change event
+        typeaheadService.invalidateUsers(organizationIds);
+        return saved;
     }
 
     public void deleteUser(String id) {
         userRepository.deleteById(id);
+        membershipService.removeUser(id);
+        permissionService.invalidateUser(id);
+        principalCache.invalidateUser(id);
+        userProfileService.invalidate(id);
+    }
+
+    public List<UserProfile> getProfiles(List<String> ids) {
+        return userProfileService.getProfilesInOrder(ids);
+    }
+
+    public boolean can(String userId, String projectId, String permission) {
+        return permissionService.can(userId, projectId, permission);
+    }
+
+    public List<String> getPermissions(String userId, String projectId) {
+        return permissionService.permissions(userId, projectId);
     }
 
     public User createUserFromClerk(String clerkId, String email, String firstName, String lastName) {
@@ -67,6 +106,8 @@ public class UserService {
                 .role("viewer")
                 .permissions(List.of("view-reports"))
                 .build();
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        principalCache.invalidateClerkId(clerkId);
+        return saved;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,113 @@
+package planup.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import planup.backend.model.Issue;
+import planup.backend.model.Workflow;
+import planup.backend.repository.WorkflowRepository;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Workflow CRUD plus the compiled state machines used to validate issue status changes. Machines are cached
+// per workflowId, and per project for issues that follow their project's workflow, so validating an
+// update needs no database read. Every workflow write clears both caches; the TTL bounds how long another
+// instance's edit can go unnoticed.
+@Service
+public class WorkflowService {
+    private static final int MAX_CACHED = 10_000;
+
+    private final WorkflowRepository workflowRepository;
+    private final long cacheTtlMs;
+    private final Map<String, Cached> byWorkflow = new ConcurrentHashMap<>();
+    private final Map<String, Cached> byProject = new ConcurrentHashMap<>();
+
+    public WorkflowService(WorkflowRepository workflowRepository,
+                           @Value("${planup.workflows.cache-ttl-ms:60000}") long cacheTtlMs) {
+        this.workflowRepository = workflowRepository;
+        this.cacheTtlMs = cacheTtlMs;
+    }
+
+    public List<Workflow> getAllWorkflows() {
+        return workflowRepository.findAll();
+    }
+
+    public List<Workflow> getWorkflowsByProject(String projectId) {
+        return workflowRepository.findByProjectId(projectId);
+    }
+
+    public Optional<Workflow> getWorkflowById(String id) {
+        return workflowRepository.findById(id);
+    }
+
+    public Workflow createWorkflow(Workflow workflow) {
+        workflow.setCreatedAt(new Date());
+        workflow.setUpdatedAt(new Date());
+        Workflow saved = workflowRepository.save(workflow);
+        invalidateAll();
+        return saved;
+    }
+
+    public Workflow updateWorkflow(String id, Workflow workflow) {
+        workflow.setId(id);
+        workflow.setUpdatedAt(new Date());
+        Workflow saved = workflowRepository.save(workflow);
+        invalidateAll();
+        return saved;
+    }
+
+    public void deleteWorkflow(String id) {
+        workflowRepository.deleteById(id);
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        byWorkflow.clear();
+        byProject.clear();
+    }
+
+    // The issue's own workflow if it has one, else its project's default (or first) workflow
+    public WorkflowStateMachine stateMachineFor(Issue issue) {
+        if (issue.getWorkflowId() != null) {
+            return cached(byWorkflow, issue.getWorkflowId(), () -> workflowRepository.findById(issue.getWorkflowId())
+                    .map(WorkflowStateMachine::compile)
+                    .orElse(WorkflowStateMachine.UNRESTRICTED));
+        }
+        if (issue.getProjectId() != null) {
+            return cached(byProject, issue.getProjectId(), () -> workflowRepository.findByProjectId(issue.getProjectId())
+                    .stream()
+                    .min(Comparator.comparing((Workflow w) -> !w.isDefault()).thenComparing(w -> !w.isActive()))
+                    .map(WorkflowStateMachine::compile)
+                    .orElse(WorkflowStateMachine.UNRESTRICTED));
+        }
+        return WorkflowStateMachine.UNRESTRICTED;
+    }
+
+    // Throws InvalidTransitionException when `issue` (as stored) may not move to toStatus
+    public void checkTransition(Issue issue, String toStatus) {
+        if (!stateMachineFor(issue).canTransition(issue.getStatus(), toStatus)) {
+            throw new InvalidTransitionException(issue.getStatus(), toStatus);
+        }
+    }
+
+    private WorkflowStateMachine cached(Map<String, Cached> cache, String key, Supplier<WorkflowStateMachine> loader) {
+        long now = System.currentTimeMillis();
+        Cached entry = cache.get(key);
+        if (entry != null && now - entry.loadedAt() < cacheTtlMs) {
+            return entry.machine();
+        }
+        if (cache.size() >= MAX_CACHED) {
+            cache.clear();
+        }
+        return cache.compute(key, (k, current) -> current != null && now - current.loadedAt() < cacheTtlMs
+                ? current : new Cached(loader.get(), now)).machine();
+    }
+
+    private record Cached(WorkflowStateMachine machine, long loadedAt) {
+    }
+}
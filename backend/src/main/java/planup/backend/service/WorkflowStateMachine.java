@@ -0,0 +1,89 @@
+package planup.backend.service;
+
+import planup.backend.model.Workflow;
+import planup.backend.model.WorkflowTransition;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable compiled form of a Workflow: status names map to dense ints and the allowed transitions are a
+// bit matrix (one row of longs per source status), so a transition check is two map lookups and a bit test.
+// A workflow without transitions allows any move between its statuses.
+public final class WorkflowStateMachine {
+    // Used for issues without a workflow: every status change is allowed
+    public static final WorkflowStateMachine UNRESTRICTED = new WorkflowStateMachine(Map.of(), List.of(), null, 0);
+
+    private final Map<String, Integer> index;
+    private final List<String> statuses;
+    private final long[] allowed;
+    private final int words;
+
+    private WorkflowStateMachine(Map<String, Integer> index, List<String> statuses, long[] allowed, int words) {
+        this.index = index;
+        this.statuses = statuses;
+        this.allowed = allowed;
+        this.words = words;
+    }
+
+    public static WorkflowStateMachine compile(Workflow workflow) {
+        List<String> statuses = workflow.getStatuses() == null ? List.of() : List.copyOf(workflow.getStatuses());
+        if (statuses.isEmpty()) {
+            return UNRESTRICTED;
+        }
+        Map<String, Integer> index = new HashMap<>();
+        for (String status : statuses) {
+            index.putIfAbsent(status, index.size());
+        }
+        int n = index.size();
+        int words = (n + 63) >>> 6;
+        long[] allowed = new long[n * words];
+        List<WorkflowTransition> transitions = workflow.getTransitions();
+        if (transitions == null || transitions.isEmpty()) {
+            for (int from = 0; from < n; from++) {
+                for (int to = 0; to < n; to++) {
+                    allowed[from * words + (to >>> 6)] |= 1L << to;
+                }
+            }
+        } else {
+            for (WorkflowTransition t : transitions) {
+                Integer from = index.get(t.getFromStatus());
+                Integer to = index.get(t.getToStatus());
+                if (from != null && to != null) {
+                    allowed[from * words + (to >>> 6)] |= 1L << to;
+                }
+            }
+        }
+        return new WorkflowStateMachine(Map.copyOf(index), statuses, allowed, words);
+    }
+
+    public boolean isUnrestricted() {
+        return allowed == null;
+    }
+
+    public boolean isKnown(String status) {
+        return allowed == null || status != null && index.containsKey(status);
+    }
+
+    // The first status of the workflow, or null when unrestricted
+    public String initialStatus() {
+        return statuses.isEmpty() ? null : statuses.get(0);
+    }
+
+    // Staying in the same status is always allowed. An issue with no status, or one the workflow no longer
+    // has, may move to any status of the workflow.
+    public boolean canTransition(String fromStatus, String toStatus) {
+        if (allowed == null || (toStatus != null && toStatus.equals(fromStatus))) {
+            return true;
+        }
+        Integer to = toStatus == null ? null : index.get(toStatus);
+        if (to == null) {
+            return false;
+        }
+        Integer from = fromStatus == null ? null : index.get(fromStatus);
+        if (from == null) {
+            return true;
+        }
+        return (allowed[from * words + (to >>> 6)] & (1L << to)) != 0;
+    }
+}
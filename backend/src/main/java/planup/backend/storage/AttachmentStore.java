@@ -0,0 +1,53 @@
+package planup.backend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+
+// Content-addressed blob storage for attachment bytes. Blobs are keyed by the SHA-256 of their content,
+// so storing the same file twice returns the same hash and keeps a single copy.
+public interface AttachmentStore {
+
+    // Streams the content into a staging area and hashes it; fails with BlobTooLargeException once more than
+    // maxBytes were read. Nothing is visible under the hash until commit; closing drops whatever wasn't committed.
+    StagedBlob stage(InputStream content, long maxBytes) throws IOException;
+
+    // Makes the staged content available under its hash; a no-op when the same content is already stored
+    void commit(StagedBlob blob) throws IOException;
+
+    Optional<Blob> open(String hash) throws IOException;
+
+    // Removes the blob together with everything derived from it
+    void delete(String hash) throws IOException;
+
+    // Derived renditions (thumbnails, previews) are keyed by the source hash plus a variant name, so identical
+    // uploads share them as well
+    Optional<Blob> openDerived(String hash, String variant) throws IOException;
+
+    void storeDerived(String hash, String variant, byte[] content) throws IOException;
+
+    interface StagedBlob extends AutoCloseable {
+        String hash();
+
+        long size();
+
+        @Override
+        void close() throws IOException;
+    }
+
+    interface Blob {
+        String hash();
+
+        long size();
+
+        // A FileChannel when the store is file-backed, so callers can use transferTo
+        SeekableByteChannel channel() throws IOException;
+
+        // Set when the blob is a plain local file, which lets the servlet container use sendfile
+        default Optional<Path> file() {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package planup.backend.storage;
+
+public class BlobTooLargeException extends RuntimeException {
+    public BlobTooLargeException(long maxBytes) {
+        super("Attachment exceeds the maximum size of " + maxBytes + " bytes");
+    }
+}
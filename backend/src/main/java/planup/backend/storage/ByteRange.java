@@ -0,0 +1,50 @@
+package planup.backend.storage;
+
+import java.util.Optional;
+
+// A single satisfiable "bytes=" range, end inclusive. Multi-range requests are answered with the full
+// content, which RFC 9110 allows.
+public record ByteRange(long start, long end) {
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    public String contentRange(long size) {
+        return "bytes " + start + "-" + end + "/" + size;
+    }
+
+    // Empty when there is no usable Range header; throws IllegalArgumentException when it can't be satisfied
+    public static Optional<ByteRange> parse(String header, long size) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return Optional.empty();
+        }
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return Optional.empty();
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) throw new IllegalArgumentException("Unsatisfiable range");
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            }
+            if (start >= size || start > end) {
+                throw new IllegalArgumentException("Unsatisfiable range");
+            }
+            return Optional.of(new ByteRange(start, end));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
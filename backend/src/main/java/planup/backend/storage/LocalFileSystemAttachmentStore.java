@@ -0,0 +1,169 @@
+package planup.backend.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+// Blobs live at <root>/<h0h1>/<h2h3>/<sha256>, derived renditions beside them. Uploads are streamed through
+// a 64 KB buffer into a temp file under <root>/tmp while hashing, then atomically renamed to their content address
+// on commit.
+@Component
+public class LocalFileSystemAttachmentStore implements AttachmentStore {
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern VARIANT = Pattern.compile("[a-z0-9-]{1,32}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final Path tmp;
+
+    public LocalFileSystemAttachmentStore(@Value("${planup.attachments.dir:data/attachments}") String dir) throws IOException {
+        this.root = Paths.get(dir).toAbsolutePath().normalize();
+        this.tmp = root.resolve("tmp");
+        Files.createDirectories(tmp);
+    }
+
+    @Override
+    public StagedBlob stage(InputStream content, long maxBytes) throws IOException {
+        MessageDigest digest = sha256();
+        Path part = Files.createTempFile(tmp, "upload-", ".part");
+        long size = 0;
+        try {
+            try (OutputStream out = Files.newOutputStream(part, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int n;
+                while ((n = content.read(buffer)) != -1) {
+                    size += n;
+                    if (size > maxBytes) {
+                        throw new BlobTooLargeException(maxBytes);
+                    }
+                    digest.update(buffer, 0, n);
+                    out.write(buffer, 0, n);
+                }
+            }
+            return new PartBlob(HexFormat.of().formatHex(digest.digest()), size, part);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+    }
+
+    @Override
+    public void commit(StagedBlob blob) throws IOException {
+        Path part = ((PartBlob) blob).part();
+        Path target = path(blob.hash());
+        if (!Files.exists(target)) {
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // a concurrent upload of the same content won the rename; its copy is identical
+            }
+        }
+    }
+
+    @Override
+    public Optional<Blob> open(String hash) throws IOException {
+        Path path = path(hash);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        long size = Files.size(path);
+        return Optional.of(new FileBlob(hash, size, path));
+    }
+
+    @Override
+    public void delete(String hash) throws IOException {
+        Path blob = path(hash);
+        Files.deleteIfExists(blob);
+        if (!Files.isDirectory(blob.getParent())) {
+            return;
+        }
+        try (DirectoryStream<Path> derived = Files.newDirectoryStream(blob.getParent(), hash + ".*")) {
+            for (Path path : derived) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Override
+    public Optional<Blob> openDerived(String hash, String variant) throws IOException {
+        Path path = derivedPath(hash, variant);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(new FileBlob(hash, Files.size(path), path));
+    }
+
+    @Override
+    public void storeDerived(String hash, String variant, byte[] content) throws IOException {
+        Path target = derivedPath(hash, variant);
+        Files.createDirectories(target.getParent());
+        Path part = Files.createTempFile(tmp, "derived-", ".part");
+        try {
+            Files.write(part, content);
+            Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    // Derived renditions are stored next to the blob as <sha256>.<variant>
+    public Path path(String hash) {
+        if (!HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid content hash");
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private Path derivedPath(String hash, String variant) {
+        if (!VARIANT.matcher(variant).matches()) {
+            throw new IllegalArgumentException("Invalid variant");
+        }
+        Path blob = path(hash);
+        return blob.resolveSibling(hash + "." + variant);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record PartBlob(String hash, long size, Path part) implements StagedBlob {
+        @Override
+        public void close() throws IOException {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    private record FileBlob(String hash, long size, Path path) implements Blob {
+        @Override
+        public SeekableByteChannel channel() throws IOException {
+            return FileChannel.open(path, StandardOpenOption.READ);
+        }
+
+        @Override
+        public Optional<Path> file() {
+            return Optional.of(path);
+        }
+    }
+}
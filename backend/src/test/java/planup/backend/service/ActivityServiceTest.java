@@ -0,0 +1,220 @@
+package planup.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import planup.backend.dto.ActivityPage;
+import planup.backend.model.Activity;
+import planup.backend.model.ActivityBucket;
+import planup.backend.repository.ActivityBucketRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ActivityServiceTest {
+    private static final String PROJECT = "p1";
+    private static final long HOUR = 3_600_000;
+    private static final long BASE = 472_222 * HOUR;
+
+    private final ActivityBucketRepository repository = mock(ActivityBucketRepository.class);
+    private final List<ActivityBucket> stored = new ArrayList<>();
+    private final List<Activity> all = new ArrayList<>();
+    private ActivityService service;
+    private int nextId;
+
+    // Serves stored buckets the way the repository queries do: newest hour first, from an hour or after a bucket
+    @BeforeEach
+    void setUp() {
+        when(repository.findByProjectIdAndHourStartLessThanEqualOrderByHourStartDescIdDesc(eq(PROJECT), any(Date.class), any(Limit.class)))
+                .thenAnswer(invocation -> {
+                    Date from = invocation.getArgument(1);
+                    Limit limit = invocation.getArgument(2);
+                    return read(bucket -> !bucket.getHourStart().after(from), limit);
+                });
+        when(repository.findPageAfter(eq(PROJECT), any(Date.class), any(String.class), any(Limit.class)))
+                .thenAnswer(invocation -> {
+                    Date hour = invocation.getArgument(1);
+                    String id = invocation.getArgument(2);
+                    Limit limit = invocation.getArgument(3);
+                    return read(bucket -> bucket.getHourStart().before(hour)
+                            || bucket.getHourStart().equals(hour) && bucket.getId().compareTo(id) < 0, limit);
+                });
+        service = new ActivityService(mock(MongoTemplate.class), repository, 10, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private List<ActivityBucket> read(Predicate<ActivityBucket> filter, Limit limit) {
+        return stored.stream()
+                .filter(filter)
+                .sorted(Comparator.comparing(ActivityBucket::getHourStart).thenComparing(ActivityBucket::getId).reversed())
+                .limit(limit.max())
+                .toList();
+    }
+
+    // Events in arrival order, which is not (timestamp, id) order
+    private void bucket(long hourStart, long... timestamps) {
+        List<Activity> events = new ArrayList<>();
+        for (long timestamp : timestamps) {
+            events.add(Activity.builder()
+                    .id(String.format("%024x", nextId++))
+                    .projectId(PROJECT)
+                    .timestamp(new Date(timestamp))
+                    .build());
+        }
+        Collections.shuffle(events, new Random(nextId));
+        stored.add(ActivityBucket.builder()
+                .id(String.format("b%03d", stored.size()))
+                .projectId(PROJECT)
+                .hourStart(new Date(hourStart))
+                .count(events.size())
+                .events(events)
+                .build());
+        all.addAll(events);
+    }
+
+    private static long[] repeat(long timestamp, int times) {
+        long[] timestamps = new long[times];
+        Arrays.fill(timestamps, timestamp);
+        return timestamps;
+    }
+
+    private List<Activity> readAll(int pageSize) {
+        List<Activity> read = new ArrayList<>();
+        String cursor = null;
+        for (int pages = 0; pages < 100; pages++) {
+            ActivityPage page = service.getActivity(PROJECT, cursor, null, pageSize);
+            assertTrue(page.getActivities().size() <= pageSize);
+            read.addAll(page.getActivities());
+            cursor = page.getNextCursor();
+            if (cursor == null) {
+                return read;
+            }
+        }
+        throw new AssertionError("paging did not end");
+    }
+
+    // A busy millisecond larger than a page, spilling over two buckets of its hour, is neither skipped nor repeated
+    @Test
+    void pagesThroughSameMillisecondEventsWithoutGapsOrRepeats() {
+        bucket(BASE, repeat(BASE + 1000, 12));
+        bucket(BASE, repeat(BASE + 1000, 8));
+        bucket(BASE - HOUR, BASE - 10, BASE - 10, BASE - 20, BASE - HOUR, BASE - HOUR);
+        bucket(BASE - 3 * HOUR, BASE - 2 * HOUR - 1, BASE - 3 * HOUR);
+        List<Activity> expected = new ArrayList<>(all);
+        expected.sort(ActivityService.NEWEST_FIRST);
+
+        for (int pageSize : new int[]{1, 3, 7, 20, 27, 200}) {
+            assertEquals(ids(expected), ids(readAll(pageSize)), "page size " + pageSize);
+        }
+    }
+
+    // A flush opening another bucket of an hour already read must not shift the buckets still to be read
+    @Test
+    void bucketOpenedDuringAReadShiftsNothing() {
+        for (int hour = 0; hour < 6; hour++) {
+            bucket(BASE - hour * HOUR, BASE - hour * HOUR + 1, BASE - hour * HOUR + 2);
+        }
+        List<Activity> expected = new ArrayList<>(all);
+        expected.sort(ActivityService.NEWEST_FIRST);
+        when(repository.findByProjectIdAndHourStartLessThanEqualOrderByHourStartDescIdDesc(eq(PROJECT), any(Date.class), any(Limit.class)))
+                .thenAnswer(invocation -> {
+                    Date from = invocation.getArgument(1);
+                    Limit limit = invocation.getArgument(2);
+                    List<ActivityBucket> page = read(bucket -> !bucket.getHourStart().after(from), limit);
+                    bucket(BASE - HOUR, BASE - 10);
+                    return page;
+                });
+
+        ActivityPage page = service.getActivity(PROJECT, null, null, 200);
+
+        assertEquals(ids(expected), ids(page.getActivities()));
+    }
+
+    @Test
+    void emptyTimelineHasOneEmptyPage() {
+        ActivityPage page = service.getActivity(PROJECT, null, null, 20);
+
+        assertTrue(page.getActivities().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void beforeExcludesItsWholeMillisecond() {
+        bucket(BASE, BASE + 5, BASE + 5, BASE + 4, BASE + 6);
+
+        ActivityPage page = service.getActivity(PROJECT, null, BASE + 5, 20);
+
+        assertEquals(1, page.getActivities().size());
+        assertEquals(new Date(BASE + 4), page.getActivities().get(0).getTimestamp());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void cursorTakesPrecedenceOverBefore() {
+        bucket(BASE, BASE + 1, BASE + 2, BASE + 3);
+        String cursor = service.getActivity(PROJECT, null, null, 1).getNextCursor();
+
+        ActivityPage page = service.getActivity(PROJECT, cursor, BASE + 1, 20);
+
+        assertEquals(List.of(new Date(BASE + 2), new Date(BASE + 1)),
+                page.getActivities().stream().map(Activity::getTimestamp).toList());
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(ResponseStatusException.class, () -> service.getActivity(PROJECT, "not a cursor", null, 20));
+    }
+
+    @Test
+    void failedFlushIsWrittenAgain() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        BulkOperations bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(ActivityBucket.class))).thenReturn(bulk);
+        when(bulk.execute()).thenThrow(new DataAccessResourceFailureException("down")).thenReturn(null);
+        ActivityService flushing = new ActivityService(mongoTemplate, repository, 10, 60_000);
+        ReflectionTestUtils.setField(flushing, "bucketMaxEvents", 500);
+        try {
+            flushing.onActivity(Activity.builder().projectId(PROJECT).build());
+
+            assertThrows(DataAccessResourceFailureException.class, flushing::flush);
+            assertEquals(1, flushing.flush());
+            assertEquals(0, flushing.flush());
+            verify(bulk, times(2)).upsert(any(Query.class), any(Update.class));
+        } finally {
+            flushing.shutdown();
+        }
+    }
+
+    private static List<String> ids(List<Activity> activities) {
+        return activities.stream().map(Activity::getId).toList();
+    }
+}
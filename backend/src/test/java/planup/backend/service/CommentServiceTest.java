@@ -0,0 +1,97 @@
+package planup.backend.service;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.web.server.ResponseStatusException;
+import planup.backend.dto.CommentPage;
+import planup.backend.model.Comment;
+import planup.backend.repository.CommentRepository;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CommentServiceTest {
+    private static final Date AT = new Date(1_700_000_000_000L);
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final CommentService service = new CommentService(mock(CommentRepository.class), mongoTemplate, mock(MentionService.class));
+
+    private static List<Comment> comments(int count) {
+        List<Comment> comments = new ArrayList<>();
+        for (int i = count; i > 0; i--) {
+            comments.add(Comment.builder().id(String.format("%024x", i)).issueId("i1").timestamp(AT).build());
+        }
+        return comments;
+    }
+
+    private Query executedQuery() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Comment.class));
+        return query.getValue();
+    }
+
+    @Test
+    void firstPageReadsOneExtraToDetectTheNextPage() {
+        when(mongoTemplate.find(any(Query.class), eq(Comment.class))).thenReturn(comments(4));
+
+        CommentPage page = service.getComments("i1", null, 3);
+
+        assertEquals(3, page.getComments().size());
+        assertEquals(new KeysetCursor(AT, String.format("%024x", 2)), KeysetCursor.decode(page.getNextCursor()));
+        Query query = executedQuery();
+        assertEquals(4, query.getLimit());
+        assertEquals(new Document("issueId", "i1"), query.getQueryObject());
+        assertEquals(new Document("timestamp", -1).append("id", -1), query.getSortObject());
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        when(mongoTemplate.find(any(Query.class), eq(Comment.class))).thenReturn(comments(3));
+
+        CommentPage page = service.getComments("i1", null, 3);
+
+        assertEquals(3, page.getComments().size());
+        assertNull(page.getNextCursor());
+    }
+
+    // Strictly after the cursor in (timestamp, id) descending order, so comments sharing its millisecond stay reachable
+    @Test
+    void cursorContinuesAfterTheLastItemOfThePreviousPage() {
+        when(mongoTemplate.find(any(Query.class), eq(Comment.class))).thenReturn(List.of());
+        String cursor = new KeysetCursor(AT, "c5").encode();
+
+        service.getComments("i1", cursor, 20);
+
+        Document expected = new Document("issueId", "i1").append("$or", List.of(
+                new Document("timestamp", new Document("$lt", AT)),
+                new Document("timestamp", AT).append("id", new Document("$lt", "c5"))));
+        assertEquals(expected, executedQuery().getQueryObject());
+    }
+
+    @Test
+    void pageSizeIsClamped() {
+        when(mongoTemplate.find(any(Query.class), eq(Comment.class))).thenReturn(List.of());
+
+        service.getComments("i1", null, 10_000);
+
+        assertEquals(CommentService.MAX_PAGE_SIZE + 1, executedQuery().getLimit());
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(ResponseStatusException.class, () -> service.getComments("i1", "%%%", 20));
+    }
+}
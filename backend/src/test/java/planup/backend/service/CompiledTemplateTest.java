@@ -0,0 +1,82 @@
+package planup.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledTemplateTest {
+    private static final Map<String, String> VALUES = Map.of("project", "Mobile", "user", "Ana");
+
+    @Test
+    void substitutesVariablesInEveryField() {
+        CompiledTemplate template = CompiledTemplate.compile(Map.of(
+                "title", "[{{project}}] Bug",
+                "description", "Reported by {{ user }} in {{project}}."));
+
+        assertEquals("[Mobile] Bug", template.render("title", VALUES::get));
+        assertEquals("Reported by Ana in Mobile.", template.render("description", VALUES::get));
+        assertEquals(Set.of("project", "user"), template.variables());
+        assertEquals(Set.of("title", "description"), template.fields());
+    }
+
+    @Test
+    void placeholdersAtTheEdgesAndBackToBack() {
+        CompiledTemplate template = CompiledTemplate.compile(Map.of("title", "{{user}}{{project}}"));
+
+        assertEquals("AnaMobile", template.render("title", VALUES::get));
+    }
+
+    @Test
+    void unknownVariablesRenderEmpty() {
+        CompiledTemplate template = CompiledTemplate.compile(Map.of("title", "Fix {{missing}} now"));
+
+        assertEquals("Fix  now", template.render("title", VALUES::get));
+    }
+
+    @Test
+    void unclosedPlaceholderStaysLiteral() {
+        CompiledTemplate template = CompiledTemplate.compile(Map.of(
+                "title", "a {{x",
+                "description", "{{user}} wrote {{ half",
+                "stray", "a }} b {"));
+
+        assertEquals("a {{x", template.render("title", VALUES::get));
+        assertEquals("Ana wrote {{ half", template.render("description", VALUES::get));
+        assertEquals("a }} b {", template.render("stray", VALUES::get));
+        assertEquals(Set.of("user"), template.variables());
+    }
+
+    @Test
+    void extraClosingBracesAreLiteral() {
+        CompiledTemplate template = CompiledTemplate.compile(Map.of("title", "{{user}}}!"));
+
+        assertEquals("Ana}!", template.render("title", VALUES::get));
+    }
+
+    @Test
+    void fieldsWithoutPlaceholdersAreReturnedAsIs() {
+        CompiledTemplate template = CompiledTemplate.compile(Map.of("title", "Plain title"));
+
+        assertEquals("Plain title", template.render("title", name -> {
+            throw new AssertionError("looked up " + name);
+        }));
+        assertTrue(template.variables().isEmpty());
+    }
+
+    @Test
+    void missingFieldsRenderNullAndNullTextRendersEmpty() {
+        Map<String, String> source = new HashMap<>();
+        source.put("title", null);
+        CompiledTemplate template = CompiledTemplate.compile(source);
+
+        assertEquals("", template.render("title", VALUES::get));
+        assertNull(template.render("description", VALUES::get));
+        assertTrue(CompiledTemplate.compile(null).fields().isEmpty());
+    }
+}
@@ -0,0 +1,151 @@
+package planup.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdeaLeaderboardTest {
+
+    private static IdeaLeaderboard board(int capacity, Object... ideaVotes) {
+        List<IdeaLeaderboard.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < ideaVotes.length; i += 2) {
+            entries.add(new IdeaLeaderboard.Entry((String) ideaVotes[i], (Integer) ideaVotes[i + 1]));
+        }
+        return new IdeaLeaderboard(capacity, entries, 0);
+    }
+
+    private static List<String> ids(List<IdeaLeaderboard.Entry> entries) {
+        return entries.stream().map(IdeaLeaderboard.Entry::ideaId).toList();
+    }
+
+    @Test
+    void topIsStrongestFirstWithTiesByIdeaId() {
+        IdeaLeaderboard board = board(5, "c", 3, "a", 1, "b", 3, "d", 7);
+
+        assertEquals(List.of("d", "b", "c", "a"), ids(board.top(10)));
+        assertEquals(List.of("d", "b"), ids(board.top(2)));
+    }
+
+    @Test
+    void strongerIdeaEvictsTheWeakestAndWeakerOneIsIgnored() {
+        IdeaLeaderboard board = board(2, "a", 5, "b", 3);
+
+        board.update("c", 4);
+        assertEquals(List.of("a", "c"), ids(board.top(10)));
+
+        board.update("d", 1);
+        assertEquals(List.of("a", "c"), ids(board.top(10)));
+        assertFalse(board.incomplete());
+    }
+
+    @Test
+    void votesOnBoardReorderIt() {
+        IdeaLeaderboard board = board(3, "a", 5, "b", 3, "c", 1);
+
+        board.update("c", 9);
+        board.update("a", 4);
+
+        assertEquals(List.of("c", "a", "b"), ids(board.top(10)));
+        assertFalse(board.incomplete());
+    }
+
+    // An idea off the board may have as many votes as the minimum, so a board entry falling below it is suspect
+    @Test
+    void droppingBelowTheMinimumOfAFullBoardInvalidatesIt() {
+        IdeaLeaderboard board = board(2, "a", 5, "b", 3);
+
+        board.update("a", 3);
+        assertFalse(board.incomplete());
+
+        board.update("a", 2);
+        assertTrue(board.incomplete());
+    }
+
+    @Test
+    void boardHoldingEveryIdeaStaysComplete() {
+        IdeaLeaderboard board = board(5, "a", 5, "b", 3);
+
+        board.update("a", 0);
+        board.remove("b");
+
+        assertEquals(List.of("a"), ids(board.top(10)));
+        assertFalse(board.incomplete());
+    }
+
+    @Test
+    void boardStopsHoldingEveryIdeaOnceAnIdeaIsTurnedAway() {
+        IdeaLeaderboard board = board(2, "a", 5);
+        board.update("b", 3);
+        board.update("c", 1);
+
+        board.update("b", 0);
+
+        assertTrue(board.incomplete());
+    }
+
+    @Test
+    void removalFromAFullBoardInvalidatesIt() {
+        IdeaLeaderboard board = board(2, "a", 5, "b", 3);
+
+        board.remove("unknown");
+        assertFalse(board.incomplete());
+
+        board.remove("a");
+        assertTrue(board.incomplete());
+        assertEquals(List.of("b"), ids(board.top(10)));
+    }
+
+    // Random votes, new ideas and deletions against the full set of ideas: whenever the board claims to be
+    // complete it shows exactly the top vote counts, and reloading when it doesn't restores that
+    @Test
+    void completeBoardAlwaysMatchesTheTrueTop() {
+        int capacity = 5;
+        SplittableRandom random = new SplittableRandom(3);
+        Map<String, Integer> votes = new HashMap<>();
+        IdeaLeaderboard board = reload(capacity, votes);
+        for (int step = 0; step < 20_000; step++) {
+            String idea = "idea-" + random.nextInt(30);
+            int action = random.nextInt(10);
+            if (action == 0) {
+                if (votes.remove(idea) != null) {
+                    board.remove(idea);
+                }
+            } else {
+                int current = votes.getOrDefault(idea, 0);
+                int next = Math.max(0, current + (action < 7 ? 1 : -1) * random.nextInt(1, 4));
+                votes.put(idea, next);
+                board.update(idea, next);
+            }
+            if (board.incomplete()) {
+                board = reload(capacity, votes);
+            }
+            List<IdeaLeaderboard.Entry> top = board.top(capacity);
+            for (IdeaLeaderboard.Entry entry : top) {
+                assertEquals((int) votes.get(entry.ideaId()), entry.upvotes(), "step " + step);
+            }
+            assertEquals(trueTop(capacity, votes), top.stream().map(IdeaLeaderboard.Entry::upvotes).toList(), "step " + step);
+        }
+    }
+
+    private static IdeaLeaderboard reload(int capacity, Map<String, Integer> votes) {
+        List<IdeaLeaderboard.Entry> loaded = votes.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(capacity)
+                .map(e -> new IdeaLeaderboard.Entry(e.getKey(), e.getValue()))
+                .toList();
+        return new IdeaLeaderboard(capacity, loaded, 0);
+    }
+
+    private static List<Integer> trueTop(int capacity, Map<String, Integer> votes) {
+        return votes.values().stream().sorted(Comparator.reverseOrder()).limit(capacity).toList();
+    }
+}
@@ -0,0 +1,63 @@
+package planup.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetCursorTest {
+    private static final Date AT = new Date(1_700_000_000_000L);
+    private static final KeysetCursor CURSOR = new KeysetCursor(AT, "65f0a1b2c3d4e5f60718293b");
+
+    @Test
+    void olderItemsAndSameMillisecondSmallerIdsComeAfterTheCursor() {
+        assertTrue(CURSOR.precedes(new Date(AT.getTime() - 1), "ffffffffffffffffffffffff"));
+        assertTrue(CURSOR.precedes(AT, "65f0a1b2c3d4e5f60718293a"));
+    }
+
+    @Test
+    void theCursorItemAndNewerItemsDoNotComeAfterIt() {
+        assertFalse(CURSOR.precedes(AT, "65f0a1b2c3d4e5f60718293b"));
+        assertFalse(CURSOR.precedes(AT, "65f0a1b2c3d4e5f60718293c"));
+        assertFalse(CURSOR.precedes(new Date(AT.getTime() + 1), "000000000000000000000000"));
+    }
+
+    // An empty id stands for "before this millisecond", as used for ?before=
+    @Test
+    void emptyIdExcludesTheWholeMillisecond() {
+        KeysetCursor before = new KeysetCursor(AT, "");
+
+        assertFalse(before.precedes(AT, "000000000000000000000000"));
+        assertTrue(before.precedes(new Date(AT.getTime() - 1), "ffffffffffffffffffffffff"));
+    }
+
+    @Test
+    void roundTripsThroughAnUrlSafeToken() {
+        String token = CURSOR.encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+        assertEquals(CURSOR, KeysetCursor.decode(token));
+        KeysetCursor odd = new KeysetCursor(new Date(0), "a:b/c?");
+        assertEquals(odd, KeysetCursor.decode(odd.encode()));
+    }
+
+    @Test
+    void malformedTokensAreBadRequests() {
+        for (String token : new String[]{"", "%%%", encode("no-colon"), encode("abc:id"), encode(":id")}) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> KeysetCursor.decode(token));
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        }
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,50 @@
+package planup.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinHashTest {
+
+    @Test
+    void ignoresCasePunctuationAndWhitespace() {
+        assertArrayEquals(MinHash.signature("login fails on Safari"),
+                MinHash.signature("  Login -- FAILS on\tsafari!  "));
+    }
+
+    @Test
+    void identicalTextIsFullySimilar() {
+        int[] a = MinHash.signature("Export to CSV drops the last row");
+        assertEquals(1.0, MinHash.similarity(a, MinHash.signature("Export to CSV drops the last row")), 0.0);
+    }
+
+    @Test
+    void estimatesJaccardOfShingles() {
+        String base = "the board view does not refresh after dragging a card between columns";
+        double close = MinHash.similarity(MinHash.signature(base),
+                MinHash.signature(base + " on mobile"));
+        double unrelated = MinHash.similarity(MinHash.signature(base),
+                MinHash.signature("add dark mode to the settings page of the mobile app"));
+
+        assertTrue(close >= 0.7, "close texts estimated at " + close);
+        assertTrue(unrelated <= 0.2, "unrelated texts estimated at " + unrelated);
+    }
+
+    @Test
+    void textShorterThanOneShingleStillHashes() {
+        assertTrue(MinHash.hasShingles("ab"));
+        assertEquals(1.0, MinHash.similarity(MinHash.signature("ab"), MinHash.signature("AB")), 0.0);
+        assertTrue(MinHash.similarity(MinHash.signature("ab"), MinHash.signature("cd")) < 1.0);
+    }
+
+    @Test
+    void textWithoutLettersOrDigitsHasNoShingles() {
+        assertFalse(MinHash.hasShingles(null));
+        assertFalse(MinHash.hasShingles(""));
+        assertFalse(MinHash.hasShingles(" ?! -- "));
+        assertTrue(MinHash.hasShingles(" ?! x "));
+    }
+}
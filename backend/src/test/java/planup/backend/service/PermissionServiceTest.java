@@ -0,0 +1,76 @@
+package planup.backend.service;
+
+import org.junit.jupiter.api.Test;
+import planup.backend.model.Membership;
+import planup.backend.model.Role;
+import planup.backend.model.User;
+import planup.backend.repository.RoleRepository;
+import planup.backend.repository.UserRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PermissionServiceTest {
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final RoleRepository roleRepository = mock(RoleRepository.class);
+    private final MembershipService membershipService = mock(MembershipService.class);
+    private final PermissionService service = new PermissionService(userRepository, roleRepository, membershipService, 100);
+
+    private static User user(String role) {
+        return User.builder().id("u1").role(role).build();
+    }
+
+    @Test
+    void warmChecksDoNotReload() {
+        when(userRepository.findById("u1")).thenReturn(Optional.of(user("developer")));
+        when(membershipService.roleIn("u1", Membership.PROJECT, "p1")).thenReturn("");
+
+        assertTrue(service.can("u1", "p1", "edit-issues"));
+        assertFalse(service.can("u1", "p1", "manage-roles"));
+        verify(userRepository, times(1)).findById("u1");
+    }
+
+    @Test
+    void invalidationDuringCompileIsNotCachedOver() {
+        AtomicReference<User> stored = new AtomicReference<>(user("viewer"));
+        when(membershipService.roleIn("u1", Membership.PROJECT, "p1")).thenReturn("");
+        when(userRepository.findById("u1"))
+                .thenAnswer(invocation -> {
+                    // the user is promoted after the compile read them, and the change invalidates the cache
+                    User read = stored.get();
+                    stored.set(user("developer"));
+                    service.invalidateUser("u1");
+                    return Optional.of(read);
+                })
+                .thenAnswer(invocation -> Optional.of(stored.get()));
+
+        assertFalse(service.can("u1", "p1", "edit-issues"));
+        assertTrue(service.can("u1", "p1", "edit-issues"));
+    }
+
+    @Test
+    void roleInvalidationDuringCompileIsNotCachedOver() {
+        AtomicReference<List<String>> stored = new AtomicReference<>(List.of("view-reports"));
+        when(userRepository.findById("u1")).thenReturn(Optional.of(user("lead")));
+        when(membershipService.roleIn("u1", Membership.PROJECT, "p1")).thenReturn("");
+        when(roleRepository.findByProjectId("p1"))
+                .thenAnswer(invocation -> {
+                    List<String> read = stored.get();
+                    stored.set(List.of("view-reports", "manage-sprints"));
+                    service.invalidateRoles();
+                    return List.of(Role.builder().name("lead").permissions(read).build());
+                })
+                .thenAnswer(invocation -> List.of(Role.builder().name("lead").permissions(stored.get()).build()));
+
+        assertFalse(service.can("u1", "p1", "manage-sprints"));
+        assertTrue(service.can("u1", "p1", "manage-sprints"));
+    }
+}
@@ -0,0 +1,100 @@
+package planup.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixIndexTest {
+
+    private static PrefixIndex index(String... idLabelDetail) {
+        List<PrefixIndex.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < idLabelDetail.length; i += 3) {
+            entries.add(new PrefixIndex.Entry(idLabelDetail[i], idLabelDetail[i + 1], idLabelDetail[i + 2]));
+        }
+        return PrefixIndex.build(entries);
+    }
+
+    private static List<String> ids(List<PrefixIndex.Entry> entries) {
+        return entries.stream().map(PrefixIndex.Entry::id).toList();
+    }
+
+    @Test
+    void matchesLabelStartLaterWordsAndDetail() {
+        PrefixIndex index = index(
+                "1", "Ana Lopez", "ana@example.com",
+                "2", "Bruno Diaz", "bdiaz@example.com",
+                "3", "Carla Lopez", "carla@example.com");
+
+        assertEquals(List.of("1"), ids(index.search("ana", 10)));
+        assertEquals(List.of("2"), ids(index.search("bdiaz@", 10)));
+        assertEquals(2, index.search("lop", 10).size());
+        assertTrue(index.search("x", 10).isEmpty());
+    }
+
+    @Test
+    void prefersLabelStartOverLaterWord() {
+        PrefixIndex index = index(
+                "later", "Lopez Ana", null,
+                "start", "Ana Smith", null);
+
+        assertEquals(List.of("start", "later"), ids(index.search("ana", 10)));
+    }
+
+    @Test
+    void prefersClosestLengthTerm() {
+        PrefixIndex index = index(
+                "long", "Annabelle", null,
+                "short", "Ann", null);
+
+        assertEquals(List.of("short", "long"), ids(index.search("ann", 10)));
+    }
+
+    @Test
+    void returnsEachEntryOnceWithItsBestTerm() {
+        PrefixIndex index = index(
+                "1", "Ana Anaya", "ana@example.com",
+                "2", "Anabel Ruiz", null);
+
+        assertEquals(List.of("1", "2"), ids(index.search("ana", 10)));
+    }
+
+    @Test
+    void keepsTheBestEntriesWithinTheLimit() {
+        PrefixIndex index = index(
+                "a", "Mara Mark", null,
+                "b", "Marcus", null,
+                "c", "Mar", null,
+                "d", "Marianne", null);
+
+        assertEquals(List.of("c", "b"), ids(index.search("mar", 2)));
+    }
+
+    @Test
+    void normalizesCaseAndWhitespace() {
+        PrefixIndex index = index("1", "  Ana   Lopez ", "MAD");
+
+        assertEquals(List.of("1"), ids(index.search("  ANA  lo", 10)));
+        assertEquals(List.of("1"), ids(index.search("mad", 10)));
+    }
+
+    @Test
+    void blankQueryOrNoLimitFindsNothing() {
+        PrefixIndex index = index("1", "Ana", null);
+
+        assertTrue(index.search("   ", 10).isEmpty());
+        assertTrue(index.search(null, 10).isEmpty());
+        assertTrue(index.search("ana", 0).isEmpty());
+    }
+
+    @Test
+    void entriesWithoutLabelOrDetailAreCountedButNeverMatch() {
+        PrefixIndex index = index("1", null, null, "2", "Ana", null);
+
+        assertEquals(2, index.size());
+        assertEquals(List.of("2"), ids(index.search("a", 10)));
+    }
+}
@@ -0,0 +1,70 @@
+package planup.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimilarityIndexTest {
+    private static final String CRASH = "App crashes when uploading a large attachment from the gallery";
+
+    private static List<String> ids(List<SimilarityIndex.Match> matches) {
+        return matches.stream().map(SimilarityIndex.Match::id).toList();
+    }
+
+    @Test
+    void findsNearDuplicatesMostSimilarFirst() {
+        SimilarityIndex index = new SimilarityIndex();
+        index.put("exact", "P-1", "Crash", CRASH);
+        index.put("near", "P-2", "Crash", CRASH + " on android");
+        index.put("other", "P-3", "Dark mode", "Add a dark mode toggle to the profile settings screen");
+
+        List<SimilarityIndex.Match> matches = index.query(CRASH, null, 0.5, 10);
+
+        assertEquals(List.of("exact", "near"), ids(matches));
+        assertEquals(1.0, matches.get(0).similarity(), 0.0);
+        assertEquals("P-1", matches.get(0).label());
+    }
+
+    @Test
+    void skipsTheQueryingDocumentAndRespectsTheLimit() {
+        SimilarityIndex index = new SimilarityIndex();
+        index.put("a", "A", "a", CRASH);
+        index.put("b", "B", "b", CRASH);
+        index.put("c", "C", "c", CRASH);
+
+        List<SimilarityIndex.Match> matches = index.query(CRASH, "a", 0.5, 1);
+
+        assertEquals(1, matches.size());
+        assertNotEquals("a", matches.get(0).id());
+    }
+
+    @Test
+    void putReplacesAndRemoveForgets() {
+        SimilarityIndex index = new SimilarityIndex();
+        index.put("1", "P-1", "Crash", CRASH);
+        index.put("1", "P-1", "Dark mode", "Add a dark mode toggle to the profile settings screen");
+
+        assertTrue(index.query(CRASH, null, 0.5, 10).isEmpty());
+
+        index.remove("1");
+        index.remove("missing");
+        assertTrue(index.query("Add a dark mode toggle to the profile settings screen", null, 0.0, 10).isEmpty());
+    }
+
+    @Test
+    void textWithoutShinglesIsNeitherIndexedNorMatched() {
+        SimilarityIndex index = new SimilarityIndex();
+        index.put("blank", "P-1", "", "  ");
+        index.put("symbols", "P-2", "?", "???");
+
+        assertTrue(index.query("--", null, 0.0, 10).isEmpty());
+        assertTrue(index.query("", null, 0.0, 10).isEmpty());
+
+        index.put("text", "P-3", "Crash", CRASH);
+        assertEquals(List.of("text"), ids(index.query(CRASH, null, 0.0, 10)));
+    }
+}
@@ -0,0 +1,184 @@
+package planup.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SprintPlannerTest {
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static long deadline(long ms) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+
+    private static int[][] noRequirements(int n) {
+        int[][] requires = new int[n][];
+        Arrays.fill(requires, new int[0]);
+        return requires;
+    }
+
+    @Test
+    void takesEverythingWhenItAllFits() {
+        SprintPlanner planner = new SprintPlanner(new int[]{3, 5, 2}, new double[]{1, 2, 3}, new int[]{0, -1, 0},
+                noRequirements(3), 10, new int[]{5});
+
+        SprintPlanner.Plan plan = planner.solve(pool, 4, deadline(50));
+
+        assertArrayEquals(new int[]{0, 1, 2}, plan.picked());
+        assertEquals(10, plan.points());
+        assertEquals(6.0, plan.value(), 1e-9);
+        assertTrue(plan.optimal());
+    }
+
+    @Test
+    void escapesTheGreedyChoice() {
+        // by value per point item 0 goes first, but items 1 and 2 together are worth more
+        SprintPlanner planner = new SprintPlanner(new int[]{6, 5, 5}, new double[]{7, 5, 5}, new int[]{-1, -1, -1},
+                noRequirements(3), 10, new int[0]);
+
+        SprintPlanner.Plan plan = planner.solve(pool, 4, deadline(100));
+
+        assertArrayEquals(new int[]{1, 2}, plan.picked());
+        assertEquals(10.0, plan.value(), 1e-9);
+        assertFalse(plan.optimal());
+    }
+
+    @Test
+    void neverPicksAnItemWithoutWhatItRequires() {
+        // item 0 is valuable but requires item 1, which alone exceeds the capacity
+        int[][] requires = {{1}, {}, {}};
+        SprintPlanner planner = new SprintPlanner(new int[]{1, 20, 4}, new double[]{100, 1, 2}, new int[]{-1, -1, -1},
+                requires, 10, new int[0]);
+
+        SprintPlanner.Plan plan = planner.solve(pool, 2, deadline(50));
+
+        assertArrayEquals(new int[]{2}, plan.picked());
+    }
+
+    @Test
+    void keepsMutuallyRequiredItemsTogether() {
+        int[][] requires = {{1}, {0}, {}};
+        SprintPlanner planner = new SprintPlanner(new int[]{4, 4, 5}, new double[]{5, 5, 6}, new int[]{-1, -1, -1},
+                requires, 9, new int[0]);
+
+        SprintPlanner.Plan plan = planner.solve(pool, 2, deadline(50));
+
+        assertArrayEquals(new int[]{0, 1}, plan.picked());
+        assertEquals(10.0, plan.value(), 1e-9);
+    }
+
+    @Test
+    void respectsMemberCapacity() {
+        // member 0 can take one of its two items; the team could take both
+        SprintPlanner planner = new SprintPlanner(new int[]{3, 3, 3}, new double[]{5, 4, 1}, new int[]{0, 0, 1},
+                noRequirements(3), 20, new int[]{3, 5});
+
+        SprintPlanner.Plan plan = planner.solve(pool, 2, deadline(50));
+
+        assertArrayEquals(new int[]{0, 2}, plan.picked());
+        assertFalse(plan.optimal());
+    }
+
+    @Test
+    void nothingFitsGivesAnEmptyPlan() {
+        SprintPlanner planner = new SprintPlanner(new int[]{5}, new double[]{1}, new int[]{-1}, noRequirements(1), 0, new int[0]);
+
+        SprintPlanner.Plan plan = planner.solve(pool, 2, deadline(20));
+
+        assertEquals(0, plan.picked().length);
+        assertEquals(0, plan.points());
+    }
+
+    // Small random instances, checked against exhaustive search
+    @Test
+    void findsTheOptimumOfSmallInstances() {
+        SplittableRandom random = new SplittableRandom(11);
+        for (int instance = 0; instance < 20; instance++) {
+            int n = 12;
+            int members = 3;
+            int[] points = new int[n];
+            double[] value = new double[n];
+            int[] member = new int[n];
+            int[][] requires = new int[n][];
+            for (int i = 0; i < n; i++) {
+                points[i] = random.nextInt(1, 9);
+                value[i] = random.nextInt(1, 20);
+                member[i] = random.nextInt(-1, members);
+                // only earlier items may be required, so the instance has no cycles
+                requires[i] = i > 0 && random.nextInt(4) == 0 ? new int[]{random.nextInt(i)} : new int[0];
+            }
+            int capacity = random.nextInt(10, 30);
+            int[] memberCapacity = {random.nextInt(4, 15), random.nextInt(4, 15), random.nextInt(4, 15)};
+
+            SprintPlanner.Plan plan = new SprintPlanner(points, value, member, requires, capacity, memberCapacity)
+                    .solve(pool, 4, deadline(100));
+
+            int mask = 0;
+            for (int i : plan.picked()) {
+                mask |= 1 << i;
+            }
+            assertTrue(feasible(mask, points, member, requires, capacity, memberCapacity), "instance " + instance);
+            assertEquals(sum(mask, points), plan.points());
+            assertEquals(sum(mask, value), plan.value(), 1e-9);
+            double optimum = 0;
+            for (int m = 0; m < 1 << n; m++) {
+                if (feasible(m, points, member, requires, capacity, memberCapacity)) {
+                    optimum = Math.max(optimum, sum(m, value));
+                }
+            }
+            assertEquals(optimum, plan.value(), 1e-9, "instance " + instance);
+        }
+    }
+
+    private static boolean feasible(int mask, int[] points, int[] member, int[][] requires, int capacity, int[] memberCapacity) {
+        int[] memberUsed = new int[memberCapacity.length];
+        for (int i = 0; i < points.length; i++) {
+            if ((mask & 1 << i) == 0) {
+                continue;
+            }
+            for (int r : requires[i]) {
+                if ((mask & 1 << r) == 0) {
+                    return false;
+                }
+            }
+            if (member[i] >= 0 && (memberUsed[member[i]] += points[i]) > memberCapacity[member[i]]) {
+                return false;
+            }
+        }
+        return sum(mask, points) <= capacity;
+    }
+
+    private static int sum(int mask, int[] values) {
+        int sum = 0;
+        for (int i = 0; i < values.length; i++) {
+            if ((mask & 1 << i) != 0) {
+                sum += values[i];
+            }
+        }
+        return sum;
+    }
+
+    private static double sum(int mask, double[] values) {
+        double sum = 0;
+        for (int i = 0; i < values.length; i++) {
+            if ((mask & 1 << i) != 0) {
+                sum += values[i];
+            }
+        }
+        return sum;
+    }
+}
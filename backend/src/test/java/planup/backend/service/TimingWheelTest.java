@@ -0,0 +1,159 @@
+package planup.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+    private static final long TICK = 1000;
+
+    private static List<String> advance(TimingWheel wheel, long now) {
+        List<String> fired = new ArrayList<>();
+        wheel.advance(now, (id, due) -> fired.add(id));
+        return fired;
+    }
+
+    @Test
+    void firesOnTheFirstTickAtOrAfterTheDueTime() {
+        TimingWheel wheel = new TimingWheel(TICK, 0);
+        wheel.schedule("a", 1500);
+        wheel.schedule("b", 2000);
+
+        assertTrue(advance(wheel, 1999).isEmpty());
+        assertEquals(List.of("a", "b"), advance(wheel, 2000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void handsOverTheScheduledDueTime() {
+        TimingWheel wheel = new TimingWheel(TICK, 0);
+        wheel.schedule("a", 4321);
+        List<Long> dues = new ArrayList<>();
+
+        wheel.advance(10_000, (id, due) -> dues.add(due));
+
+        assertEquals(List.of(4321L), dues);
+    }
+
+    @Test
+    void entriesAlreadyDueFireOnTheNextAdvance() {
+        TimingWheel wheel = new TimingWheel(TICK, 10_000);
+        wheel.schedule("past", 3_000);
+        wheel.schedule("now", 10_000);
+
+        assertEquals(2, wheel.size());
+        assertEquals(List.of("past", "now"), advance(wheel, 10_000));
+    }
+
+    @Test
+    void rejectsDueTimesBeyondTheSpan() {
+        TimingWheel wheel = new TimingWheel(TICK, 0);
+
+        assertFalse(wheel.schedule("far", TimingWheel.spanMillis(TICK)));
+        assertTrue(wheel.schedule("edge", TimingWheel.spanMillis(TICK) - TICK));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void roundTripsObjectIdsAndKeepsOtherIdsVerbatim() {
+        TimingWheel wheel = new TimingWheel(TICK, 0);
+        List<String> ids = List.of("65f0a1b2c3d4e5f60718293a", "ffffffffffffffffffffffff", "000000000000000000000000",
+                "65F0A1B2C3D4E5F60718293A", "65f0a1b2c3d4e5f60718293", "not-an-object-id", "");
+        for (String id : ids) {
+            wheel.schedule(id, 5000);
+        }
+
+        assertEquals(ids, advance(wheel, 5000));
+    }
+
+    @Test
+    void entriesScheduledWhileFiringAreNotLost() {
+        TimingWheel wheel = new TimingWheel(TICK, 0);
+        wheel.schedule("a", 1000);
+        List<String> fired = new ArrayList<>();
+
+        wheel.advance(1000, (id, due) -> {
+            fired.add(id);
+            if (id.equals("a")) {
+                wheel.schedule("again", due);
+                wheel.schedule("later", due + TICK);
+            }
+        });
+        assertEquals(List.of("a", "again"), fired);
+
+        assertEquals(List.of("later"), advance(wheel, 2000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void clearDropsEverything() {
+        TimingWheel wheel = new TimingWheel(TICK, 0);
+        wheel.schedule("a", 0);
+        wheel.schedule("b", 70_000);
+        wheel.schedule("c", 5_000_000);
+
+        wheel.clear();
+
+        assertEquals(0, wheel.size());
+        assertTrue(advance(wheel, 10_000_000).isEmpty());
+    }
+
+    // Entries spread across all levels (slot boundaries at 64, 4096 and 262144 ticks) must cascade down and
+    // fire exactly on their own tick, from an unaligned start and with due times off the tick grid
+    @Test
+    void cascadedEntriesFireExactlyOnTheirTick() {
+        long start = 123_456;
+        TimingWheel wheel = new TimingWheel(TICK, start);
+        SplittableRandom random = new SplittableRandom(42);
+        Map<String, Long> dueTicks = new HashMap<>();
+        long[] boundaries = {64, 4096, 262_144};
+        for (int i = 0; i < 3000; i++) {
+            long due;
+            if (i % 3 == 0) {
+                long boundary = boundaries[i % boundaries.length] * TICK;
+                due = boundary - start % boundary + random.nextLong(-2 * TICK, 2 * TICK);
+                due = start + Math.max(TICK, due);
+            } else {
+                due = start + random.nextLong(1, 300_000 * TICK);
+            }
+            String id = "issue-" + i;
+            assertTrue(wheel.schedule(id, due));
+            dueTicks.put(id, Math.floorDiv(due + TICK - 1, TICK));
+        }
+
+        long lastTick = dueTicks.values().stream().mapToLong(Long::longValue).max().orElseThrow();
+        for (long tick = Math.floorDiv(start, TICK) + 1; tick <= lastTick; tick++) {
+            long now = tick;
+            wheel.advance(tick * TICK, (id, due) -> assertEquals(dueTicks.remove(id).longValue(), now, id));
+        }
+
+        assertTrue(dueTicks.isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    // One long jump fires everything that came due, earliest tick first
+    @Test
+    void aLongAdvanceFiresInDueOrder() {
+        TimingWheel wheel = new TimingWheel(TICK, 0);
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 2000; i++) {
+            wheel.schedule("issue-" + i, random.nextLong(1, 5_000_000 * TICK));
+        }
+        List<Long> ticks = new ArrayList<>();
+
+        wheel.advance(5_000_000 * TICK, (id, due) -> ticks.add(Math.floorDiv(due + TICK - 1, TICK)));
+
+        assertEquals(2000, ticks.size());
+        for (int i = 1; i < ticks.size(); i++) {
+            assertTrue(ticks.get(i - 1) <= ticks.get(i), "fired tick " + ticks.get(i) + " after " + ticks.get(i - 1));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package planup.backend.service;
+
+import org.junit.jupiter.api.Test;
+import planup.backend.model.Workflow;
+import planup.backend.model.WorkflowTransition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkflowStateMachineTest {
+
+    private static WorkflowTransition transition(String from, String to) {
+        return WorkflowTransition.builder().fromStatus(from).toStatus(to).build();
+    }
+
+    private static WorkflowStateMachine compile(List<String> statuses, List<WorkflowTransition> transitions) {
+        return WorkflowStateMachine.compile(Workflow.builder().statuses(statuses).transitions(transitions).build());
+    }
+
+    @Test
+    void workflowWithoutStatusesIsUnrestricted() {
+        assertSame(WorkflowStateMachine.UNRESTRICTED, compile(null, null));
+        assertSame(WorkflowStateMachine.UNRESTRICTED, compile(List.of(), List.of(transition("a", "b"))));
+
+        WorkflowStateMachine machine = WorkflowStateMachine.UNRESTRICTED;
+        assertTrue(machine.isUnrestricted());
+        assertTrue(machine.isKnown("Anything"));
+        assertTrue(machine.canTransition("Done", "Anything"));
+        assertNull(machine.initialStatus());
+    }
+
+    @Test
+    void withoutTransitionsEveryMoveBetweenItsStatusesIsAllowed() {
+        WorkflowStateMachine machine = compile(List.of("To Do", "In Progress", "Done"), null);
+
+        assertFalse(machine.isUnrestricted());
+        assertTrue(machine.canTransition("Done", "To Do"));
+        assertTrue(machine.canTransition("To Do", "Done"));
+        assertFalse(machine.canTransition("To Do", "Blocked"));
+        assertEquals("To Do", machine.initialStatus());
+    }
+
+    @Test
+    void onlyListedTransitionsAreAllowed() {
+        WorkflowStateMachine machine = compile(List.of("To Do", "In Progress", "Done"), List.of(
+                transition("To Do", "In Progress"),
+                transition("In Progress", "Done"),
+                transition("Done", "Unknown"),
+                transition(null, "Done")));
+
+        assertTrue(machine.canTransition("To Do", "In Progress"));
+        assertTrue(machine.canTransition("In Progress", "Done"));
+        assertFalse(machine.canTransition("To Do", "Done"));
+        assertFalse(machine.canTransition("Done", "In Progress"));
+        assertFalse(machine.canTransition("In Progress", "To Do"));
+    }
+
+    @Test
+    void stayingInTheSameStatusIsAlwaysAllowed() {
+        WorkflowStateMachine machine = compile(List.of("To Do", "Done"), List.of(transition("To Do", "Done")));
+
+        assertTrue(machine.canTransition("Done", "Done"));
+        assertTrue(machine.canTransition("Retired", "Retired"));
+    }
+
+    @Test
+    void unknownTargetsAreRejectedAndUnknownSourcesMayGoAnywhere() {
+        WorkflowStateMachine machine = compile(List.of("To Do", "Done"), List.of(transition("To Do", "Done")));
+
+        assertFalse(machine.isKnown("Retired"));
+        assertTrue(machine.isKnown("Done"));
+        assertFalse(machine.isKnown(null));
+        assertFalse(machine.canTransition("To Do", "Retired"));
+        assertFalse(machine.canTransition("To Do", null));
+        assertTrue(machine.canTransition("Retired", "To Do"));
+        assertTrue(machine.canTransition(null, "Done"));
+    }
+
+    @Test
+    void duplicateStatusesKeepTheirFirstPosition() {
+        WorkflowStateMachine machine = compile(List.of("To Do", "Done", "To Do"), List.of(transition("To Do", "Done")));
+
+        assertEquals("To Do", machine.initialStatus());
+        assertTrue(machine.canTransition("To Do", "Done"));
+        assertFalse(machine.canTransition("Done", "To Do"));
+    }
+
+    // Over 64 statuses a row spans several words of the bit matrix
+    @Test
+    void largeWorkflowsUseEveryWordOfTheRow() {
+        List<String> statuses = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            statuses.add("S" + i);
+        }
+        List<WorkflowTransition> transitions = new ArrayList<>();
+        for (int i = 0; i + 1 < statuses.size(); i++) {
+            transitions.add(transition("S" + i, "S" + (i + 1)));
+        }
+        transitions.add(transition("S149", "S0"));
+        transitions.add(transition("S3", "S130"));
+        WorkflowStateMachine machine = compile(statuses, transitions);
+
+        for (int from = 0; from < 150; from++) {
+            for (int to = 0; to < 150; to++) {
+                boolean expected = from == to || to == from + 1 || from == 149 && to == 0 || from == 3 && to == 130;
+                assertEquals(expected, machine.canTransition("S" + from, "S" + to), "S" + from + " -> S" + to);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package planup.backend.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ByteRangeTest {
+    private static final long SIZE = 1000;
+
+    private static ByteRange parse(String header) {
+        return ByteRange.parse(header, SIZE).orElseThrow();
+    }
+
+    @Test
+    void closedRange() {
+        ByteRange range = parse("bytes=0-99");
+
+        assertEquals(new ByteRange(0, 99), range);
+        assertEquals(100, range.length());
+        assertEquals("bytes 0-99/1000", range.contentRange(SIZE));
+        assertEquals(1, parse("bytes=0-0").length());
+    }
+
+    @Test
+    void openAndOversizedEndsAreClampedToTheLastByte() {
+        assertEquals(new ByteRange(500, 999), parse("bytes=500-"));
+        assertEquals(new ByteRange(500, 999), parse("bytes=500-5000"));
+        assertEquals(new ByteRange(999, 999), parse("bytes=999-"));
+    }
+
+    @Test
+    void suffixRangeIsTheLastBytes() {
+        assertEquals(new ByteRange(900, 999), parse("bytes=-100"));
+        assertEquals(new ByteRange(999, 999), parse("bytes=-1"));
+        // longer than the content: the whole content
+        assertEquals(new ByteRange(0, 999), parse("bytes=-5000"));
+    }
+
+    @Test
+    void toleratesWhitespaceAroundTheNumbers() {
+        assertEquals(new ByteRange(10, 20), parse("bytes= 10 - 20 "));
+        assertEquals(new ByteRange(990, 999), parse("bytes= -10"));
+    }
+
+    @Test
+    void unsatisfiableRangesThrow() {
+        assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=-0", SIZE));
+        assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=1000-", SIZE));
+        assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=1000-1200", SIZE));
+        assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=50-10", SIZE));
+        // nothing to serve from empty content, even for a suffix
+        assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=-10", 0));
+        assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=0-", 0));
+    }
+
+    @Test
+    void unusableHeadersAreIgnored() {
+        assertEquals(Optional.empty(), ByteRange.parse(null, SIZE));
+        assertEquals(Optional.empty(), ByteRange.parse("", SIZE));
+        assertEquals(Optional.empty(), ByteRange.parse("items=0-10", SIZE));
+        assertEquals(Optional.empty(), ByteRange.parse("Bytes=0-10", SIZE));
+        assertEquals(Optional.empty(), ByteRange.parse("bytes=10", SIZE));
+        assertEquals(Optional.empty(), ByteRange.parse("bytes=-", SIZE));
+        assertEquals(Optional.empty(), ByteRange.parse("bytes=a-b", SIZE));
+        assertEquals(Optional.empty(), ByteRange.parse("bytes=0-10x", SIZE));
+    }
+
+    @Test
+    void multipleRangesAreServedAsTheFullContent() {
+        assertEquals(Optional.empty(), ByteRange.parse("bytes=0-10,20-30", SIZE));
+        assertEquals(Optional.empty(), ByteRange.parse("bytes=-5, 0-1", SIZE));
+    }
+}
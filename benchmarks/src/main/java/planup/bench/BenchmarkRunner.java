@@ -0,0 +1,29 @@
+package planup.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+// java -jar target/benchmarks.jar [jmh options]
+// Always writes JSON with the GC profiler's allocation rate (gc.alloc.rate.norm = bytes/op) to
+// target/jmh/<commit>.json, where <commit> comes from -Dbench.commit or $GIT_COMMIT.
+public class BenchmarkRunner {
+    public static void main(String[] args) throws Exception {
+        String commit = System.getProperty("bench.commit", System.getenv().getOrDefault("GIT_COMMIT", "local"));
+        File out = new File("target/jmh/" + commit + ".json");
+        out.getParentFile().mkdirs();
+
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(out.getPath())
+                .build();
+        new Runner(options).run();
+    }
+}
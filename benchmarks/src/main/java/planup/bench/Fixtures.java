@@ -0,0 +1,122 @@
+package planup.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import planup.backend.dto.IssueRequest;
+import planup.backend.dto.SprintRequest;
+import planup.backend.model.*;
+import planup.backend.repository.*;
+import planup.backend.service.IssueService;
+import planup.backend.service.WorkflowService;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Deterministic test data shared by the benchmarks
+public final class Fixtures {
+    private static final String[] STATUSES = {"To Do", "In Progress", "In Review", "Done"};
+    private static final String[] PRIORITIES = {"Low", "Medium", "High"};
+    private static final String[] TYPES = {"Bug", "Story", "Task"};
+
+    private Fixtures() {
+    }
+
+    public static ObjectMapper objectMapper() {
+        return new ObjectMapper().registerModule(new JavaTimeModule());
+    }
+
+    public static IssueRequest issueRequest() {
+        IssueRequest req = new IssueRequest();
+        req.setTitle("Crash when dragging a card between columns");
+        req.setDescription("Steps: open board, drag card from To Do to In Progress while offline, app closes.");
+        req.setPriority("High");
+        req.setType("Bug");
+        req.setProjectId("p-1");
+        req.setAssigneeId("u-7");
+        req.setDueDate(Instant.parse("2026-11-01T00:00:00Z"));
+        req.setEstimatedHours(6.0);
+        req.setStoryPoints(3.0);
+        req.setLabels(List.of("mobile", "board", "regression"));
+        req.setComponents(List.of("kanban"));
+        return req;
+    }
+
+    public static SprintRequest sprintRequest() {
+        SprintRequest req = new SprintRequest();
+        req.setName("Sprint 42");
+        req.setGoal("Ship offline board editing");
+        req.setStartDate(Instant.parse("2026-10-19T00:00:00Z"));
+        req.setEndDate(Instant.parse("2026-11-02T00:00:00Z"));
+        req.setProjectId("p-1");
+        req.setCapacity(80.0);
+        req.setTeamMembers(List.of("u-1", "u-2", "u-3", "u-4", "u-5"));
+        return req;
+    }
+
+    public static Sprint sprint(int issueCount) {
+        List<String> issues = new ArrayList<>(issueCount);
+        for (int i = 0; i < issueCount; i++) issues.add("i-" + i);
+        return Sprint.builder()
+                .id("s-1").name("Sprint 42").goal("Ship offline board editing")
+                .startDate(new Date()).endDate(new Date())
+                .status("active").issues(issues).velocity(34).capacity(80)
+                .teamMembers(List.of("u-1", "u-2", "u-3", "u-4", "u-5"))
+                .build();
+    }
+
+    // An issue whose embedded attachment and time-log lists each hold `embedded` entries
+    public static Issue issue(int n, int embedded) {
+        SplittableRandom random = new SplittableRandom(n);
+        String id = "i-" + n;
+        List<Attachment> attachments = new ArrayList<>(embedded);
+        List<TimeLog> timeLogs = new ArrayList<>(embedded);
+        for (int i = 0; i < embedded; i++) {
+            attachments.add(Attachment.builder().id(id + "-a" + i).issueId(id).name("screenshot-" + i + ".png")
+                    .size("2.3 MB").uploadedById("u-" + random.nextInt(50)).uploadedAt(new Date())
+                    .fileUrl("https://files.plannup.com/" + id + "/" + i).fileType("image/png").build());
+            timeLogs.add(TimeLog.builder().id(id + "-t" + i).issueId(id).authorId("u-" + random.nextInt(50))
+                    .hours(0.5 + random.nextInt(8)).description("Investigation").category("development")
+                    .date(new Date()).createdAt(new Date()).updatedAt(new Date()).build());
+        }
+        return Issue.builder()
+                .id(id).key("MAD-" + n).title("Issue " + n).description("Description of issue " + n)
+                .projectId("p-" + (n % 10)).priority(PRIORITIES[random.nextInt(PRIORITIES.length)])
+                .status(STATUSES[random.nextInt(STATUSES.length)]).type(TYPES[random.nextInt(TYPES.length)])
+                .assigneeId("u-" + random.nextInt(50)).reporterId("u-" + random.nextInt(50))
+                .created(new Date()).updated(new Date()).dueDate(new Date())
+                .estimatedHours(random.nextInt(16)).storyPoints(random.nextInt(13))
+                .labels(new ArrayList<>(List.of("mobile", "backend"))).components(new ArrayList<>(List.of("kanban")))
+                .sprintId("s-" + (n % 5)).commentCount(embedded).attachments(attachments).timeLogs(timeLogs)
+                .decisionLog(new ArrayList<>()).subTaskIds(new ArrayList<>()).linkedIssueIds(new ArrayList<>())
+                .isActive(true)
+                .build();
+    }
+
+    public static Repositories repositories() {
+        return new Repositories(
+                InMemoryRepository.create(IssueRepository.class, Issue.class),
+                InMemoryRepository.create(TimeLogRepository.class, TimeLog.class),
+                InMemoryRepository.create(AttachmentRepository.class, Attachment.class),
+                InMemoryRepository.create(SubTaskRepository.class, SubTask.class),
+                InMemoryRepository.create(IssueLinkRepository.class, IssueLink.class),
+                InMemoryRepository.create(WorkflowRepository.class, Workflow.class),
+                InMemoryRepository.create(ProjectRepository.class, Project.class));
+    }
+
+    // No archive, deletion jobs, key allocator or MongoTemplate: the benchmarks never read archived or delete
+    // issues, their projects are not stored, so no issue gets a sequence key, and the issue writes that go
+    // through targeted updates (updateIssue, addSubTask, addIssueLink) are not benchmarked
+    public static IssueService issueService(Repositories r) {
+        return new IssueService(r.issues(), r.timeLogs(), r.attachments(), r.subTasks(), r.links(),
+                new WorkflowService(r.workflows(), 60_000), event -> {
+        }, null, null, r.projects(), null, null);
+    }
+
+    public record Repositories(IssueRepository issues, TimeLogRepository timeLogs,
+                               AttachmentRepository attachments, SubTaskRepository subTasks,
+                               IssueLinkRepository links, WorkflowRepository workflows, ProjectRepository projects) {
+    }
+}
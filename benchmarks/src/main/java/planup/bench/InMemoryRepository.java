@@ -0,0 +1,209 @@
+package planup.bench;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.regex.Pattern;
+
+// Map-backed stand-in for any of the backend's MongoRepository interfaces, so services can be
+// benchmarked without a database. Handles the CRUD methods the services use plus derived
+// findBy/countBy/existsBy/deleteBy queries built from Equals, Containing, True/False, In, And and Or.
+public class InMemoryRepository<T> implements InvocationHandler {
+    private static final Pattern OR = Pattern.compile("Or(?=[A-Z])");
+    private static final Pattern AND = Pattern.compile("And(?=[A-Z])");
+
+    private final Map<String, T> store = new ConcurrentHashMap<>();
+    private final Map<Method, BiPredicate<Object, Object[]>[]> compiled = new ConcurrentHashMap<>();
+    private final Field idField;
+    private final Class<T> entityType;
+    private final AtomicLong ids = new AtomicLong();
+
+    private InMemoryRepository(Class<T> entityType) {
+        this.entityType = entityType;
+        this.idField = field(entityType, "id");
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <R, T> R create(Class<R> repositoryType, Class<T> entityType) {
+        return (R) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                new InMemoryRepository<>(entityType));
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        Object[] a = args == null ? new Object[0] : args;
+        switch (name) {
+            case "save", "insert":
+                if (a[0] instanceof Iterable<?> it) {
+                    List<T> saved = new ArrayList<>();
+                    it.forEach(e -> saved.add(save((T) e)));
+                    return saved;
+                }
+                return save((T) a[0]);
+            case "saveAll":
+                List<T> saved = new ArrayList<>();
+                ((Iterable<T>) a[0]).forEach(e -> saved.add(save(e)));
+                return saved;
+            case "findById":
+                return Optional.ofNullable(store.get((String) a[0]));
+            case "existsById":
+                return store.containsKey((String) a[0]);
+            case "findAllById":
+                List<T> found = new ArrayList<>();
+                ((Iterable<String>) a[0]).forEach(id -> {
+                    T e = store.get(id);
+                    if (e != null) found.add(e);
+                });
+                return found;
+            case "count":
+                return (long) store.size();
+            case "deleteById":
+                store.remove((String) a[0]);
+                return null;
+            case "delete":
+                store.remove(id((T) a[0]));
+                return null;
+            case "deleteAllById":
+                ((Iterable<String>) a[0]).forEach(store::remove);
+                return null;
+            case "deleteAll":
+                if (a.length == 0) {
+                    store.clear();
+                } else {
+                    ((Iterable<T>) a[0]).forEach(e -> store.remove(id(e)));
+                }
+                return null;
+            case "findAll":
+                if (a.length == 0) return new ArrayList<>(store.values());
+                break;
+            case "toString":
+                return "InMemoryRepository<" + entityType.getSimpleName() + ">";
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == a[0];
+            default:
+                if (name.startsWith("findBy") || name.startsWith("countBy")
+                        || name.startsWith("existsBy") || name.startsWith("deleteBy")) {
+                    return derived(method, a);
+                }
+        }
+        throw new UnsupportedOperationException(name + " is not supported by the in-memory stand-in");
+    }
+
+    private T save(T entity) {
+        String id = id(entity);
+        if (id == null) {
+            id = Long.toHexString(ids.incrementAndGet());
+            set(idField, entity, id);
+        }
+        store.put(id, entity);
+        return entity;
+    }
+
+    private Object derived(Method method, Object[] args) {
+        BiPredicate<Object, Object[]>[] alternatives = compiled.computeIfAbsent(method, this::compile);
+        List<T> matches = new ArrayList<>();
+        for (T entity : store.values()) {
+            for (BiPredicate<Object, Object[]> p : alternatives) {
+                if (p.test(entity, args)) {
+                    matches.add(entity);
+                    break;
+                }
+            }
+        }
+        String name = method.getName();
+        if (name.startsWith("countBy")) return (long) matches.size();
+        if (name.startsWith("existsBy")) return !matches.isEmpty();
+        if (name.startsWith("deleteBy")) {
+            matches.forEach(e -> store.remove(id(e)));
+            return method.getReturnType() == void.class ? null : (long) matches.size();
+        }
+        Class<?> returnType = method.getReturnType();
+        if (returnType == Optional.class) return matches.stream().findFirst();
+        if (Collection.class.isAssignableFrom(returnType) || returnType == Iterable.class) return matches;
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private BiPredicate<Object, Object[]>[] compile(Method method) {
+        String criteria = method.getName().replaceFirst("^(find|count|exists|delete)By", "");
+        String[] ors = OR.split(criteria);
+        BiPredicate<Object, Object[]>[] result = new BiPredicate[ors.length];
+        int argIndex = 0;
+        for (int i = 0; i < ors.length; i++) {
+            BiPredicate<Object, Object[]> all = (entity, args) -> true;
+            for (String part : AND.split(ors[i])) {
+                BiPredicate<Object, Object[]> p = condition(part, argIndex);
+                if (!part.endsWith("True") && !part.endsWith("False")) argIndex++;
+                all = all.and(p);
+            }
+            result[i] = all;
+        }
+        return result;
+    }
+
+    private BiPredicate<Object, Object[]> condition(String part, int argIndex) {
+        if (part.endsWith("True")) return fieldPredicate(part.substring(0, part.length() - 4), (v, arg) -> Boolean.TRUE.equals(v), -1);
+        if (part.endsWith("False")) return fieldPredicate(part.substring(0, part.length() - 5), (v, arg) -> Boolean.FALSE.equals(v), -1);
+        if (part.endsWith("Containing")) {
+            return fieldPredicate(part.substring(0, part.length() - 10),
+                    (v, arg) -> v instanceof Collection<?> c ? c.contains(arg) : v != null && v.toString().contains(String.valueOf(arg)), argIndex);
+        }
+        if (part.endsWith("In")) {
+            return fieldPredicate(part.substring(0, part.length() - 2), (v, arg) -> ((Collection<?>) arg).contains(v), argIndex);
+        }
+        return fieldPredicate(part, Objects::equals, argIndex);
+    }
+
+    private BiPredicate<Object, Object[]> fieldPredicate(String property, BiPredicate<Object, Object> test, int argIndex) {
+        Field f = field(entityType, Character.toLowerCase(property.charAt(0)) + property.substring(1));
+        return (entity, args) -> test.test(get(f, entity), argIndex < 0 ? null : args[argIndex]);
+    }
+
+    private String id(T entity) {
+        return (String) get(idField, entity);
+    }
+
+    private static Field field(Class<?> type, String name) {
+        try {
+            Field f = type.getDeclaredField(name);
+            f.setAccessible(true);
+            return f;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalArgumentException(type.getSimpleName() + " has no field " + name, e);
+        }
+    }
+
+    private static Object get(Field f, Object target) {
+        try {
+            return f.get(target);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void set(Field f, Object target, Object value) {
+        try {
+            f.set(target, value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package planup.bench;
+
+import org.openjdk.jmh.annotations.*;
+import planup.backend.model.Issue;
+import planup.backend.model.IssueLink;
+import planup.backend.service.IssueService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Service-layer overhead on top of an in-memory repository; derived queries are linear scans here,
+// so absolute numbers for the read paths scale with `issues` and are only comparable across commits.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IssueServiceBenchmark {
+    @Param({"1000", "10000"})
+    public int issues;
+
+    private IssueService service;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Fixtures.Repositories repositories = Fixtures.repositories();
+        service = Fixtures.issueService(repositories);
+        for (int i = 0; i < issues; i++) {
+            repositories.issues().save(Fixtures.issue(i, 3));
+        }
+        for (int i = 0; i < issues; i += 10) {
+            repositories.links().save(IssueLink.builder().sourceIssueId("i-" + i).targetIssueId("i-" + (i + 1))
+                    .linkType("blocks").build());
+        }
+    }
+
+    @Benchmark
+    public Issue getIssueById() {
+        return service.getIssueById("i-" + (next++ % issues)).orElseThrow();
+    }
+
+    @Benchmark
+    public List<Issue> getIssuesByProject() {
+        return service.getIssuesByProject("p-" + (next++ % 10));
+    }
+
+    @Benchmark
+    public List<IssueLink> getIssueLinksByIssue() {
+        return service.getIssueLinksByIssue("i-" + (next++ % issues));
+    }
+
+    @Benchmark
+    public Issue createIssue() {
+        Issue issue = Fixtures.issue(issues + next++, 0);
+        issue.setId(null);
+        return service.createIssue(issue);
+    }
+}
@@ -0,0 +1,54 @@
+package planup.bench;
+
+import org.openjdk.jmh.annotations.*;
+import planup.backend.dto.IssueRequest;
+import planup.backend.dto.IssueResponse;
+import planup.backend.dto.SprintRequest;
+import planup.backend.dto.SprintResponse;
+import planup.backend.mapper.IssueMapper;
+import planup.backend.mapper.SprintMapper;
+import planup.backend.model.Issue;
+import planup.backend.model.Sprint;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private IssueRequest issueRequest;
+    private Issue issue;
+    private SprintRequest sprintRequest;
+    private Sprint sprint;
+
+    @Setup
+    public void setup() {
+        issueRequest = Fixtures.issueRequest();
+        issue = Fixtures.issue(1, 10);
+        sprintRequest = Fixtures.sprintRequest();
+        sprint = Fixtures.sprint(50);
+    }
+
+    @Benchmark
+    public Issue issueToEntity() {
+        return IssueMapper.toEntity(issueRequest);
+    }
+
+    @Benchmark
+    public IssueResponse issueToResponse() {
+        return IssueMapper.toResponse(issue);
+    }
+
+    @Benchmark
+    public Sprint sprintToEntity() {
+        return SprintMapper.toEntity(sprintRequest);
+    }
+
+    @Benchmark
+    public SprintResponse sprintToResponse() {
+        return SprintMapper.toResponse(sprint);
+    }
+}
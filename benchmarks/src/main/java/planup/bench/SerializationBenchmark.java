@@ -0,0 +1,46 @@
+package planup.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import planup.backend.mapper.IssueMapper;
+import planup.backend.model.Issue;
+
+import java.util.concurrent.TimeUnit;
+
+// Full Issue documents (what /issues/search still returns) versus the IssueResponse projection
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"0", "10", "100", "1000"})
+    public int embedded;
+
+    private ObjectMapper mapper;
+    private Issue issue;
+    private byte[] json;
+
+    @Setup
+    public void setup() throws Exception {
+        mapper = Fixtures.objectMapper();
+        issue = Fixtures.issue(1, embedded);
+        json = mapper.writeValueAsBytes(issue);
+    }
+
+    @Benchmark
+    public byte[] serializeIssue() throws Exception {
+        return mapper.writeValueAsBytes(issue);
+    }
+
+    @Benchmark
+    public Issue deserializeIssue() throws Exception {
+        return mapper.readValue(json, Issue.class);
+    }
+
+    @Benchmark
+    public byte[] serializeIssueResponse() throws Exception {
+        return mapper.writeValueAsBytes(IssueMapper.toResponse(issue));
+    }
+}
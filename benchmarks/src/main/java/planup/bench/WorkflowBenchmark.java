@@ -0,0 +1,54 @@
+package planup.bench;
+
+import org.openjdk.jmh.annotations.*;
+import planup.backend.model.Workflow;
+import planup.backend.model.WorkflowTransition;
+import planup.backend.service.WorkflowStateMachine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cost of one status-transition check against a compiled workflow, and of compiling it
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkflowBenchmark {
+    @Param({"4", "100"})
+    public int statuses;
+
+    private Workflow workflow;
+    private WorkflowStateMachine machine;
+    private String[] names;
+    private int next;
+
+    @Setup
+    public void setup() {
+        names = new String[statuses];
+        List<WorkflowTransition> transitions = new ArrayList<>();
+        for (int i = 0; i < statuses; i++) {
+            names[i] = "Status " + i;
+        }
+        // a linear flow with a way back to the start from every status
+        for (int i = 0; i < statuses; i++) {
+            transitions.add(WorkflowTransition.builder().fromStatus(names[i]).toStatus(names[(i + 1) % statuses]).build());
+            transitions.add(WorkflowTransition.builder().fromStatus(names[i]).toStatus(names[0]).build());
+        }
+        workflow = Workflow.builder().id("w-1").statuses(List.of(names)).transitions(transitions).build();
+        machine = WorkflowStateMachine.compile(workflow);
+    }
+
+    @Benchmark
+    public boolean canTransition() {
+        int from = next++ % statuses;
+        return machine.canTransition(names[from], names[(from + 1 + (next & 1)) % statuses]);
+    }
+
+    @Benchmark
+    public WorkflowStateMachine compile() {
+        return WorkflowStateMachine.compile(workflow);
+    }
+}
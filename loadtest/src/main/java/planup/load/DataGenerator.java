@@ -0,0 +1,248 @@
+package planup.load;
+
+import com.mongodb.client.MongoClient;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import planup.backend.model.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Fills a database with a tenant-shaped data set: a few organizations, projects of ~1000 issues,
+// sprints, users with their membership edges, and issues with time logs both embedded (as IssueService
+// writes them today) and in their own collection, comments in the comments collection with commentCount
+// on the issue, plus issue links and notifications.
+// Everything goes through MongoTemplate with the backend's model classes, so field names match
+// what the repositories query, and every collection is written in insertMany batches.
+public class DataGenerator {
+    private static final String[] STATUSES = {"To Do", "In Progress", "In Review", "Done"};
+    private static final String[] PRIORITIES = {"Low", "Medium", "High"};
+    private static final String[] TYPES = {"Bug", "Story", "Task"};
+    private static final String[] WORDS = {"board", "crash", "sync", "offline", "login", "sprint", "drag",
+            "notification", "avatar", "search", "calendar", "export", "filter", "timeout", "upload", "theme"};
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private final MongoTemplate template;
+    private final Scale scale;
+    private final int batchSize;
+    private final SplittableRandom random;
+    private final long now = System.currentTimeMillis();
+
+    public DataGenerator(MongoClient client, String database, Scale scale, int batchSize, long seed) {
+        this.template = new MongoTemplate(client, database);
+        this.scale = scale;
+        this.batchSize = batchSize;
+        this.random = new SplittableRandom(seed);
+    }
+
+    public void generate(boolean drop) {
+        if (drop) {
+            template.getDb().drop();
+        }
+        long start = System.nanoTime();
+        organizations();
+        users();
+        memberships();
+        projects();
+        sprints();
+        issues();
+        System.out.printf("generated %d issues in %.1f s%n", scale.issues(), (System.nanoTime() - start) / 1e9);
+    }
+
+    private void organizations() {
+        List<Organization> batch = new ArrayList<>();
+        for (int o = 0; o < scale.organizations(); o++) {
+            List<String> members = new ArrayList<>();
+            for (int u = o; u < scale.users(); u += scale.organizations()) members.add(Scale.userId(u));
+            List<String> projects = new ArrayList<>();
+            for (int p = o; p < scale.projects(); p += scale.organizations()) projects.add(Scale.projectId(p));
+            batch.add(Organization.builder().id(Scale.organizationId(o)).name("Org " + o)
+                    .memberIds(members).projectIds(projects).ownerId(Scale.userId(o))
+                    .createdAt(daysAgo(400)).updatedAt(daysAgo(1)).isActive(true).build());
+            flushIfFull(batch, Organization.class);
+        }
+        flush(batch, Organization.class);
+    }
+
+    private void users() {
+        List<User> batch = new ArrayList<>();
+        for (int u = 0; u < scale.users(); u++) {
+            String first = "User" + u;
+            String last = WORDS[u % WORDS.length];
+            List<String> projects = new ArrayList<>();
+            for (int p = u % scale.projects(), k = 0; k < 3 && k < scale.projects(); k++) {
+                projects.add(Scale.projectId((p + k) % scale.projects()));
+            }
+            batch.add(User.builder().id(Scale.userId(u)).clerkId("clerk_" + u).email("user" + u + "@example.com")
+                    .firstName(first).lastName(last).fullName(first + " " + last).avatar("U" + last.charAt(0))
+                    .createdAt(daysAgo(300)).updatedAt(daysAgo(2)).isActive(true)
+                    .organizationIds(List.of(Scale.organizationId(u % scale.organizations())))
+                    .projectIds(projects).role(u % 10 == 0 ? "admin" : "developer")
+                    .permissions(List.of("view-reports")).timezone("UTC").locale("en").build());
+            flushIfFull(batch, User.class);
+        }
+        flush(batch, User.class);
+    }
+
+    // The same organization and project memberships as users(), as edges
+    private void memberships() {
+        List<Membership> batch = new ArrayList<>();
+        Date created = daysAgo(300);
+        for (int u = 0; u < scale.users(); u++) {
+            String userId = Scale.userId(u);
+            batch.add(Membership.builder().userId(userId).scopeType(Membership.ORGANIZATION)
+                    .scopeId(Scale.organizationId(u % scale.organizations())).createdAt(created).build());
+            for (int p = u % scale.projects(), k = 0; k < 3 && k < scale.projects(); k++) {
+                batch.add(Membership.builder().userId(userId).scopeType(Membership.PROJECT)
+                        .scopeId(Scale.projectId((p + k) % scale.projects())).createdAt(created).build());
+            }
+            flushIfFull(batch, Membership.class);
+        }
+        flush(batch, Membership.class);
+    }
+
+    private void projects() {
+        List<Project> batch = new ArrayList<>();
+        for (int p = 0; p < scale.projects(); p++) {
+            Project project = new Project();
+            project.setId((long) p + 1);
+            project.setName("Project " + p);
+            project.setKey("P" + p);
+            project.setOrganizationId(Scale.organizationId(scale.organizationOfProject(p)));
+            project.setDescription("Synthetic project " + p);
+            project.setLead(Scale.userId(p % scale.users()));
+            project.setColor("#3B82F6");
+            project.setIssues(scale.issues() / scale.projects());
+            batch.add(project);
+            flushIfFull(batch, Project.class);
+        }
+        flush(batch, Project.class);
+    }
+
+    private void sprints() {
+        List<Sprint> batch = new ArrayList<>();
+        for (int p = 0; p < scale.projects(); p++) {
+            for (int s = 0; s < scale.sprintsPerProject(); s++) {
+                // the last sprint is active, the rest are closed two weeks apart
+                int age = (scale.sprintsPerProject() - 1 - s) * 14;
+                List<String> team = new ArrayList<>();
+                for (int k = 0; k < 6; k++) team.add(Scale.userId((p * 6 + k) % scale.users()));
+                batch.add(Sprint.builder().id(Scale.sprintId(p, s)).name("Sprint " + (s + 1)).projectId(Scale.projectId(p))
+                        .startDate(daysAgo(age + 14)).endDate(daysAgo(age))
+                        .status(age == 0 ? "active" : "completed").goal("Goal " + s)
+                        .issues(new ArrayList<>()).velocity(20 + random.nextInt(20)).capacity(40)
+                        .teamMembers(team).build());
+                flushIfFull(batch, Sprint.class);
+            }
+        }
+        flush(batch, Sprint.class);
+    }
+
+    private void issues() {
+        List<Issue> issues = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        List<TimeLog> timeLogs = new ArrayList<>();
+        List<IssueLink> links = new ArrayList<>();
+        List<Notification> notifications = new ArrayList<>();
+        for (int i = 0; i < scale.issues(); i++) {
+            int project = scale.projectOfIssue(i);
+            String id = Scale.issueId(i);
+            String assignee = Scale.userId(random.nextInt(scale.users()));
+            String reporter = Scale.userId(random.nextInt(scale.users()));
+            // 30% backlog, the rest spread over the project's sprints
+            String sprint = random.nextInt(10) < 3 ? null
+                    : Scale.sprintId(project, random.nextInt(scale.sprintsPerProject()));
+
+            List<Comment> issueComments = new ArrayList<>();
+            for (int c = 0, n = geometric(3, 50); c < n; c++) {
+                issueComments.add(Comment.builder().id(id + "-c" + c).issueId(id)
+                        .authorId(Scale.userId(random.nextInt(scale.users())))
+                        .content(sentence(12)).timestamp(daysAgo(random.nextInt(120))).build());
+            }
+            List<TimeLog> issueTimeLogs = new ArrayList<>();
+            for (int t = 0, n = geometric(1.5, 20); t < n; t++) {
+                Date day = daysAgo(random.nextInt(90));
+                issueTimeLogs.add(TimeLog.builder().id(id + "-t" + t).issueId(id).authorId(assignee)
+                        .hours(0.5 * (1 + random.nextInt(12))).description(sentence(5)).category("development")
+                        .date(day).createdAt(day).updatedAt(day).build());
+            }
+            Date created = daysAgo(random.nextInt(365));
+            issues.add(Issue.builder().id(id).key("P" + project + "-" + (i / scale.projects() + 1))
+                    .title(sentence(6)).description(sentence(40)).projectId(Scale.projectId(project))
+                    .priority(PRIORITIES[random.nextInt(PRIORITIES.length)])
+                    .status(STATUSES[random.nextInt(STATUSES.length)]).type(TYPES[random.nextInt(TYPES.length)])
+                    .assigneeId(assignee).reporterId(reporter).created(created).updated(daysAgo(random.nextInt(30)))
+                    .dueDate(random.nextInt(4) == 0 ? null : new Date(now + (random.nextInt(60) - 20) * DAY))
+                    .estimatedHours(random.nextInt(24)).storyPoints(new int[]{1, 2, 3, 5, 8, 13}[random.nextInt(6)])
+                    .labels(List.of(WORDS[random.nextInt(WORDS.length)])).components(List.of())
+                    .sprintId(sprint).commentCount(issueComments.size()).attachments(List.of()).timeLogs(issueTimeLogs)
+                    .decisionLog(List.of()).subTaskIds(List.of()).linkedIssueIds(List.of())
+                    .isActive(true).build());
+            comments.addAll(issueComments);
+            timeLogs.addAll(issueTimeLogs);
+
+            if (random.nextInt(10) == 0 && scale.issues() > scale.projects()) {
+                // link to another issue of the same project
+                int target = (i + scale.projects() * (1 + random.nextInt(50))) % scale.issues();
+                links.add(IssueLink.builder().id(id + "-l").sourceIssueId(id).targetIssueId(Scale.issueId(target))
+                        .linkType(random.nextBoolean() ? "blocks" : "relates-to").createdById(reporter)
+                        .createdAt(created).isActive(true).build());
+            }
+            for (int n = 0, count = geometric(1.5, 10); n < count; n++) {
+                notifications.add(Notification.builder().type(n == 0 ? "issue_assigned" : "comment")
+                        .title("Update on " + id).message(sentence(8)).userId(n == 0 ? assignee : reporter)
+                        .projectId(Scale.projectId(project)).issueId(id)
+                        .organizationId(Scale.organizationId(scale.organizationOfProject(project)))
+                        .createdAt(daysAgo(random.nextInt(60))).isRead(random.nextBoolean()).isActive(true).build());
+            }
+
+            flushIfFull(issues, Issue.class);
+            flushIfFull(comments, Comment.class);
+            flushIfFull(timeLogs, TimeLog.class);
+            flushIfFull(links, IssueLink.class);
+            flushIfFull(notifications, Notification.class);
+            if ((i + 1) % 100_000 == 0) {
+                System.out.printf("  %d issues%n", i + 1);
+            }
+        }
+        flush(issues, Issue.class);
+        flush(comments, Comment.class);
+        flush(timeLogs, TimeLog.class);
+        flush(links, IssueLink.class);
+        flush(notifications, Notification.class);
+    }
+
+    private <T> void flushIfFull(List<T> batch, Class<T> type) {
+        if (batch.size() >= batchSize) {
+            flush(batch, type);
+        }
+    }
+
+    private <T> void flush(List<T> batch, Class<T> type) {
+        if (!batch.isEmpty()) {
+            template.insert(batch, type);
+            batch.clear();
+        }
+    }
+
+    // Long-tailed counts: most issues have a few comments, a handful have many
+    private int geometric(double mean, int max) {
+        double p = 1 / (mean + 1);
+        int n = (int) (Math.log(1 - random.nextDouble()) / Math.log(1 - p));
+        return Math.min(n, max);
+    }
+
+    private String sentence(int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) sb.append(' ');
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    private Date daysAgo(int days) {
+        return new Date(now - days * DAY);
+    }
+}
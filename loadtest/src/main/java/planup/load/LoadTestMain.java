@@ -0,0 +1,75 @@
+package planup.load;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// java -jar target/loadtest.jar generate --issues 100000 [--mongo mongodb://localhost:27017] [--db planup_load] [--drop]
+// java -jar target/loadtest.jar drive --issues 100000 [--url http://localhost:8080] [--concurrency 64]
+//      [--warmup 15] [--duration 60] [--mix board=30,detail=35,search=15,drag=10,comment=10] [--out target/load]
+// java -jar target/loadtest.jar compare --issues 100000 [--mongo mongodb://localhost:27017] [--db planup_load]
+//      [--concurrency 64] [--warmup 15] [--duration 60] [--mix ...] [--out target/load]
+public class LoadTestMain {
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            usage();
+            return;
+        }
+        Map<String, String> opts = options(args);
+        Scale scale = Scale.ofIssues(Integer.parseInt(opts.getOrDefault("issues", "10000")));
+        switch (args[0]) {
+            case "generate" -> {
+                try (MongoClient client = MongoClients.create(opts.getOrDefault("mongo", "mongodb://localhost:27017"))) {
+                    new DataGenerator(client, opts.getOrDefault("db", "planup_load"), scale,
+                            Integer.parseInt(opts.getOrDefault("batch", "1000")),
+                            Long.parseLong(opts.getOrDefault("seed", "42")))
+                            .generate(opts.containsKey("drop"));
+                }
+            }
+            case "drive" -> new WorkloadDriver(opts.getOrDefault("url", "http://localhost:8080"), scale, mix(opts.get("mix")))
+                    .run(Integer.parseInt(opts.getOrDefault("concurrency", "64")),
+                            Duration.ofSeconds(Long.parseLong(opts.getOrDefault("warmup", "15"))),
+                            Duration.ofSeconds(Long.parseLong(opts.getOrDefault("duration", "60"))),
+                            new File(opts.getOrDefault("out", "target/load")));
+            case "compare" -> new ModeComparison(opts.getOrDefault("mongo", "mongodb://localhost:27017"),
+                    opts.getOrDefault("db", "planup_load"), scale, mix(opts.get("mix")))
+                    .run(Integer.parseInt(opts.getOrDefault("concurrency", "64")),
+                            Duration.ofSeconds(Long.parseLong(opts.getOrDefault("warmup", "15"))),
+                            Duration.ofSeconds(Long.parseLong(opts.getOrDefault("duration", "60"))),
+                            new File(opts.getOrDefault("out", "target/load")));
+            default -> usage();
+        }
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            if (!args[i].startsWith("--")) continue;
+            String key = args[i].substring(2);
+            boolean hasValue = i + 1 < args.length && !args[i + 1].startsWith("--");
+            opts.put(key, hasValue ? args[++i] : "true");
+        }
+        return opts;
+    }
+
+    private static Map<String, Integer> mix(String spec) {
+        if (spec == null) return WorkloadDriver.defaultMix();
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.split("=");
+            mix.put(kv[0].trim(), Integer.parseInt(kv[1].trim()));
+        }
+        return mix;
+    }
+
+    private static void usage() {
+        System.out.println("usage: loadtest generate --issues N [--mongo URI] [--db NAME] [--drop] [--batch 1000] [--seed 42]");
+        System.out.println("       loadtest drive --issues N [--url URL] [--concurrency 64] [--warmup 15] [--duration 60] [--mix k=w,...] [--out DIR]");
+        System.out.println("       loadtest compare --issues N [--mongo URI] [--db NAME] [--concurrency 64] [--warmup 15] [--duration 60] [--mix k=w,...] [--out DIR]");
+    }
+}
@@ -0,0 +1,49 @@
+package planup.load;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import planup.backend.BackendApplication;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.Map;
+
+// Boots the backend in-process once per execution mode, on a random port and against the same database,
+// and replays the same mix with WorkloadDriver, so both runs go through ExecutionConfig, the Tomcat executor
+// and the bulkheads exactly as a deployment does. Each mode's report lands in <out>/<mode>; nothing is
+// asserted, the two tables are read side by side.
+public class ModeComparison {
+    private static final String[] MODES = {"platform", "virtual"};
+
+    private final String mongoUri;
+    private final String database;
+    private final Scale scale;
+    private final Map<String, Integer> mix;
+
+    public ModeComparison(String mongoUri, String database, Scale scale, Map<String, Integer> mix) {
+        this.mongoUri = mongoUri;
+        this.database = database;
+        this.scale = scale;
+        this.mix = mix;
+    }
+
+    public void run(int concurrency, Duration warmup, Duration duration, File reportDir) throws InterruptedException {
+        for (String mode : MODES) {
+            System.out.printf("%n== planup.execution.mode=%s ==%n", mode);
+            try (ConfigurableApplicationContext backend = new SpringApplicationBuilder(BackendApplication.class)
+                    .properties(
+                            "planup.execution.mode=" + mode,
+                            "server.port=0",
+                            "spring.data.mongodb.uri=" + mongoUri,
+                            "spring.data.mongodb.database=" + database,
+                            // keep the archiver from competing with the measured traffic
+                            "planup.archive.enabled=false")
+                    .run()) {
+                int port = ((WebServerApplicationContext) backend).getWebServer().getPort();
+                new WorkloadDriver("http://localhost:" + port, scale, mix)
+                        .run(concurrency, warmup, duration, new File(reportDir, mode));
+            }
+        }
+    }
+}
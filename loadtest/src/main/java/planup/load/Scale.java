@@ -0,0 +1,42 @@
+package planup.load;
+
+// Entity counts derived from the issue count, plus the deterministic id scheme the generator writes
+// and the driver reads back, so the driver needs no manifest beyond --issues.
+public record Scale(int issues, int organizations, int projects, int users, int sprintsPerProject) {
+
+    public static Scale ofIssues(int issues) {
+        int organizations = Math.max(1, issues / 20_000);
+        int projects = Math.max(1, issues / 1_000);
+        int users = Math.min(50_000, Math.max(20, issues / 100));
+        return new Scale(issues, organizations, projects, users, 8);
+    }
+
+    public static String organizationId(int n) {
+        return "org-" + n;
+    }
+
+    // Project is still keyed by a numeric id, so issues reference it by its decimal form
+    public static String projectId(int n) {
+        return String.valueOf(n + 1);
+    }
+
+    public static String userId(int n) {
+        return "usr-" + n;
+    }
+
+    public static String sprintId(int project, int n) {
+        return "spr-" + project + "-" + n;
+    }
+
+    public static String issueId(int n) {
+        return "iss-" + n;
+    }
+
+    public int projectOfIssue(int issue) {
+        return issue % projects;
+    }
+
+    public int organizationOfProject(int project) {
+        return project % organizations;
+    }
+}
@@ -0,0 +1,221 @@
+package planup.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-loop driver: `concurrency` virtual-thread clients each pick a scenario by weight, replay the
+// calls the mobile app makes for it, and record each call's latency in a per-endpoint histogram.
+// Issue picks are skewed (80% of traffic goes to 20% of issues) like a real board.
+public class WorkloadDriver {
+    private static final String[] STATUSES = {"To Do", "In Progress", "In Review", "Done"};
+    private static final String[] SEARCH_WORDS = {"board", "crash", "sync", "offline", "login", "sprint"};
+
+    private final HttpClient http;
+    private final ObjectMapper json = new ObjectMapper();
+    private final String baseUrl;
+    private final Scale scale;
+    private final Map<String, Integer> mix;
+    private final int totalWeight;
+    // Filled in the constructor and only read afterwards, so the client threads can share it without locking
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    public WorkloadDriver(String baseUrl, Scale scale, Map<String, Integer> mix) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.scale = scale;
+        this.mix = mix;
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        for (String scenario : mix.keySet()) {
+            for (String endpoint : endpoints(scenario)) {
+                endpoints.put(endpoint, new Endpoint());
+            }
+        }
+    }
+
+    // The calls each scenario makes, in the order it makes them
+    private static List<String> endpoints(String scenario) {
+        return switch (scenario) {
+            case "board" -> List.of("GET /issues/project/{projectId}");
+            case "detail" -> List.of("GET /issues/{id}", "GET /issues/{id}/comments", "GET /issues/{id}/timelogs",
+                    "GET /issues/{id}/attachments");
+            case "search" -> List.of("GET /issues/search");
+            case "drag" -> List.of("PUT /issues/bulk/status");
+            case "comment" -> List.of("POST /issues/{id}/comments");
+            default -> throw new IllegalArgumentException("unknown scenario " + scenario);
+        };
+    }
+
+    public static Map<String, Integer> defaultMix() {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        mix.put("board", 30);
+        mix.put("detail", 35);
+        mix.put("search", 15);
+        mix.put("drag", 10);
+        mix.put("comment", 10);
+        return mix;
+    }
+
+    public void run(int concurrency, Duration warmup, Duration duration, File reportDir) throws InterruptedException {
+        System.out.printf("warming up for %ds with %d clients%n", warmup.toSeconds(), concurrency);
+        drive(concurrency, warmup);
+        endpoints.values().forEach(Endpoint::reset);
+
+        System.out.printf("measuring for %ds%n", duration.toSeconds());
+        long start = System.nanoTime();
+        drive(concurrency, duration);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        report(seconds, reportDir);
+    }
+
+    private void drive(int concurrency, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        scenario(pick());
+                    }
+                });
+            }
+            clients.shutdown();
+            clients.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        }
+    }
+
+    private String pick() {
+        int r = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<String, Integer> e : mix.entrySet()) {
+            r -= e.getValue();
+            if (r < 0) return e.getKey();
+        }
+        throw new IllegalStateException("empty mix");
+    }
+
+    private void scenario(String name) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String issue = Scale.issueId(hotIssue(random));
+        String project = Scale.projectId(random.nextInt(scale.projects()));
+        switch (name) {
+            case "board" -> call("GET /issues/project/{projectId}", get("/issues/project/" + project));
+            case "detail" -> {
+                call("GET /issues/{id}", get("/issues/" + issue));
+                call("GET /issues/{id}/comments", get("/issues/" + issue + "/comments"));
+                call("GET /issues/{id}/timelogs", get("/issues/" + issue + "/timelogs"));
+                call("GET /issues/{id}/attachments", get("/issues/" + issue + "/attachments"));
+            }
+            case "search" -> call("GET /issues/search", get("/issues/search?projectId=" + project
+                    + "&text=" + URLEncoder.encode(SEARCH_WORDS[random.nextInt(SEARCH_WORDS.length)], StandardCharsets.UTF_8)));
+            // a status-only move; PUT /issues/{id} replaces the whole issue and would wipe the fields not sent
+            case "drag" -> call("PUT /issues/bulk/status", send("PUT", "/issues/bulk/status", Map.of(
+                    "issueIds", List.of(issue),
+                    "status", STATUSES[random.nextInt(STATUSES.length)])));
+            case "comment" -> call("POST /issues/{id}/comments", send("POST", "/issues/" + issue + "/comments", Map.of(
+                    "authorId", Scale.userId(random.nextInt(scale.users())),
+                    "content", "Load test comment on " + issue)));
+            default -> throw new IllegalArgumentException("unknown scenario " + name);
+        }
+    }
+
+    private int hotIssue(ThreadLocalRandom random) {
+        int hot = Math.max(1, scale.issues() / 5);
+        return random.nextInt(10) < 8 ? random.nextInt(hot) : random.nextInt(scale.issues());
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, Map<String, Object> body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(body)))
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void call(String name, HttpRequest request) {
+        Endpoint endpoint = endpoint(name);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            endpoint.record(System.nanoTime() - start, response.statusCode() < 400, response.body().length);
+        } catch (Exception e) {
+            endpoint.record(System.nanoTime() - start, false, 0);
+        }
+    }
+
+    private Endpoint endpoint(String name) {
+        Endpoint e = endpoints.get(name);
+        if (e == null) throw new IllegalStateException("endpoint not registered: " + name);
+        return e;
+    }
+
+    private void report(double seconds, File reportDir) {
+        reportDir.mkdirs();
+        PrintStream out = System.out;
+        out.printf("%n%-32s %9s %9s %8s %8s %8s %8s %8s %10s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms", "avg bytes");
+        for (Map.Entry<String, Endpoint> e : endpoints.entrySet()) {
+            Endpoint ep = e.getValue();
+            Histogram h = ep.latency;
+            long n = h.getTotalCount();
+            out.printf("%-32s %9d %9.1f %8d %8.1f %8.1f %8.1f %8.1f %10d%n", e.getKey(), n, n / seconds,
+                    ep.errors.get(), ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(95)),
+                    ms(h.getValueAtPercentile(99)), ms(h.getMaxValue()), n == 0 ? 0 : ep.bytes.get() / n);
+            File file = new File(reportDir, e.getKey().replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm");
+            try (PrintStream hgrm = new PrintStream(file)) {
+                h.outputPercentileDistribution(hgrm, 1_000_000.0);
+            } catch (Exception ex) {
+                out.println("could not write " + file + ": " + ex.getMessage());
+            }
+        }
+        out.printf("%nhistograms (.hgrm, milliseconds) written to %s%n", reportDir.getAbsolutePath());
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Endpoint {
+        final Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+
+        void record(long nanos, boolean ok, long size) {
+            latency.recordValue(Math.min(nanos, latency.getHighestTrackableValue()));
+            bytes.addAndGet(size);
+            if (!ok) errors.incrementAndGet();
+        }
+
+        void reset() {
+            latency.reset();
+            errors.set(0);
+            bytes.set(0);
+        }
+    }
+}